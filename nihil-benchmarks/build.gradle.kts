@@ -0,0 +1,58 @@
+plugins {
+    id("java")
+}
+
+group = "me.adversing"
+version = "1.0-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+val jmhVersion = "1.37"
+
+dependencies {
+    implementation(project(":"))
+    implementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+
+    testImplementation(platform("org.junit:junit-bom:5.10.0"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+// JMH options can be passed with -PjmhArgs, e.g. -PjmhArgs="AccessStrategy -p shape=WIDE"
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks with the GC profiler."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-prof", "gc")
+    args(providers.gradleProperty("jmhArgs").map { it.split(" ").filter(String::isNotBlank) }.getOrElse(emptyList()))
+}
+
+// replays a recorded workload profile, e.g. -Pprofile=workload.bin -PreplayProviders="com.example.MyProvider"
+tasks.register<JavaExec>("replayWorkload") {
+    group = "benchmark"
+    description = "Replays a recorded workload profile against Nihil providers."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("me.adversing.nihil.benchmarks.replay.WorkloadReplay")
+    args(providers.gradleProperty("profile").getOrElse("workload.bin"))
+    args(providers.gradleProperty("replayProviders").map { it.split(" ").filter(String::isNotBlank) }.getOrElse(emptyList()))
+}
+
+// fails the build when a steady-state plain update allocates
+val allocationBudget = tasks.register<JavaExec>("allocationBudget") {
+    group = "verification"
+    description = "Checks that steady-state plain updates do not allocate."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("me.adversing.nihil.benchmarks.AllocationBudget")
+}
+
+tasks.check {
+    dependsOn(allocationBudget)
+}
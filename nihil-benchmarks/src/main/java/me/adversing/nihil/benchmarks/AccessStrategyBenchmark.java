@@ -0,0 +1,55 @@
+package me.adversing.nihil.benchmarks;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.config.NihilConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain updates under each access strategy, for narrow and wide sources carrying all or only a few properties.
+ * Compare with {@link TraditionalBenchmark} for the hand-written equivalent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessStrategyBenchmark {
+
+    @Param({"AUTO", "METHOD", "FIELD"})
+    private NihilConfig.AccessStrategy strategy;
+
+    @Param({"NARROW", "PRIMITIVE", "WIDE"})
+    private Shape shape;
+
+    @Param({"true", "false"})
+    private boolean dense;
+
+    private Nihil nihil;
+    private Object source;
+    private Object target;
+
+    @Setup
+    public void setUp() {
+        nihil = Nihil.create(NihilConfig.builder().withAccessStrategy(strategy).build());
+        source = shape.source(dense);
+        target = shape.newTarget();
+    }
+
+    @Benchmark
+    public Object update() {
+        return nihil.update(target, source);
+    }
+}
@@ -0,0 +1,85 @@
+package me.adversing.nihil.benchmarks;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.benchmarks.model.Fixtures;
+import me.adversing.nihil.benchmarks.model.TaggedEntity;
+import me.adversing.nihil.config.NihilConfig;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that steady-state plain updates allocate nothing, using the per-thread allocation counter of
+ * {@link com.sun.management.ThreadMXBean}. Every scenario is warmed up until compiled, then measured over
+ * many updates; any scenario allocating more than its budget fails the run with a non-zero exit code.
+ */
+public final class AllocationBudget {
+
+    private static final int WARMUP_UPDATES = 200_000;
+    private static final int MEASURED_UPDATES = 100_000;
+    private static final long BUDGET_BYTES_PER_UPDATE = 0;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationBudget() {}
+
+    public static void main(String[] args) {
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.out.println("Thread allocation accounting is not supported by this JVM, skipping");
+            return;
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        List<String> failures = new ArrayList<>();
+        for (NihilConfig.AccessStrategy strategy : NihilConfig.AccessStrategy.values()) {
+            for (NihilConfig.ConcurrencyMode mode : new NihilConfig.ConcurrencyMode[]{
+                    NihilConfig.ConcurrencyMode.NONE, NihilConfig.ConcurrencyMode.STRIPED_LOCK}) {
+                Nihil nihil = Nihil.create(NihilConfig.builder()
+                        .withAccessStrategy(strategy)
+                        .withConcurrencyMode(mode)
+                        .build());
+                for (Shape shape : Shape.values()) {
+                    for (boolean dense : new boolean[]{true, false}) {
+                        check(failures, strategy + "/" + mode + "/" + shape + "/" + (dense ? "dense" : "sparse"),
+                                measure(nihil, shape.newTarget(), shape.source(dense)));
+                    }
+                }
+                // the same property receives a different list class on every update
+                check(failures, strategy + "/" + mode + "/ALTERNATING",
+                        measure(nihil, new TaggedEntity(), (Object[]) Fixtures.alternatingTags()));
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            System.err.println("Allocation budget of " + BUDGET_BYTES_PER_UPDATE + " B/update exceeded by " + failures);
+            System.exit(1);
+        }
+    }
+
+    private static void check(List<String> failures, String scenario, double bytes) {
+        System.out.printf("%-40s %8.2f B/update%n", scenario, bytes);
+        if (bytes > BUDGET_BYTES_PER_UPDATE) {
+            failures.add(scenario);
+        }
+    }
+
+    /**
+     * Updates the target from the sources in turn.
+     */
+    private static double measure(Nihil nihil, Object target, Object... sources) {
+        for (int i = 0; i < WARMUP_UPDATES; i++) {
+            nihil.update(target, sources[i % sources.length]);
+        }
+
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_UPDATES; i++) {
+            nihil.update(target, sources[i % sources.length]);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+
+        // integer division would hide a few stray allocations, so the average is kept fractional
+        return (double) allocated / MEASURED_UPDATES;
+    }
+}
@@ -0,0 +1,90 @@
+package me.adversing.nihil.benchmarks;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.benchmarks.model.CourseCatalog;
+import me.adversing.nihil.benchmarks.model.Fixtures;
+import me.adversing.nihil.benchmarks.model.NarrowDTO;
+import me.adversing.nihil.benchmarks.model.NarrowEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The fluent {@code forTarget(...)} paths against a direct update, including transformers and mappings
+ * named by strings and by method references.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderBenchmark {
+
+    private Nihil nihil;
+    private CourseCatalog catalog;
+    private NarrowDTO source;
+    private NarrowEntity target;
+
+    @Setup
+    public void setUp() {
+        nihil = Nihil.create();
+        catalog = new CourseCatalog();
+        source = Fixtures.narrow(true);
+        target = new NarrowEntity();
+    }
+
+    @Benchmark
+    public NarrowEntity update() {
+        return nihil.update(target, source);
+    }
+
+    @Benchmark
+    public NarrowEntity forTarget() {
+        return nihil.forTarget(target).update(source);
+    }
+
+    @Benchmark
+    public NarrowEntity forTargetWithDependency() {
+        return nihil.forTarget(target)
+                .withDependency(CourseCatalog.class, catalog)
+                .update(source);
+    }
+
+    @Benchmark
+    public NarrowEntity forTargetWithTransformer() {
+        return nihil.forTarget(target)
+                .<String>withTransformer("name", String::toUpperCase)
+                .update(source);
+    }
+
+    @Benchmark
+    public NarrowEntity forTargetWithReferenceTransformer() {
+        return nihil.forTarget(target)
+                .withTransformer(NarrowDTO::getName, String::toUpperCase)
+                .update(source);
+    }
+
+    @Benchmark
+    public NarrowEntity forTargetWithMapping() {
+        return nihil.forTarget(target)
+                .withMapping("email", "name")
+                .update(source);
+    }
+
+    @Benchmark
+    public NarrowEntity forTargetWithReferenceMapping() {
+        return nihil.forTarget(target)
+                .withMapping(NarrowDTO::getEmail, NarrowEntity::setName)
+                .update(source);
+    }
+}
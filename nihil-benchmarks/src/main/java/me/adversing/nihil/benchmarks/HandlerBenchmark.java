@@ -0,0 +1,63 @@
+package me.adversing.nihil.benchmarks;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.benchmarks.model.CourseCatalog;
+import me.adversing.nihil.benchmarks.model.Enrollment;
+import me.adversing.nihil.benchmarks.model.EnrollmentDTO;
+import me.adversing.nihil.benchmarks.model.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates with a handler-backed property resolving ids through an injected dependency,
+ * against the same resolution written by hand.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+
+    @Param({"1", "8"})
+    private int courses;
+
+    private Nihil nihil;
+    private CourseCatalog catalog;
+    private Map<Class<?>, Object> dependencies;
+    private EnrollmentDTO source;
+    private Enrollment target;
+
+    @Setup
+    public void setUp() {
+        nihil = Nihil.create();
+        catalog = new CourseCatalog();
+        dependencies = Map.of(CourseCatalog.class, catalog);
+        source = Fixtures.enrollment(courses);
+        target = new Enrollment();
+    }
+
+    @Benchmark
+    public Enrollment update() {
+        return nihil.update(target, source, dependencies);
+    }
+
+    @Benchmark
+    public Enrollment updateTraditional() {
+        Fixtures.updateTraditional(target, source, catalog);
+        return target;
+    }
+}
@@ -0,0 +1,89 @@
+package me.adversing.nihil.benchmarks;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.benchmarks.model.Fixtures;
+import me.adversing.nihil.benchmarks.model.NarrowDTO;
+import me.adversing.nihil.benchmarks.model.NarrowEntity;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.journal.MappedPatchJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of journaled updates as threads are added, with a single append lane against several.
+ * Every thread updates its own target, so the journal is the only shared state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+
+    @Param({"1", "4"})
+    private int lanes;
+
+    private Path directory;
+    private MappedPatchJournal journal;
+    private Nihil nihil;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("nihil-journal");
+        journal = MappedPatchJournal.open(directory, 64 << 20, lanes, target -> ((NarrowEntity) target).getId());
+        nihil = Nihil.create(NihilConfig.builder().withJournal(journal).build());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private NarrowDTO source;
+        private NarrowEntity target;
+
+        @Setup
+        public void setUp() {
+            source = Fixtures.narrow(true);
+            target = new NarrowEntity();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public NarrowEntity oneThread(ThreadState state) {
+        return nihil.update(state.target, state.source);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public NarrowEntity fourThreads(ThreadState state) {
+        return nihil.update(state.target, state.source);
+    }
+}
@@ -0,0 +1,86 @@
+package me.adversing.nihil.benchmarks;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.benchmarks.model.Fixtures;
+import me.adversing.nihil.benchmarks.model.NarrowDTO;
+import me.adversing.nihil.benchmarks.model.NarrowEntity;
+import me.adversing.nihil.config.NihilConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one shared Nihil instance as threads are added, under each concurrency mode.
+ * Threads either update their own target or all contend on a single one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+
+    @Param({"NONE", "STRIPED_LOCK", "OPTIMISTIC"})
+    private NihilConfig.ConcurrencyMode concurrency;
+
+    @Param({"false", "true"})
+    private boolean sharedTarget;
+
+    private Nihil nihil;
+    private NarrowEntity shared;
+
+    @Setup
+    public void setUp() {
+        nihil = Nihil.create(NihilConfig.builder()
+                .withConcurrencyMode(concurrency)
+                .withVersionProperty("version")
+                .build());
+        shared = new NarrowEntity();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private NarrowDTO source;
+        private NarrowEntity own;
+
+        @Setup
+        public void setUp() {
+            source = Fixtures.narrow(true);
+            own = new NarrowEntity();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public NarrowEntity oneThread(ThreadState state) {
+        return update(state);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public NarrowEntity fourThreads(ThreadState state) {
+        return update(state);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public NarrowEntity allThreads(ThreadState state) {
+        return update(state);
+    }
+
+    private NarrowEntity update(ThreadState state) {
+        return nihil.update(sharedTarget ? shared : state.own, state.source);
+    }
+}
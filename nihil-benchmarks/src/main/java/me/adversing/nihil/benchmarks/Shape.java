@@ -0,0 +1,80 @@
+package me.adversing.nihil.benchmarks;
+
+import me.adversing.nihil.benchmarks.model.Fixtures;
+import me.adversing.nihil.benchmarks.model.NarrowDTO;
+import me.adversing.nihil.benchmarks.model.NarrowEntity;
+import me.adversing.nihil.benchmarks.model.PrimitiveDTO;
+import me.adversing.nihil.benchmarks.model.PrimitiveEntity;
+import me.adversing.nihil.benchmarks.model.WideDTO;
+import me.adversing.nihil.benchmarks.model.WideEntity;
+
+/**
+ * Source/target pairs the benchmarks are parameterized over.
+ */
+public enum Shape {
+    /**
+     * Four properties.
+     */
+    NARROW {
+        @Override
+        Object source(boolean dense) {
+            return Fixtures.narrow(dense);
+        }
+
+        @Override
+        Object newTarget() {
+            return new NarrowEntity();
+        }
+
+        @Override
+        void updateTraditional(Object target, Object source) {
+            Fixtures.updateTraditional((NarrowEntity) target, (NarrowDTO) source);
+        }
+    },
+
+    /**
+     * Four primitive properties and one reference.
+     */
+    PRIMITIVE {
+        @Override
+        Object source(boolean dense) {
+            return Fixtures.primitive(dense);
+        }
+
+        @Override
+        Object newTarget() {
+            return new PrimitiveEntity();
+        }
+
+        @Override
+        void updateTraditional(Object target, Object source) {
+            Fixtures.updateTraditional((PrimitiveEntity) target, (PrimitiveDTO) source);
+        }
+    },
+
+    /**
+     * Twenty-four properties.
+     */
+    WIDE {
+        @Override
+        Object source(boolean dense) {
+            return Fixtures.wide(dense);
+        }
+
+        @Override
+        Object newTarget() {
+            return new WideEntity();
+        }
+
+        @Override
+        void updateTraditional(Object target, Object source) {
+            Fixtures.updateTraditional((WideEntity) target, (WideDTO) source);
+        }
+    };
+
+    abstract Object source(boolean dense);
+
+    abstract Object newTarget();
+
+    abstract void updateTraditional(Object target, Object source);
+}
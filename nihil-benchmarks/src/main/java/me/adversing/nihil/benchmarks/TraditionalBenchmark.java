@@ -0,0 +1,48 @@
+package me.adversing.nihil.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand-written null-checked updates, the baseline for {@link AccessStrategyBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraditionalBenchmark {
+
+    @Param({"NARROW", "WIDE"})
+    private Shape shape;
+
+    @Param({"true", "false"})
+    private boolean dense;
+
+    private Object source;
+    private Object target;
+
+    @Setup
+    public void setUp() {
+        source = shape.source(dense);
+        target = shape.newTarget();
+    }
+
+    @Benchmark
+    public Object updateTraditional() {
+        shape.updateTraditional(target, source);
+        return target;
+    }
+}
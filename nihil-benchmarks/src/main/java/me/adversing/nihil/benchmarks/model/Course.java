@@ -0,0 +1,3 @@
+package me.adversing.nihil.benchmarks.model;
+
+public record Course(Long id, String name) {}
@@ -0,0 +1,21 @@
+package me.adversing.nihil.benchmarks.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory course lookup injected into {@link CourseIdsHandler}.
+ */
+public class CourseCatalog {
+    private final Map<Long, Course> courses = new HashMap<>();
+
+    public CourseCatalog() {
+        for (long id = 1; id <= 16; id++) {
+            courses.put(id, new Course(id, "Course " + id));
+        }
+    }
+
+    public Course findById(Long id) {
+        return courses.get(id);
+    }
+}
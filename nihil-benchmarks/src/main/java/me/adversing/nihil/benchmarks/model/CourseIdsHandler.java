@@ -0,0 +1,28 @@
+package me.adversing.nihil.benchmarks.model;
+
+import me.adversing.nihil.annotation.Dependency;
+import me.adversing.nihil.intf.IPropertyHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves course ids to courses, like the example {@code CourseIdHandler} but without logging.
+ */
+public class CourseIdsHandler implements IPropertyHandler<List<Long>> {
+
+    @Dependency
+    private CourseCatalog catalog;
+
+    @Override
+    public Object process(List<Long> courseIds) {
+        List<Course> courses = new ArrayList<>(courseIds.size());
+        for (Long id : courseIds) {
+            Course course = catalog.findById(id);
+            if (course != null) {
+                courses.add(course);
+            }
+        }
+        return courses;
+    }
+}
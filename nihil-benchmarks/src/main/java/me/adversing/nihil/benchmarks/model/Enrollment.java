@@ -0,0 +1,19 @@
+package me.adversing.nihil.benchmarks.model;
+
+import java.util.List;
+
+/**
+ * Target of {@link EnrollmentDTO}.
+ */
+public class Enrollment {
+    private String studentName;
+    private List<Course> courses;
+
+    public Enrollment() {}
+
+    public String getStudentName() { return studentName; }
+    public void setStudentName(String studentName) { this.studentName = studentName; }
+
+    public List<Course> getCourses() { return courses; }
+    public void setCourses(List<Course> courses) { this.courses = courses; }
+}
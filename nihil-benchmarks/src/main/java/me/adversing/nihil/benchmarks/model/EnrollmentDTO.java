@@ -0,0 +1,23 @@
+package me.adversing.nihil.benchmarks.model;
+
+import me.adversing.nihil.annotation.UpdateProperty;
+
+import java.util.List;
+
+/**
+ * Source with a handler-backed property.
+ */
+public class EnrollmentDTO {
+    private String studentName;
+
+    @UpdateProperty(handler = CourseIdsHandler.class, targetProperty = "courses")
+    private List<Long> courseIds;
+
+    public EnrollmentDTO() {}
+
+    public String getStudentName() { return studentName; }
+    public void setStudentName(String studentName) { this.studentName = studentName; }
+
+    public List<Long> getCourseIds() { return courseIds; }
+    public void setCourseIds(List<Long> courseIds) { this.courseIds = courseIds; }
+}
@@ -0,0 +1,245 @@
+package me.adversing.nihil.benchmarks.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark inputs and the hand-written updates Nihil is compared against.
+ * Dense sources carry every property, sparse ones only a few, the rest being null.
+ */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    public static NarrowDTO narrow(boolean dense) {
+        NarrowDTO dto = new NarrowDTO();
+        dto.setName("Jane");
+        if (dense) {
+            dto.setId(42L);
+            dto.setEmail("jane@example.com");
+            dto.setActive(Boolean.TRUE);
+        }
+        return dto;
+    }
+
+    public static WideDTO wide(boolean dense) {
+        return dense ? denseWide() : sparseWide();
+    }
+
+    private static WideDTO denseWide() {
+        WideDTO dto = new WideDTO();
+        dto.setText1("value-1");
+        dto.setCount1(2);
+        dto.setAmount1(3L);
+        dto.setFlag1(Boolean.TRUE);
+        dto.setText2("value-5");
+        dto.setCount2(6);
+        dto.setAmount2(7L);
+        dto.setFlag2(Boolean.TRUE);
+        dto.setText3("value-9");
+        dto.setCount3(10);
+        dto.setAmount3(11L);
+        dto.setFlag3(Boolean.TRUE);
+        dto.setText4("value-13");
+        dto.setCount4(14);
+        dto.setAmount4(15L);
+        dto.setFlag4(Boolean.TRUE);
+        dto.setText5("value-17");
+        dto.setCount5(18);
+        dto.setAmount5(19L);
+        dto.setFlag5(Boolean.TRUE);
+        dto.setText6("value-21");
+        dto.setCount6(22);
+        dto.setAmount6(23L);
+        dto.setFlag6(Boolean.TRUE);
+        return dto;
+    }
+
+    private static WideDTO sparseWide() {
+        WideDTO dto = new WideDTO();
+        dto.setText1("value-1");
+        dto.setCount3(10);
+        dto.setAmount5(19L);
+        return dto;
+    }
+
+    // values outside the boxing caches, so a boxed copy would allocate
+    public static PrimitiveDTO primitive(boolean dense) {
+        PrimitiveDTO dto = new PrimitiveDTO();
+        dto.setId(1_000_000_007L);
+        dto.setQuantity(100_000);
+        dto.setPrice(19.99);
+        if (dense) {
+            dto.setActive(true);
+            dto.setSku("SKU-100000");
+        }
+        return dto;
+    }
+
+    /**
+     * Two sources holding equal tags in different list classes, to alternate between.
+     */
+    public static TaggedDTO[] alternatingTags() {
+        TaggedDTO mutable = new TaggedDTO();
+        mutable.setTags(new ArrayList<>(List.of("a", "b")));
+        TaggedDTO immutable = new TaggedDTO();
+        immutable.setTags(List.of("a", "b"));
+        return new TaggedDTO[]{mutable, immutable};
+    }
+
+    public static EnrollmentDTO enrollment(int courses) {
+        List<Long> courseIds = new ArrayList<>(courses);
+        for (long id = 1; id <= courses; id++) {
+            courseIds.add(id);
+        }
+
+        EnrollmentDTO dto = new EnrollmentDTO();
+        dto.setStudentName("Jane");
+        dto.setCourseIds(courseIds);
+        return dto;
+    }
+
+    public static void updateTraditional(NarrowEntity entity, NarrowDTO dto) {
+        if (dto.getId() != null) {
+            entity.setId(dto.getId());
+        }
+
+        if (dto.getName() != null) {
+            entity.setName(dto.getName());
+        }
+
+        if (dto.getEmail() != null) {
+            entity.setEmail(dto.getEmail());
+        }
+
+        if (dto.getActive() != null) {
+            entity.setActive(dto.getActive());
+        }
+    }
+
+    public static void updateTraditional(PrimitiveEntity entity, PrimitiveDTO dto) {
+        entity.setId(dto.getId());
+        entity.setQuantity(dto.getQuantity());
+        entity.setPrice(dto.getPrice());
+        entity.setActive(dto.isActive());
+
+        if (dto.getSku() != null) {
+            entity.setSku(dto.getSku());
+        }
+    }
+
+    public static void updateTraditional(WideEntity entity, WideDTO dto) {
+        if (dto.getText1() != null) {
+            entity.setText1(dto.getText1());
+        }
+
+        if (dto.getCount1() != null) {
+            entity.setCount1(dto.getCount1());
+        }
+
+        if (dto.getAmount1() != null) {
+            entity.setAmount1(dto.getAmount1());
+        }
+
+        if (dto.getFlag1() != null) {
+            entity.setFlag1(dto.getFlag1());
+        }
+
+        if (dto.getText2() != null) {
+            entity.setText2(dto.getText2());
+        }
+
+        if (dto.getCount2() != null) {
+            entity.setCount2(dto.getCount2());
+        }
+
+        if (dto.getAmount2() != null) {
+            entity.setAmount2(dto.getAmount2());
+        }
+
+        if (dto.getFlag2() != null) {
+            entity.setFlag2(dto.getFlag2());
+        }
+
+        if (dto.getText3() != null) {
+            entity.setText3(dto.getText3());
+        }
+
+        if (dto.getCount3() != null) {
+            entity.setCount3(dto.getCount3());
+        }
+
+        if (dto.getAmount3() != null) {
+            entity.setAmount3(dto.getAmount3());
+        }
+
+        if (dto.getFlag3() != null) {
+            entity.setFlag3(dto.getFlag3());
+        }
+
+        if (dto.getText4() != null) {
+            entity.setText4(dto.getText4());
+        }
+
+        if (dto.getCount4() != null) {
+            entity.setCount4(dto.getCount4());
+        }
+
+        if (dto.getAmount4() != null) {
+            entity.setAmount4(dto.getAmount4());
+        }
+
+        if (dto.getFlag4() != null) {
+            entity.setFlag4(dto.getFlag4());
+        }
+
+        if (dto.getText5() != null) {
+            entity.setText5(dto.getText5());
+        }
+
+        if (dto.getCount5() != null) {
+            entity.setCount5(dto.getCount5());
+        }
+
+        if (dto.getAmount5() != null) {
+            entity.setAmount5(dto.getAmount5());
+        }
+
+        if (dto.getFlag5() != null) {
+            entity.setFlag5(dto.getFlag5());
+        }
+
+        if (dto.getText6() != null) {
+            entity.setText6(dto.getText6());
+        }
+
+        if (dto.getCount6() != null) {
+            entity.setCount6(dto.getCount6());
+        }
+
+        if (dto.getAmount6() != null) {
+            entity.setAmount6(dto.getAmount6());
+        }
+
+        if (dto.getFlag6() != null) {
+            entity.setFlag6(dto.getFlag6());
+        }
+    }
+
+    public static void updateTraditional(Enrollment entity, EnrollmentDTO dto, CourseCatalog catalog) {
+        if (dto.getStudentName() != null) {
+            entity.setStudentName(dto.getStudentName());
+        }
+
+        if (dto.getCourseIds() != null) {
+            List<Course> courses = new ArrayList<>(dto.getCourseIds().size());
+            for (Long id : dto.getCourseIds()) {
+                Course course = catalog.findById(id);
+                if (course != null) {
+                    courses.add(course);
+                }
+            }
+            entity.setCourses(courses);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package me.adversing.nihil.benchmarks.model;
+
+/**
+ * Source with a handful of properties, the typical PATCH body.
+ */
+public class NarrowDTO {
+    private Long id;
+    private String name;
+    private String email;
+    private Boolean active;
+
+    public NarrowDTO() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+}
@@ -0,0 +1,29 @@
+package me.adversing.nihil.benchmarks.model;
+
+/**
+ * Target of {@link NarrowDTO}, versioned for optimistic updates.
+ */
+public class NarrowEntity {
+    private Long id;
+    private String name;
+    private String email;
+    private Boolean active;
+    private long version;
+
+    public NarrowEntity() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
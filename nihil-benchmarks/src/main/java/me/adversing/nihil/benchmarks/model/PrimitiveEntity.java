@@ -0,0 +1,29 @@
+package me.adversing.nihil.benchmarks.model;
+
+/**
+ * Target of {@link PrimitiveDTO}.
+ */
+public class PrimitiveEntity {
+    private long id;
+    private int quantity;
+    private double price;
+    private boolean active;
+    private String sku;
+
+    public PrimitiveEntity() {}
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+}
@@ -0,0 +1,15 @@
+package me.adversing.nihil.benchmarks.model;
+
+import java.util.List;
+
+/**
+ * Source whose list property holds different list classes from one update to the next.
+ */
+public class TaggedDTO {
+    private List<String> tags;
+
+    public TaggedDTO() {}
+
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+}
@@ -0,0 +1,15 @@
+package me.adversing.nihil.benchmarks.model;
+
+import java.util.List;
+
+/**
+ * Target of {@link TaggedDTO}.
+ */
+public class TaggedEntity {
+    private List<String> tags;
+
+    public TaggedEntity() {}
+
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+}
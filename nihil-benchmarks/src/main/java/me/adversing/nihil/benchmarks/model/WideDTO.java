@@ -0,0 +1,105 @@
+package me.adversing.nihil.benchmarks.model;
+
+/**
+ * Source with two dozen properties of mixed types.
+ */
+public class WideDTO {
+    private String text1;
+    private Integer count1;
+    private Long amount1;
+    private Boolean flag1;
+    private String text2;
+    private Integer count2;
+    private Long amount2;
+    private Boolean flag2;
+    private String text3;
+    private Integer count3;
+    private Long amount3;
+    private Boolean flag3;
+    private String text4;
+    private Integer count4;
+    private Long amount4;
+    private Boolean flag4;
+    private String text5;
+    private Integer count5;
+    private Long amount5;
+    private Boolean flag5;
+    private String text6;
+    private Integer count6;
+    private Long amount6;
+    private Boolean flag6;
+
+    public WideDTO() {}
+
+    public String getText1() { return text1; }
+    public void setText1(String text1) { this.text1 = text1; }
+
+    public Integer getCount1() { return count1; }
+    public void setCount1(Integer count1) { this.count1 = count1; }
+
+    public Long getAmount1() { return amount1; }
+    public void setAmount1(Long amount1) { this.amount1 = amount1; }
+
+    public Boolean getFlag1() { return flag1; }
+    public void setFlag1(Boolean flag1) { this.flag1 = flag1; }
+
+    public String getText2() { return text2; }
+    public void setText2(String text2) { this.text2 = text2; }
+
+    public Integer getCount2() { return count2; }
+    public void setCount2(Integer count2) { this.count2 = count2; }
+
+    public Long getAmount2() { return amount2; }
+    public void setAmount2(Long amount2) { this.amount2 = amount2; }
+
+    public Boolean getFlag2() { return flag2; }
+    public void setFlag2(Boolean flag2) { this.flag2 = flag2; }
+
+    public String getText3() { return text3; }
+    public void setText3(String text3) { this.text3 = text3; }
+
+    public Integer getCount3() { return count3; }
+    public void setCount3(Integer count3) { this.count3 = count3; }
+
+    public Long getAmount3() { return amount3; }
+    public void setAmount3(Long amount3) { this.amount3 = amount3; }
+
+    public Boolean getFlag3() { return flag3; }
+    public void setFlag3(Boolean flag3) { this.flag3 = flag3; }
+
+    public String getText4() { return text4; }
+    public void setText4(String text4) { this.text4 = text4; }
+
+    public Integer getCount4() { return count4; }
+    public void setCount4(Integer count4) { this.count4 = count4; }
+
+    public Long getAmount4() { return amount4; }
+    public void setAmount4(Long amount4) { this.amount4 = amount4; }
+
+    public Boolean getFlag4() { return flag4; }
+    public void setFlag4(Boolean flag4) { this.flag4 = flag4; }
+
+    public String getText5() { return text5; }
+    public void setText5(String text5) { this.text5 = text5; }
+
+    public Integer getCount5() { return count5; }
+    public void setCount5(Integer count5) { this.count5 = count5; }
+
+    public Long getAmount5() { return amount5; }
+    public void setAmount5(Long amount5) { this.amount5 = amount5; }
+
+    public Boolean getFlag5() { return flag5; }
+    public void setFlag5(Boolean flag5) { this.flag5 = flag5; }
+
+    public String getText6() { return text6; }
+    public void setText6(String text6) { this.text6 = text6; }
+
+    public Integer getCount6() { return count6; }
+    public void setCount6(Integer count6) { this.count6 = count6; }
+
+    public Long getAmount6() { return amount6; }
+    public void setAmount6(Long amount6) { this.amount6 = amount6; }
+
+    public Boolean getFlag6() { return flag6; }
+    public void setFlag6(Boolean flag6) { this.flag6 = flag6; }
+}
@@ -0,0 +1,272 @@
+package me.adversing.nihil.benchmarks.replay;
+
+import me.adversing.nihil.util.PresenceMasks;
+import me.adversing.nihil.util.ReflectionUtils;
+import me.adversing.nihil.workload.WorkloadProfile;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Generates sources matching the recorded shape of a class pair: presence patterns are drawn with their
+ * recorded frequencies, and collections get sizes drawn from their recorded size buckets. Values are random,
+ * since profiles carry none.
+ */
+final class SyntheticSources {
+
+    // keeps a single huge recorded collection from turning the replay into a memory test
+    private static final int MAX_SIZE = 1 << 16;
+
+    private final WorkloadProfile.Pair pair;
+    private final Class<?> sourceClass;
+    private final Field[] fields;
+    private final int[] bits;
+    private final Field maskField;
+    private final long[] patterns;
+    private final long[] cumulativeCounts;
+    private final Random random;
+
+    SyntheticSources(WorkloadProfile.Pair pair, ClassLoader loader, long seed) throws ReflectiveOperationException {
+        this.pair = pair;
+        this.sourceClass = Class.forName(pair.sourceClass(), true, loader);
+        this.maskField = PresenceMasks.findMaskField(sourceClass);
+        this.random = new Random(seed);
+
+        List<WorkloadProfile.Slot> slots = pair.slots();
+        this.fields = new Field[slots.size()];
+        this.bits = new int[slots.size()];
+        for (int slot = 0; slot < slots.size(); slot++) {
+            fields[slot] = sourceClass.getDeclaredField(slots.get(slot).property());
+            fields[slot].setAccessible(true);
+            bits[slot] = maskField == null ? -1 : PresenceMasks.bit(sourceClass, slots.get(slot).property());
+        }
+
+        this.patterns = new long[pair.patterns().size()];
+        this.cumulativeCounts = new long[patterns.length];
+        long total = 0;
+        int i = 0;
+        for (Map.Entry<Long, Long> pattern : pair.patterns().entrySet()) {
+            total += pattern.getValue();
+            patterns[i] = pattern.getKey();
+            cumulativeCounts[i++] = total;
+        }
+    }
+
+    Class<?> sourceClass() {
+        return sourceClass;
+    }
+
+    /**
+     * @return A new source with one of the recorded presence patterns
+     */
+    Object next() throws ReflectiveOperationException {
+        Object source = ReflectionUtils.createInstance(sourceClass);
+        long pattern = drawPattern();
+
+        for (int slot = 0; slot < fields.length && slot < 64; slot++) {
+            if ((pattern & 1L << slot) == 0) {
+                continue;
+            }
+            Field field = fields[slot];
+            field.set(source, value(field.getGenericType(), drawSize(pair.slots().get(slot))));
+            if (maskField != null && bits[slot] >= 0) {
+                setBit(source, bits[slot]);
+            }
+        }
+        return source;
+    }
+
+    private long drawPattern() {
+        if (patterns.length == 0) {
+            return 0;
+        }
+        long draw = (long) (random.nextDouble() * cumulativeCounts[cumulativeCounts.length - 1]);
+        for (int i = 0; i < cumulativeCounts.length; i++) {
+            if (draw < cumulativeCounts[i]) {
+                return patterns[i];
+            }
+        }
+        return patterns[patterns.length - 1];
+    }
+
+    private int drawSize(WorkloadProfile.Slot slot) {
+        long total = 0;
+        for (long count : slot.sizes()) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long draw = (long) (random.nextDouble() * total);
+        for (int bucket = 0; bucket < slot.sizes().length; bucket++) {
+            draw -= slot.sizes()[bucket];
+            if (draw < 0) {
+                int min = WorkloadProfile.bucketMin(bucket);
+                int max = Math.min(WorkloadProfile.bucketMax(bucket), MAX_SIZE);
+                return min >= max ? min : min + random.nextInt(max - min + 1);
+            }
+        }
+        return 0;
+    }
+
+    private void setBit(Object source, int bit) throws IllegalAccessException {
+        if (maskField.getType() == long.class) {
+            maskField.setLong(source, maskField.getLong(source) | 1L << bit);
+            return;
+        }
+        BitSet mask = (BitSet) maskField.get(source);
+        if (mask == null) {
+            mask = new BitSet();
+            maskField.set(source, mask);
+        }
+        mask.set(bit);
+    }
+
+    private Object value(Type type, int size) throws ReflectiveOperationException {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (Map.class.isAssignableFrom(raw)) {
+                @SuppressWarnings("unchecked")
+                Map<Object, Object> map = isConcrete(raw)
+                        ? (Map<Object, Object>) ReflectionUtils.createInstance(raw)
+                        : new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(value(arguments[0], 0), value(arguments[1], 0));
+                }
+                return map;
+            }
+            if (Collection.class.isAssignableFrom(raw)) {
+                @SuppressWarnings("unchecked")
+                Collection<Object> collection = isConcrete(raw)
+                        ? (Collection<Object>) ReflectionUtils.createInstance(raw)
+                        : Set.class.isAssignableFrom(raw) ? new LinkedHashSet<>() : new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    collection.add(value(arguments[0], 0));
+                }
+                return collection;
+            }
+            return value(raw, size);
+        }
+        if (!(type instanceof Class<?> valueClass)) {
+            // type variables and wildcards carry no usable type, so their values are strings
+            return value(String.class, size);
+        }
+
+        if (valueClass.isArray()) {
+            Object array = Array.newInstance(valueClass.getComponentType(), size);
+            for (int i = 0; i < size; i++) {
+                Array.set(array, i, value(valueClass.getComponentType(), 0));
+            }
+            return array;
+        }
+        if (valueClass == String.class || valueClass == Object.class || valueClass == CharSequence.class) {
+            return Integer.toString(random.nextInt(1_000_000), 36);
+        }
+        if (valueClass == int.class || valueClass == Integer.class) {
+            return random.nextInt(10_000);
+        }
+        if (valueClass == long.class || valueClass == Long.class) {
+            return (long) random.nextInt(1_000_000);
+        }
+        if (valueClass == double.class || valueClass == Double.class) {
+            return random.nextDouble() * 1000;
+        }
+        if (valueClass == float.class || valueClass == Float.class) {
+            return random.nextFloat() * 1000;
+        }
+        if (valueClass == boolean.class || valueClass == Boolean.class) {
+            return random.nextBoolean();
+        }
+        if (valueClass == short.class || valueClass == Short.class) {
+            return (short) random.nextInt(Short.MAX_VALUE);
+        }
+        if (valueClass == byte.class || valueClass == Byte.class) {
+            return (byte) random.nextInt(Byte.MAX_VALUE);
+        }
+        if (valueClass == char.class || valueClass == Character.class) {
+            return (char) ('a' + random.nextInt(26));
+        }
+        if (valueClass == BigDecimal.class) {
+            return BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+        }
+        if (valueClass == BigInteger.class) {
+            return BigInteger.valueOf(random.nextInt(1_000_000));
+        }
+        if (valueClass == UUID.class) {
+            return new UUID(random.nextLong(), random.nextLong());
+        }
+        if (valueClass == LocalDate.class) {
+            return LocalDate.ofEpochDay(random.nextInt(30_000));
+        }
+        if (valueClass == LocalDateTime.class) {
+            return LocalDateTime.of(LocalDate.ofEpochDay(random.nextInt(30_000)), LocalTime.NOON);
+        }
+        if (valueClass == Instant.class) {
+            return Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE));
+        }
+        if (valueClass.isEnum()) {
+            Object[] constants = valueClass.getEnumConstants();
+            return constants.length == 0 ? null : constants[random.nextInt(constants.length)];
+        }
+        if (Map.class.isAssignableFrom(valueClass) || Collection.class.isAssignableFrom(valueClass)) {
+            return value(new RawCollection(valueClass), size);
+        }
+        if (!isConcrete(valueClass)) {
+            return null;
+        }
+
+        // nested objects are created empty; their own shape is not part of the profile
+        try {
+            return ReflectionUtils.createInstance(valueClass);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isConcrete(Class<?> type) {
+        return !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+    }
+
+    /**
+     * A raw collection or map type, seen as holding strings.
+     */
+    private record RawCollection(Class<?> raw) implements ParameterizedType {
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return Map.class.isAssignableFrom(raw)
+                    ? new Type[]{String.class, String.class}
+                    : new Type[]{String.class};
+        }
+
+        @Override
+        public Type getRawType() {
+            return raw;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package me.adversing.nihil.benchmarks.replay;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.annotation.Dependency;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilProvider;
+import me.adversing.nihil.intf.INihilProvider;
+import me.adversing.nihil.plan.PlanCompiler;
+import me.adversing.nihil.util.ReflectionUtils;
+import me.adversing.nihil.workload.WorkloadProfile;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.ServiceLoader;
+
+/**
+ * Replays a recorded {@link WorkloadProfile} against one or more {@link INihilProvider}s, so providers can
+ * be compared on a production traffic shape rather than on synthetic fixtures.
+ * <p>
+ * Usage: {@code WorkloadReplay <profile> [provider class ...]}. Without provider classes, the providers found
+ * by {@link ServiceLoader} are replayed, or the default one if there are none. Class pairs are mixed in their
+ * recorded proportions, each with its recorded presence patterns and collection sizes. Handlers get a
+ * default-constructed instance of each of their {@link Dependency} types.
+ */
+public final class WorkloadReplay {
+
+    private static final int SCHEDULE_SIZE = 4096;
+    private static final int WARMUP_UPDATES = 200_000;
+    private static final int MEASURED_UPDATES = 500_000;
+    private static final long SEED = 42;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private WorkloadReplay() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: WorkloadReplay <profile> [provider class ...]");
+            System.exit(2);
+        }
+
+        WorkloadProfile profile;
+        try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+            profile = WorkloadProfile.readFrom(in);
+        }
+        List<Workload> workloads = load(profile);
+        if (workloads.isEmpty()) {
+            System.err.println("No replayable class pair in " + args[0]);
+            System.exit(1);
+        }
+        describe(workloads);
+        Map<Class<?>, Object> dependencies = dependencies(profile);
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        List<INihilProvider> providers = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            providers.add((INihilProvider) ReflectionUtils.createInstance(Class.forName(args[i], true, loader)));
+        }
+        if (providers.isEmpty()) {
+            ServiceLoader.load(INihilProvider.class).forEach(providers::add);
+        }
+        if (providers.isEmpty()) {
+            providers.add(new NihilProvider());
+        }
+
+        if (THREADS.isThreadAllocatedMemorySupported()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        for (INihilProvider provider : providers) {
+            replay(provider, workloads, dependencies);
+        }
+    }
+
+    /**
+     * Prepares the sources of every recorded pair whose classes are on the class path and unchanged.
+     */
+    private static List<Workload> load(WorkloadProfile profile) throws ReflectiveOperationException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        PlanCompiler compiler = new PlanCompiler(NihilConfig.defaults());
+        long totalSamples = profile.pairs().stream().mapToLong(WorkloadProfile.Pair::samples).sum();
+        List<Workload> workloads = new ArrayList<>();
+
+        for (WorkloadProfile.Pair pair : profile.pairs()) {
+            String name = simpleName(pair.sourceClass()) + " -> " + simpleName(pair.targetClass());
+            Class<?> targetClass;
+            SyntheticSources sources;
+            try {
+                targetClass = Class.forName(pair.targetClass(), true, loader);
+                sources = new SyntheticSources(pair, loader, SEED);
+            } catch (ClassNotFoundException | NoSuchFieldException e) {
+                System.err.println("Skipping " + name + ": " + e);
+                continue;
+            }
+            // the slots of the profile only mean something for the layout they were recorded with
+            if (compiler.compile(sources.sourceClass(), targetClass).fingerprint() != pair.fingerprint()) {
+                System.err.println("Skipping " + name + ": the classes changed since the profile was recorded");
+                continue;
+            }
+
+            int count = (int) Math.max(1, SCHEDULE_SIZE * pair.samples() / Math.max(totalSamples, 1));
+            Object[] generated = new Object[count];
+            for (int i = 0; i < count; i++) {
+                generated[i] = sources.next();
+            }
+            workloads.add(new Workload(name, pair, targetClass, generated));
+        }
+        return workloads;
+    }
+
+    /**
+     * Creates the dependencies of the recorded handlers that have a no-argument constructor.
+     */
+    private static Map<Class<?>, Object> dependencies(WorkloadProfile profile) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Map<Class<?>, Object> dependencies = new HashMap<>();
+        for (WorkloadProfile.Pair pair : profile.pairs()) {
+            for (WorkloadProfile.Slot slot : pair.slots()) {
+                if (slot.handler() == null) {
+                    continue;
+                }
+                try {
+                    for (Field field : Class.forName(slot.handler(), true, loader).getDeclaredFields()) {
+                        if (field.isAnnotationPresent(Dependency.class) && !dependencies.containsKey(field.getType())) {
+                            dependencies.put(field.getType(), ReflectionUtils.createInstance(field.getType()));
+                        }
+                    }
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    // updates through this handler fail and are left out of the replay
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private static void describe(List<Workload> workloads) {
+        for (Workload workload : workloads) {
+            WorkloadProfile.Pair pair = workload.pair();
+            long handlerInvocations = 0;
+            for (long invocations : pair.handlerInvocations()) {
+                handlerInvocations += invocations;
+            }
+            System.out.printf("%-40s %10d samples %6d patterns %8.2f handler calls/update%n", workload.name(),
+                    pair.samples(), pair.patterns().size(),
+                    pair.samples() == 0 ? 0.0 : (double) handlerInvocations / pair.samples());
+        }
+    }
+
+    private static void replay(INihilProvider provider, List<Workload> workloads,
+                               Map<Class<?>, Object> dependencies) throws ReflectiveOperationException {
+        Nihil nihil = provider.create(NihilConfig.defaults());
+        List<Object> targets = new ArrayList<>();
+        List<Object> sources = new ArrayList<>();
+        int discarded = 0;
+
+        // sources whose update fails, e.g. a handler missing its dependencies, are left out of the measurement
+        for (Workload workload : workloads) {
+            Object target = ReflectionUtils.createInstance(workload.targetClass());
+            for (Object source : workload.sources()) {
+                try {
+                    nihil.update(target, source, dependencies);
+                    targets.add(target);
+                    sources.add(source);
+                } catch (RuntimeException e) {
+                    discarded++;
+                }
+            }
+        }
+        if (sources.isEmpty()) {
+            System.out.printf("%s: every update failed%n", provider.getClass().getName());
+            return;
+        }
+
+        // a shuffled schedule interleaves the pairs the way mixed traffic does
+        int[] schedule = new int[sources.size()];
+        for (int i = 0; i < schedule.length; i++) {
+            schedule[i] = i;
+        }
+        Random random = new Random(SEED);
+        for (int i = schedule.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swapped = schedule[i];
+            schedule[i] = schedule[j];
+            schedule[j] = swapped;
+        }
+
+        run(nihil, targets, sources, dependencies, schedule, WARMUP_UPDATES);
+        long allocatedBefore = THREADS.isThreadAllocatedMemorySupported() ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        long started = System.nanoTime();
+        run(nihil, targets, sources, dependencies, schedule, MEASURED_UPDATES);
+        long elapsed = System.nanoTime() - started;
+        long allocated = THREADS.isThreadAllocatedMemorySupported()
+                ? THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore
+                : -1;
+
+        System.out.printf("%-50s %8.1f ns/update %10.2f B/update%s%n", provider.getClass().getName(),
+                (double) elapsed / MEASURED_UPDATES,
+                allocated < 0 ? Double.NaN : (double) allocated / MEASURED_UPDATES,
+                discarded == 0 ? "" : " (" + discarded + " failing sources left out)");
+    }
+
+    private static void run(Nihil nihil, List<Object> targets, List<Object> sources,
+                            Map<Class<?>, Object> dependencies, int[] schedule, int updates) {
+        for (int i = 0; i < updates; i++) {
+            int index = schedule[i % schedule.length];
+            nihil.update(targets.get(index), sources.get(index), dependencies);
+        }
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private record Workload(String name, WorkloadProfile.Pair pair, Class<?> targetClass, Object[] sources) {}
+}
@@ -0,0 +1,70 @@
+package me.adversing.nihil.benchmarks.replay;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilProvider;
+import me.adversing.nihil.intf.INihilProvider;
+import me.adversing.nihil.workload.WorkloadProfile;
+import me.adversing.nihil.workload.WorkloadRecorder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SyntheticSourcesTest {
+
+    static class OrderDTO {
+        String status;
+        String note;
+        List<String> items;
+    }
+
+    static class Order {
+        String status;
+        String note;
+        List<String> items;
+    }
+
+    private final INihilProvider provider = new NihilProvider();
+
+    @Test
+    void replayReproducesTheRecordedPatterns() throws Exception {
+        WorkloadRecorder recorded = new WorkloadRecorder(1);
+        Nihil production = provider.create(NihilConfig.builder().withWorkloadRecorder(recorded).build());
+        for (int i = 0; i < 90; i++) {
+            OrderDTO dto = new OrderDTO();
+            dto.status = "SHIPPED";
+            if (i % 3 == 0) {
+                dto.items = List.of("a", "b", "c", "d");
+            }
+            production.update(new Order(), dto);
+        }
+        WorkloadProfile.Pair pair = roundTrip(recorded.snapshot()).pairs().get(0);
+
+        WorkloadRecorder replayed = new WorkloadRecorder(1);
+        Nihil replay = provider.create(NihilConfig.builder().withWorkloadRecorder(replayed).build());
+        SyntheticSources sources = new SyntheticSources(pair, getClass().getClassLoader(), 42);
+        for (int i = 0; i < 1_000; i++) {
+            replay.update(new Order(), sources.next());
+        }
+
+        WorkloadProfile.Pair shape = replayed.snapshot().pairs().get(0);
+        assertEquals(pair.fingerprint(), shape.fingerprint());
+        assertEquals(pair.patterns().keySet(), shape.patterns().keySet());
+        // two thirds of the recorded sources left the items unset
+        long itemsUnset = shape.patterns().get(0b001L);
+        assertEquals(667, itemsUnset, 60);
+        // collection sizes come from the recorded size bucket
+        long[] sizes = shape.slots().get(2).sizes();
+        assertEquals(shape.samples() - itemsUnset, sizes[WorkloadProfile.sizeBucket(4)]);
+    }
+
+    private static WorkloadProfile roundTrip(WorkloadProfile profile) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        profile.writeTo(bytes);
+        return WorkloadProfile.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
@@ -1,2 +1,3 @@
 rootProject.name = "Nihil"
 
+include("nihil-benchmarks")
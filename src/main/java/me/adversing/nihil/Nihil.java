@@ -1,16 +1,36 @@
 package me.adversing.nihil;
 
 import me.adversing.nihil.config.NihilConfig;
-import me.adversing.nihil.impl.NihilImpl;
-import me.adversing.nihil.intf.INihilProvider;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.patch.Patch;
+import me.adversing.nihil.patch.PatchLayout;
+import me.adversing.nihil.plan.PlanExplanation;
+import me.adversing.nihil.plan.SlotValues;
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.reference.PropertyGetter;
+import me.adversing.nihil.reference.PropertyReference;
+import me.adversing.nihil.reference.PropertySetter;
+import me.adversing.nihil.result.PropertyError;
+import me.adversing.nihil.result.UpdateResult;
+import me.adversing.nihil.result.UpdateTransaction;
+import me.adversing.nihil.stats.NihilStats;
+import me.adversing.nihil.util.ReflectionUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
  * Core API for updating objects with non-null values.
  * Framework-agnostic and designed for extensibility.
+ * <p>
+ * Implementations only have to provide {@link #update(Object, Object)}, {@link #update(Object, Object, Map)} and
+ * {@link #forTarget(Object)}. Every other operation has a default, either built on those or throwing
+ * {@link UnsupportedOperationException}, so providers written against the original interface keep working.
  * @author Adversing
  */
 public interface Nihil {
@@ -39,6 +59,320 @@ public interface Nihil {
      */
     <T, S> T update(T target, S source, Map<Class<?>, Object> dependencies);
 
+    /**
+     * Merges several sources onto the target, later sources taking precedence, e.g.
+     * {@code update(user, defaults, tenantOverrides, patch)}. The winning value of every property is resolved
+     * across all sources first, then each property is written once.
+     *
+     * @param target The object to update
+     * @param first The source with the lowest precedence
+     * @param second The next source
+     * @param more Further sources, in increasing precedence
+     * @param <T> Target type
+     * @return The updated target object
+     * @see #merge(Object, List, Map)
+     */
+    default <T> T update(T target, Object first, Object second, Object... more) {
+        List<Object> sources = new ArrayList<>();
+        sources.add(first);
+        sources.add(second);
+        // a single null passed as the last source arrives as a null array
+        if (more != null) {
+            sources.addAll(Arrays.asList(more));
+        }
+        return merge(target, sources, Map.of());
+    }
+
+    /**
+     * Merges several sources, of the same or different classes, onto the target.
+     * For every target property the last source holding a value for it wins: a non-null value, or a value marked
+     * present by the source's presence mask. Values of lower sources are not read once a property is decided,
+     * and handlers only run for winning values. Null sources are skipped.
+     *
+     * @param target The object to update
+     * @param sources The sources, in increasing precedence
+     * @param dependencies Additional objects needed for complex property handling
+     * @param <T> Target type
+     * @return The updated target object
+     * @implSpec The default implementation updates the target with each source in turn, which gives the same
+     * result without a presence mask but reads every source and runs handlers for overwritten values too.
+     */
+    default <T> T merge(T target, List<?> sources, Map<Class<?>, Object> dependencies) {
+        for (Object source : sources) {
+            update(target, source, dependencies);
+        }
+        return target;
+    }
+
+    /**
+     * Creates a new instance of the target class populated from the source object,
+     * with the same plans, handlers and null handling as {@link #update(Object, Object)}.
+     *
+     * @param source The object containing the values
+     * @param targetClass The class to instantiate
+     * @param <T> Target type
+     * @return The new target object, or null if the source is null
+     */
+    default <T> T map(Object source, Class<T> targetClass) {
+        return map(source, targetClass, Map.of());
+    }
+
+    /**
+     * Creates a new instance of the target class populated from the source object,
+     * with additional dependencies for complex property handling.
+     *
+     * @param source The object containing the values
+     * @param targetClass The class to instantiate
+     * @param dependencies Additional objects needed for complex property handling
+     * @param <T> Target type
+     * @return The new target object, or null if the source is null
+     * @implSpec The default implementation updates an instance created with the no-argument constructor.
+     */
+    default <T> T map(Object source, Class<T> targetClass, Map<Class<?>, Object> dependencies) {
+        if (source == null) {
+            return null;
+        }
+        try {
+            return update(ReflectionUtils.createInstance(targetClass), source, dependencies);
+        } catch (ReflectiveOperationException e) {
+            throw new PropertyUpdateException("Error instantiating " + targetClass.getName(), e);
+        }
+    }
+
+    /**
+     * Maps every source object to a new instance of the target class.
+     *
+     * @param sources The objects containing the values
+     * @param targetClass The class to instantiate
+     * @param <T> Target type
+     * @return The new target objects, in iteration order
+     */
+    default <T> List<T> mapAll(Collection<?> sources, Class<T> targetClass) {
+        List<T> results = new ArrayList<>(sources.size());
+        for (Object source : sources) {
+            results.add(map(source, targetClass));
+        }
+        return results;
+    }
+
+    /**
+     * Creates a new instance of the target class holding only the properties selected by a field mask,
+     * e.g. {@code id,name,address.city}. Nested paths are projected into the target's nested types.
+     *
+     * @param source The object containing the values
+     * @param fieldMask Comma-separated, dot-separated property paths of the source
+     * @param targetClass The class to instantiate
+     * @param <T> Target type
+     * @return The projection, or null if the source is null
+     * @throws IllegalArgumentException If the mask selects an unknown property
+     * @implSpec The default implementation throws {@link UnsupportedOperationException}.
+     */
+    default <T> T project(Object source, String fieldMask, Class<T> targetClass) {
+        throw unsupported("project");
+    }
+
+    /**
+     * Copies the properties selected by a field mask into a map keyed by property name,
+     * with nested paths projected into nested maps.
+     *
+     * @param source The object containing the values
+     * @param fieldMask Comma-separated, dot-separated property paths of the source
+     * @return The projection, or null if the source is null
+     * @throws IllegalArgumentException If the mask selects an unknown property
+     * @implSpec The default implementation throws {@link UnsupportedOperationException}.
+     */
+    default Map<String, Object> project(Object source, String fieldMask) {
+        throw unsupported("project");
+    }
+
+    /**
+     * Updates a target like {@link #update(Object, Object)}, but a property that fails does not stop the others:
+     * its failure is collected into the result instead of being thrown. Failures are recorded as plain
+     * {@link PropertyError}s, without stack traces, so dirty input stays cheap to process.
+     *
+     * @param target The object to update
+     * @param source The object containing new values
+     * @param <T> Target type
+     * @param <S> Source type
+     * @return The result listing the properties that could not be applied
+     */
+    default <T, S> UpdateResult<T> tryUpdate(T target, S source) {
+        return tryUpdate(target, source, Map.of());
+    }
+
+    /**
+     * Collecting update with dependencies for property handlers.
+     *
+     * @param target The object to update
+     * @param source The object containing new values
+     * @param dependencies Additional objects needed for complex property handling
+     * @param <T> Target type
+     * @param <S> Source type
+     * @return The result listing the properties that could not be applied
+     * @see #tryUpdate(Object, Object)
+     * @implSpec The default implementation throws {@link UnsupportedOperationException}.
+     */
+    default <T, S> UpdateResult<T> tryUpdate(T target, S source, Map<Class<?>, Object> dependencies) {
+        throw unsupported("tryUpdate");
+    }
+
+    /**
+     * Updates a target all-or-nothing: the previous values of the properties it overwrites are kept in an undo
+     * log, and restored if any property fails, before the failure is thrown. The returned transaction can also
+     * be rolled back explicitly later. Only touched properties are recorded, so the cost does not depend on
+     * the size of the target.
+     *
+     * @param target The object to update
+     * @param source The object containing new values
+     * @param <T> Target type
+     * @param <S> Source type
+     * @return The applied update, able to roll back
+     * @throws PropertyUpdateException If a property fails; the target is left as it was
+     */
+    default <T, S> UpdateTransaction<T> updateTransactional(T target, S source) {
+        return updateTransactional(target, source, Map.of());
+    }
+
+    /**
+     * All-or-nothing update with dependencies for property handlers.
+     *
+     * @param target The object to update
+     * @param source The object containing new values
+     * @param dependencies Additional objects needed for complex property handling
+     * @param <T> Target type
+     * @param <S> Source type
+     * @return The applied update, able to roll back
+     * @throws PropertyUpdateException If a property fails; the target is left as it was
+     * @see #updateTransactional(Object, Object)
+     * @implSpec The default implementation throws {@link UnsupportedOperationException}.
+     */
+    default <T, S> UpdateTransaction<T> updateTransactional(T target, S source,
+                                                            Map<Class<?>, Object> dependencies) {
+        throw unsupported("updateTransactional");
+    }
+
+    /**
+     * Returns the compiled plan used when applying sources of one class onto targets of another.
+     *
+     * @param sourceClass The source class
+     * @param targetClass The target class
+     * @return The compiled plan, shared by all updates between the two classes
+     * @implSpec The default implementation throws {@link UnsupportedOperationException}.
+     */
+    default UpdatePlan plan(Class<?> sourceClass, Class<?> targetClass) {
+        throw unsupported("plan");
+    }
+
+    /**
+     * Describes how updates between two classes are applied: the setter or field each property is written
+     * through, its handler, and the properties that are ignored, unmatched or never written.
+     *
+     * @param sourceClass The source class
+     * @param targetClass The target class
+     * @return The explanation of the compiled plan
+     * @implSpec The default implementation throws {@link UnsupportedOperationException}.
+     */
+    default PlanExplanation explain(Class<?> sourceClass, Class<?> targetClass) {
+        throw unsupported("explain");
+    }
+
+    /**
+     * Compiles the plans of the given class pairs ahead of the first update between them.
+     *
+     * @param pairs Source and target classes, alternating: {@code prepare(UserDTO.class, User.class, ...)}
+     * @return This instance for chaining
+     * @throws IllegalArgumentException If a source class is not followed by a target class
+     */
+    default Nihil prepare(Class<?>... pairs) {
+        if (pairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Classes must be given as source/target pairs");
+        }
+        for (int i = 0; i < pairs.length; i += 2) {
+            plan(pairs[i], pairs[i + 1]);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the background compilation of the sources found in
+     * {@link NihilConfig#getPrecompiledPackages() precompiled packages}, e.g. to delay a readiness probe.
+     * {@link #create(NihilConfig)} starts it; an instance constructed otherwise starts it on the first call.
+     * Sources that fail to compile are logged and fail the returned future.
+     *
+     * @return A future completed once every found plan is compiled
+     */
+    default CompletableFuture<Void> warmUp() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Applies slot values directly through a compiled plan, without reading a source object.
+     * Every present slot is written, including null values; handlers run as in a regular update.
+     * Present values are validated against their constraints before any is written.
+     *
+     * @param target The object to update
+     * @param plan The plan defining the slots
+     * @param values The values to write, indexed by slot
+     * @param dependencies Additional objects needed for complex property handling
+     * @param <T> Target type
+     * @return The updated target object
+     * @implSpec The default implementation throws {@link UnsupportedOperationException}.
+     */
+    default <T> T apply(T target, UpdatePlan plan, SlotValues values, Map<Class<?>, Object> dependencies) {
+        throw unsupported("apply");
+    }
+
+    /**
+     * Returns the slot layout of a target class used by {@link Patch}es, compiling it on first use.
+     *
+     * @param targetClass The class patches will be applied to
+     * @param <T> Target type
+     * @return The shared layout
+     * @implSpec The default implementation throws {@link UnsupportedOperationException}.
+     */
+    default <T> PatchLayout<T> layout(Class<T> targetClass) {
+        throw unsupported("layout");
+    }
+
+    /**
+     * Creates an empty patch for a target class.
+     *
+     * @param targetClass The class the patch will be applied to
+     * @param <T> Target type
+     * @return A new patch
+     */
+    default <T> Patch<T> patch(Class<T> targetClass) {
+        return layout(targetClass).newPatch();
+    }
+
+    /**
+     * Reads from the target while no update is being applied to it, so the reader never observes a
+     * half-applied update. With {@code STRIPED_LOCK} the reader holds the read lock of the target's stripe.
+     * With {@code OPTIMISTIC} it takes no lock: it is run again until the target's version did not change
+     * while it ran, so it must have no side effects.
+     *
+     * @param target The object to read from
+     * @param reader Function extracting the needed state from the target
+     * @param <T> Target type
+     * @param <R> Result type
+     * @return The value returned by the reader
+     * @implSpec The default implementation runs the reader without any isolation.
+     */
+    default <T, R> R read(T target, Function<? super T, ? extends R> reader) {
+        return reader.apply(target);
+    }
+
+    /**
+     * Takes a snapshot of the statistics collected so far.
+     * Statistics are only collected when enabled with {@link NihilConfig.Builder#withStatistics(boolean)}.
+     *
+     * @return The statistics, empty if collection is disabled
+     * @implSpec The default implementation returns {@link NihilStats#EMPTY}.
+     */
+    default NihilStats stats() {
+        return NihilStats.EMPTY;
+    }
+
     /**
      * Creates a builder for configuring an update operation.
      *
@@ -51,7 +385,7 @@ public interface Nihil {
     /**
      * Factory method to create a Nihil instance.
      *
-     * @return A Nihil implementation
+     * @return The Nihil implementation shared by all callers using the default configuration
      */
     static Nihil create() {
         return create(NihilConfig.defaults());
@@ -59,15 +393,17 @@ public interface Nihil {
 
     /**
      * Factory method to create a Nihil instance with custom configuration.
+     * Equal configurations share one instance, so plans are compiled once however often this is called.
      *
      * @param config The configuration for the updater
      * @return A Nihil implementation
      */
     static Nihil create(NihilConfig config) {
-        return ServiceLoader.load(INihilProvider.class)
-                .findFirst()
-                .map(provider -> provider.create(config))
-                .orElseGet(() -> new NihilImpl(config));
+        return NihilInstances.get(config);
+    }
+
+    private UnsupportedOperationException unsupported(String operation) {
+        return new UnsupportedOperationException(getClass().getName() + " does not support " + operation);
     }
 
     /**
@@ -85,16 +421,37 @@ public interface Nihil {
         <D> UpdaterBuilder<T> withDependency(Class<D> type, D dependency);
 
         /**
-         * Add a custom property mapping.
+         * Add a custom property mapping. The target property is checked against the target here; the source
+         * property is checked once the source class is known, and {@link #update} fails if it does not exist.
          *
          * @param sourceProperty Source property name
          * @param targetProperty Target property name
          * @return This builder for chaining
+         * @throws IllegalArgumentException If the target has no field or setter for the target property
          */
         UpdaterBuilder<T> withMapping(String sourceProperty, String targetProperty);
 
         /**
-         * Add a custom property transformer.
+         * Add a custom property mapping named by method references, e.g.
+         * {@code withMapping(StudentDTO::getEmail, Student::setContactEmail)}.
+         * The references are resolved when this is called, so a getter without a backing field fails here.
+         *
+         * @param sourceProperty Getter or record accessor of the source property
+         * @param targetProperty Setter of the target property
+         * @param <S> Source type
+         * @param <V> The property value type
+         * @return This builder for chaining
+         * @throws IllegalArgumentException If an argument is not a method reference to an accessor
+         */
+        default <S, V> UpdaterBuilder<T> withMapping(PropertyGetter<S, V> sourceProperty,
+                                                     PropertySetter<? super T, ? super V> targetProperty) {
+            return withMapping(PropertyReference.of(sourceProperty).getName(),
+                    PropertyReference.of(targetProperty).getName());
+        }
+
+        /**
+         * Add a custom property transformer. Since the source class is only known on {@link #update}, that is
+         * where a property the source does not have fails.
          *
          * @param property Property name
          * @param transformer Function to transform the property value
@@ -103,6 +460,22 @@ public interface Nihil {
          */
         <V> UpdaterBuilder<T> withTransformer(String property, Function<V, Object> transformer);
 
+        /**
+         * Add a custom property transformer for a source property named by a method reference,
+         * e.g. {@code withTransformer(StudentDTO::getEmail, String::toLowerCase)}.
+         *
+         * @param property Getter or record accessor of the source property
+         * @param transformer Function to transform the property value
+         * @param <S> Source type
+         * @param <V> The property value type
+         * @return This builder for chaining
+         * @throws IllegalArgumentException If the property is not a method reference to an accessor
+         */
+        default <S, V> UpdaterBuilder<T> withTransformer(PropertyGetter<S, V> property,
+                                                         Function<? super V, Object> transformer) {
+            return this.<V>withTransformer(PropertyReference.of(property).getName(), transformer::apply);
+        }
+
         /**
          * Perform the update operation.
          *
@@ -0,0 +1,50 @@
+package me.adversing.nihil;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilImpl;
+import me.adversing.nihil.intf.INihilProvider;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Instances returned by {@link Nihil#create(NihilConfig)}, one per distinct configuration.
+ * The provider is looked up once, and each configuration compiles its plans only once.
+ * <p>
+ * Past {@value #MAX_INSTANCES} configurations, new ones are no longer cached: every call returns a fresh
+ * instance compiling its own plans. Those instances do not start their warm-up until it is asked for, so
+ * repeated calls do not each start a compilation pool.
+ */
+final class NihilInstances {
+
+    // configurations differing only by identity-compared members (journals, factories) each get an entry
+    private static final int MAX_INSTANCES = 256;
+
+    private static final INihilProvider PROVIDER = ServiceLoader.load(INihilProvider.class)
+            .findFirst()
+            .orElse(null);
+
+    private static final Map<NihilConfig, Nihil> INSTANCES = new ConcurrentHashMap<>();
+
+    private NihilInstances() {}
+
+    static Nihil get(NihilConfig config) {
+        Nihil nihil = INSTANCES.get(config);
+        if (nihil != null) {
+            return nihil;
+        }
+        if (INSTANCES.size() >= MAX_INSTANCES) {
+            return newInstance(config);
+        }
+
+        // started once the instance is constructed and published, not from its constructor
+        nihil = INSTANCES.computeIfAbsent(config, NihilInstances::newInstance);
+        nihil.warmUp();
+        return nihil;
+    }
+
+    private static Nihil newInstance(NihilConfig config) {
+        return PROVIDER != null ? PROVIDER.create(config) : new NihilImpl(config);
+    }
+}
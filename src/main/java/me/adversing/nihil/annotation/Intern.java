@@ -0,0 +1,15 @@
+package me.adversing.nihil.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Interns the values written from this source field, so equal values share one instance across targets.
+ * Meant for immutable values repeated across many sources, such as city names or country codes; a mutable
+ * value would end up shared by every target it was interned for.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Intern {}
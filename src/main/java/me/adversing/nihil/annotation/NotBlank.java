@@ -0,0 +1,20 @@
+package me.adversing.nihil.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rejects a source value that is null, empty or only whitespace.
+ * Like every constraint it is only checked for values an update would write, so a skipped null passes.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface NotBlank {
+
+    /**
+     * The violation message, or empty for the default one.
+     */
+    String message() default "";
+}
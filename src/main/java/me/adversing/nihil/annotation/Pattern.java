@@ -0,0 +1,25 @@
+package me.adversing.nihil.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rejects a character source value that does not entirely match the expression. Null values pass.
+ * The expression is compiled once, with the plan.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Pattern {
+
+    /**
+     * The regular expression the whole value must match.
+     */
+    String regexp();
+
+    /**
+     * The violation message, or empty for the default one.
+     */
+    String message() default "";
+}
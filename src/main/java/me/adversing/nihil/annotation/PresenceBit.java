@@ -0,0 +1,19 @@
+package me.adversing.nihil.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pins the bit standing for this field in the source's {@link PresenceMask}, so the bit survives fields
+ * being added, removed or reordered. Either every instance field of the source declares a bit, or none does.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface PresenceBit {
+    /**
+     * @return The bit index, below 64 for a {@code long} mask
+     */
+    int value();
+}
@@ -0,0 +1,17 @@
+package me.adversing.nihil.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code long} or {@link java.util.BitSet} field tracking which properties of a source were set.
+ * Each other instance field is assigned the bit given by its {@link PresenceBit}; without explicit bits, fields
+ * are numbered in the alphabetical order of their names, since reflection does not guarantee declaration order.
+ * When a source carries a mask, only properties with a set bit are applied, including explicit nulls.
+ * The masked class may not inherit instance fields, since the bits only cover the fields it declares.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface PresenceMask {}
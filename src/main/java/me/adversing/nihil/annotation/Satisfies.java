@@ -0,0 +1,26 @@
+package me.adversing.nihil.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.function.Predicate;
+
+/**
+ * Rejects a source value the predicate does not accept. The predicate class needs a no-argument constructor
+ * and is instantiated once, with the plan, so it must be thread-safe. Null values are passed to the predicate.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Satisfies {
+
+    /**
+     * The predicate class.
+     */
+    Class<? extends Predicate<?>> value();
+
+    /**
+     * The violation message, or empty for the default one.
+     */
+    String message() default "";
+}
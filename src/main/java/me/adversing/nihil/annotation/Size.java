@@ -0,0 +1,24 @@
+package me.adversing.nihil.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rejects a string, collection, map or array source value whose length is outside the inclusive bounds.
+ * Null values pass.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Size {
+
+    int min() default 0;
+
+    int max() default Integer.MAX_VALUE;
+
+    /**
+     * The violation message, or empty for the default one.
+     */
+    String message() default "";
+}
@@ -0,0 +1,21 @@
+package me.adversing.nihil.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the classes a source is applied onto, so their plans can be compiled ahead of the first update.
+ * Sources found in the packages configured with {@code NihilConfig.Builder#withPrecompiledPackages}
+ * are compiled in the background once {@code Nihil.create} returns the instance.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface UpdateSource {
+
+    /**
+     * The target classes.
+     */
+    Class<?>[] value();
+}
@@ -0,0 +1,365 @@
+package me.adversing.nihil.coalesce;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.plan.PropertyPlan;
+import me.adversing.nihil.plan.SlotValues;
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.util.PresenceMasks;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Write-behind buffer in front of {@link Nihil#update}.
+ * Patches submitted for the same key are merged with last-writer-wins per target property, in arrival order
+ * and whatever their classes, so each target receives a single merged update per flush window instead of one
+ * update per patch. Patch values are read when the patch is submitted, through the plan of its class, so any
+ * class Nihil can read works as a patch, records included.
+ *
+ * @param <K> Key identifying a target
+ * @param <T> Target type
+ */
+public class PatchCoalescer<K, T> implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(PatchCoalescer.class.getName());
+
+    private final Nihil nihil;
+    private final Map<Class<?>, Object> dependencies;
+    private final int maxPendingTargets;
+    private final BiConsumer<K, T> afterFlush;
+    private final FailureHandler<K, T> onFailure;
+    private final Map<K, Pending<T>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledFuture<?> scheduledFlush;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+
+    private PatchCoalescer(Builder<K, T> builder) {
+        this.nihil = builder.nihil;
+        this.dependencies = Map.copyOf(builder.dependencies);
+        this.maxPendingTargets = builder.maxPendingTargets;
+        this.afterFlush = builder.afterFlush;
+        this.onFailure = builder.onFailure;
+
+        if (builder.flushInterval != null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "nihil-coalescer-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = builder.flushInterval.toNanos();
+            this.scheduledFlush = scheduler.scheduleWithFixedDelay(this::flushInBackground,
+                    intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.scheduler = null;
+            this.scheduledFlush = null;
+        }
+    }
+
+    public static <K, T> Builder<K, T> builder(Nihil nihil) {
+        return new Builder<>(nihil);
+    }
+
+    /**
+     * Merges a patch into the pending update of a target.
+     * A property set by a later patch replaces the value of an earlier one, even if the patches are of
+     * different classes. A flush triggered by the pending target limit reports failures like a scheduled one.
+     *
+     * @param key The key identifying the target
+     * @param target The object the merged patch will be applied to
+     * @param patch The source object containing new values
+     */
+    public void submit(K key, T target, Object patch) {
+        if (key == null || target == null || patch == null) {
+            return;
+        }
+
+        pending.compute(key, (k, entry) -> {
+            if (entry == null) {
+                entry = new Pending<>();
+                pendingCount.incrementAndGet();
+            }
+            entry.target = target;
+            entry.merge(nihil, patch);
+            return entry;
+        });
+        submitted.increment();
+
+        if (pendingCount.get() >= maxPendingTargets && flushLock.tryLock()) {
+            try {
+                flushPending(false);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies every pending merged patch to its target. Failed targets are passed to the
+     * {@link Builder#onFailure failure handler}, if any, before the failures are thrown.
+     *
+     * @throws PropertyUpdateException If any target failed to update; remaining targets are still flushed
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending(true);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushInBackground() {
+        flushLock.lock();
+        try {
+            flushPending(false);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @param explicit True to throw failures to the caller, false to leave them to the failure handler,
+     *                 or to the log without one
+     */
+    private void flushPending(boolean explicit) {
+        PropertyUpdateException failure = null;
+
+        for (K key : pending.keySet()) {
+            Pending<T> entry = pending.remove(key);
+            if (entry == null) {
+                continue;
+            }
+            pendingCount.decrementAndGet();
+
+            try {
+                entry.apply(nihil, dependencies);
+                applied.increment();
+                if (afterFlush != null) {
+                    afterFlush.accept(key, entry.target);
+                }
+            } catch (RuntimeException e) {
+                if (onFailure != null) {
+                    onFailure.onFailure(key, entry.target, e);
+                } else if (!explicit) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Dropped coalesced patches for key " + key, e);
+                }
+                if (!explicit) {
+                    continue;
+                }
+                if (failure == null) {
+                    failure = new PropertyUpdateException("Error flushing coalesced patches for key: " + key, e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return The number of targets with a pending merged patch
+     */
+    public int getPendingTargets() {
+        return pendingCount.get();
+    }
+
+    /**
+     * @return The number of patches submitted so far
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * @return The number of targets a merged update was applied to so far
+     */
+    public long getAppliedCount() {
+        return applied.sum();
+    }
+
+    /**
+     * Stops the scheduled flush and applies whatever is still pending.
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduledFlush.cancel(false);
+            scheduler.shutdown();
+        }
+        flush();
+    }
+
+    /**
+     * Receives the targets whose merged update failed, e.g. to resubmit or report them.
+     *
+     * @param <K> Key identifying a target
+     * @param <T> Target type
+     */
+    @FunctionalInterface
+    public interface FailureHandler<K, T> {
+        /**
+         * @param key The key of the target
+         * @param target The target, possibly partially updated
+         * @param failure Why the update failed
+         */
+        void onFailure(K key, T target, RuntimeException failure);
+    }
+
+    /**
+     * Pending values for one target: the latest value of each target property, whichever patch it came from.
+     */
+    private static final class Pending<T> {
+        private final Map<String, Write> writes = new LinkedHashMap<>();
+        private T target;
+
+        void merge(Nihil nihil, Object patch) {
+            UpdatePlan plan = nihil.plan(patch.getClass(), target.getClass());
+            PropertyPlan[] properties = plan.properties();
+
+            try {
+                if (plan.hasPresenceMask()) {
+                    // present properties win, explicit nulls included
+                    for (int bit = PresenceMasks.nextSetBit(plan.getPresenceField(), patch, 0); bit >= 0;
+                         bit = PresenceMasks.nextSetBit(plan.getPresenceField(), patch, bit + 1)) {
+                        int slot = plan.slotForBit(bit);
+                        if (slot >= 0) {
+                            put(plan, properties[slot], properties[slot].read(patch));
+                        }
+                    }
+                    return;
+                }
+
+                for (PropertyPlan property : properties) {
+                    Object value = property.read(patch);
+                    if (property.accepts(value)) {
+                        put(plan, property, value);
+                    }
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new PropertyUpdateException("Error merging patch: " + patch.getClass().getName(), e);
+            }
+        }
+
+        private void put(UpdatePlan plan, PropertyPlan property, Object value) {
+            writes.put(property.getTargetProperty(), new Write(plan, property.getSlot(), value));
+        }
+
+        /**
+         * Applies the winning values, grouped by the plan they were read with. Each target property has a
+         * single winner, so the order of the groups does not matter.
+         */
+        void apply(Nihil nihil, Map<Class<?>, Object> dependencies) {
+            Map<UpdatePlan, SlotValues> byPlan = new IdentityHashMap<>(2);
+            for (Write write : writes.values()) {
+                byPlan.computeIfAbsent(write.plan(), plan -> new SlotValues(plan.size()))
+                        .set(write.slot(), write.value());
+            }
+            byPlan.forEach((plan, values) -> nihil.apply(target, plan, values, dependencies));
+        }
+    }
+
+    private record Write(UpdatePlan plan, int slot, Object value) {}
+
+    public static class Builder<K, T> {
+        private final Nihil nihil;
+        private final Map<Class<?>, Object> dependencies = new LinkedHashMap<>();
+        private int maxPendingTargets = 1024;
+        private Duration flushInterval;
+        private BiConsumer<K, T> afterFlush;
+        private FailureHandler<K, T> onFailure;
+
+        private Builder(Nihil nihil) {
+            this.nihil = nihil;
+        }
+
+        /**
+         * Adds a dependency for property handlers run at flush time.
+         *
+         * @param type The type of the dependency
+         * @param dependency The dependency instance
+         * @param <D> The dependency type
+         * @return This builder for chaining
+         */
+        public <D> Builder<K, T> withDependency(Class<D> type, D dependency) {
+            dependencies.put(type, dependency);
+            return this;
+        }
+
+        /**
+         * Sets how many targets may have pending patches before a flush is triggered.
+         *
+         * @param maxPendingTargets The size trigger
+         * @return This builder for chaining
+         */
+        public Builder<K, T> withMaxPendingTargets(int maxPendingTargets) {
+            if (maxPendingTargets <= 0) {
+                throw new IllegalArgumentException("maxPendingTargets must be positive");
+            }
+            this.maxPendingTargets = maxPendingTargets;
+            return this;
+        }
+
+        /**
+         * Enables periodic flushing on a background daemon thread.
+         *
+         * @param flushInterval The flush window
+         * @return This builder for chaining
+         */
+        public Builder<K, T> withFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * Sets a callback invoked once per target after its merged patches were applied,
+         * e.g. to persist the entity.
+         *
+         * @param afterFlush The callback
+         * @return This builder for chaining
+         */
+        public Builder<K, T> onFlush(BiConsumer<K, T> afterFlush) {
+            this.afterFlush = afterFlush;
+            return this;
+        }
+
+        /**
+         * Sets a callback invoked for each target whose merged update failed. The target's pending values
+         * are discarded, so this is where it must be retried or reported. Without a callback, failures of
+         * scheduled and size-triggered flushes are logged, and those of explicit flushes only thrown.
+         *
+         * @param onFailure The callback
+         * @return This builder for chaining
+         */
+        public Builder<K, T> onFailure(FailureHandler<K, T> onFailure) {
+            this.onFailure = onFailure;
+            return this;
+        }
+
+        /**
+         * Builds the coalescer.
+         *
+         * @return The coalescer
+         */
+        public PatchCoalescer<K, T> build() {
+            return new PatchCoalescer<>(this);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package me.adversing.nihil.codec;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.exception.CodecException;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.plan.PropertyPlan;
+import me.adversing.nihil.plan.SlotValues;
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.util.PresenceMasks;
+
+import java.lang.reflect.Field;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Binary patch format bound to the plan of one source/target class pair.
+ * <p>
+ * A patch is {@code [format version][plan fingerprint][presence bitmap over plan slots][values]}, where only
+ * present slots carry a value. Both sides compile the same plan, so a class layout change on either side
+ * shows up as a fingerprint mismatch instead of values landing in the wrong property.
+ * <p>
+ * Decoded bytes are untrusted: by default, nested objects and enums are only created for the classes
+ * reachable from the plan's source property types (see {@link ReachableClasses}).
+ *
+ * @param <S> Source type
+ * @param <T> Target type
+ */
+public class PatchCodec<S, T> {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Nihil nihil;
+    private final UpdatePlan plan;
+    private final int bitmapBytes;
+    private final ThreadLocal<ValueCodec> encoders;
+    private final ThreadLocal<ValueCodec> decoders;
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+
+    private PatchCodec(Nihil nihil, UpdatePlan plan, Predicate<Class<?>> allowedClasses) {
+        this.nihil = nihil;
+        this.plan = plan;
+        this.bitmapBytes = (plan.size() + 7) >>> 3;
+
+        ClassLoader classLoader = plan.getSourceClass().getClassLoader();
+        this.encoders = ThreadLocal.withInitial(() -> new ValueCodec(classLoader, allowedClasses));
+        this.decoders = ThreadLocal.withInitial(() -> new ValueCodec(classLoader, allowedClasses));
+    }
+
+    /**
+     * Creates a codec for a class pair. Nested objects and enums may only be decoded into the classes
+     * reachable from the declared types of the plan's source properties.
+     *
+     * @param nihil The instance whose plan defines the slots
+     * @param sourceClass The source class
+     * @param targetClass The target class
+     * @return The codec
+     */
+    public static <S, T> PatchCodec<S, T> of(Nihil nihil, Class<S> sourceClass, Class<T> targetClass) {
+        UpdatePlan plan = nihil.plan(sourceClass, targetClass);
+        return new PatchCodec<>(nihil, plan, ReachableClasses.of(plan));
+    }
+
+    /**
+     * Creates a codec for a class pair with an explicit allow-list, replacing the default one. Use it to
+     * admit subclasses or implementations of declared property types, e.g.
+     * {@code ReachableClasses.of(nihil.plan(s, t)).or(Set.of(Circle.class)::contains)}.
+     *
+     * @param nihil The instance whose plan defines the slots
+     * @param sourceClass The source class
+     * @param targetClass The target class
+     * @param allowedClasses Classes nested objects and enums may be decoded into
+     * @return The codec
+     */
+    public static <S, T> PatchCodec<S, T> of(Nihil nihil, Class<S> sourceClass, Class<T> targetClass,
+                                             Predicate<Class<?>> allowedClasses) {
+        return new PatchCodec<>(nihil, nihil.plan(sourceClass, targetClass), allowedClasses);
+    }
+
+    public UpdatePlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Encodes the properties of a source object a regular update would write, skipping nulls as it would.
+     * A source with a presence mask encodes exactly its present properties.
+     *
+     * @param source The source object
+     * @param out The buffer to write to, starting at its position
+     * @return The number of bytes written
+     * @throws BufferOverflowException If the buffer is too small
+     */
+    public int encode(S source, ByteBuffer out) {
+        ValueCodec codec = encoders.get();
+        codec.reset();
+
+        int start = out.position();
+        out.put(FORMAT_VERSION);
+        out.putLong(plan.fingerprint());
+
+        int bitmapStart = out.position();
+        for (int i = 0; i < bitmapBytes; i++) {
+            out.put((byte) 0);
+        }
+
+        try {
+            PropertyPlan[] properties = plan.properties();
+            if (plan.hasPresenceMask()) {
+                Field mask = plan.getPresenceField();
+                for (int bit = PresenceMasks.nextSetBit(mask, source, 0); bit >= 0;
+                     bit = PresenceMasks.nextSetBit(mask, source, bit + 1)) {
+                    int slot = plan.slotForBit(bit);
+                    if (slot >= 0) {
+                        encodeSlot(out, codec, bitmapStart, properties[slot], properties[slot].read(source));
+                    }
+                }
+            } else {
+                for (PropertyPlan property : properties) {
+                    Object value = property.read(source);
+                    if (property.accepts(value)) {
+                        encodeSlot(out, codec, bitmapStart, property, value);
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new PropertyUpdateException("Error encoding patch for " + plan, e);
+        }
+        return out.position() - start;
+    }
+
+    private static void encodeSlot(ByteBuffer out, ValueCodec codec, int bitmapStart, PropertyPlan property,
+                                   Object value) {
+        int slot = property.getSlot();
+        int bitmapIndex = bitmapStart + (slot >>> 3);
+        out.put(bitmapIndex, (byte) (out.get(bitmapIndex) | (1 << (slot & 7))));
+        codec.write(out, value);
+    }
+
+    /**
+     * Encodes a source object into a new byte array.
+     *
+     * @param source The source object
+     * @return The encoded patch
+     */
+    public byte[] encode(S source) {
+        ByteBuffer buffer = scratch.get();
+        while (true) {
+            try {
+                buffer.clear();
+                int length = encode(source, buffer);
+                return Arrays.copyOf(buffer.array(), length);
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                scratch.set(buffer);
+            }
+        }
+    }
+
+    /**
+     * Decodes a patch into slot values without touching any target.
+     * The buffer is read in place from its position, heap and direct buffers alike.
+     *
+     * @param in The encoded patch
+     * @return The decoded values, indexed by plan slot
+     * @throws CodecException If the patch is malformed or does not match the plan
+     */
+    public SlotValues decode(ByteBuffer in) {
+        if (in.remaining() < 1 + Long.BYTES + bitmapBytes) {
+            throw new CodecException("Patch of " + in.remaining() + " bytes is truncated");
+        }
+
+        byte version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new CodecException("Unsupported patch format version: " + version);
+        }
+
+        long fingerprint = in.getLong();
+        if (fingerprint != plan.fingerprint()) {
+            throw new CodecException("Patch was encoded for a different layout of " + plan);
+        }
+
+        ValueCodec codec = decoders.get();
+        codec.reset();
+
+        int bitmapStart = in.position();
+        in.position(bitmapStart + bitmapBytes);
+
+        SlotValues values = new SlotValues(plan.size());
+        for (int i = 0; i < bitmapBytes; i++) {
+            int bits = in.get(bitmapStart + i) & 0xFF;
+            while (bits != 0) {
+                int slot = (i << 3) + Integer.numberOfTrailingZeros(bits);
+                if (slot >= plan.size()) {
+                    throw new CodecException("Patch references unknown slot " + slot + " of " + plan);
+                }
+                values.set(slot, codec.read(in));
+                bits &= bits - 1;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Decodes a patch and writes it straight into the target through the compiled plan.
+     *
+     * @param in The encoded patch
+     * @param target The object to update
+     * @param dependencies Additional objects needed for complex property handling
+     * @return The updated target object
+     */
+    public T decodeInto(ByteBuffer in, T target, Map<Class<?>, Object> dependencies) {
+        return nihil.apply(target, plan, decode(in), dependencies);
+    }
+
+    /**
+     * Decodes a patch and writes it straight into the target through the compiled plan.
+     *
+     * @param in The encoded patch
+     * @param target The object to update
+     * @return The updated target object
+     */
+    public T decodeInto(ByteBuffer in, T target) {
+        return decodeInto(in, target, Map.of());
+    }
+}
@@ -0,0 +1,98 @@
+package me.adversing.nihil.codec;
+
+import me.adversing.nihil.plan.PropertyPlan;
+import me.adversing.nihil.plan.UpdatePlan;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The enums and nested object classes a plan's values can legitimately hold, used as the default
+ * allow-list when decoding untrusted bytes.
+ * <p>
+ * Starting from the declared type of every source property, the walk follows type arguments, array
+ * components, wildcard and type variable bounds, and the fields of every nested class it allows. Only
+ * declared classes are allowed, not their subclasses, and platform classes are never decoded as objects,
+ * so a property declared as {@code Object} or as an interface admits no nested object at all.
+ */
+public final class ReachableClasses implements Predicate<Class<?>> {
+
+    private final Set<Class<?>> classes;
+
+    private ReachableClasses(Set<Class<?>> classes) {
+        this.classes = classes;
+    }
+
+    /**
+     * @param plan The plan whose source property types are walked
+     * @return The classes reachable from the plan
+     */
+    public static ReachableClasses of(UpdatePlan plan) {
+        Set<Class<?>> classes = new HashSet<>();
+        Set<Type> visited = new HashSet<>();
+        Deque<Type> pending = new ArrayDeque<>();
+        for (PropertyPlan property : plan.properties()) {
+            Method accessor = property.getSourceAccessor();
+            pending.push(accessor != null ? accessor.getGenericReturnType() : property.getSourceField().getGenericType());
+        }
+
+        while (!pending.isEmpty()) {
+            Type type = pending.pop();
+            if (!visited.add(type)) {
+                continue;
+            }
+
+            if (type instanceof ParameterizedType parameterized) {
+                pending.push(parameterized.getRawType());
+                for (Type argument : parameterized.getActualTypeArguments()) {
+                    pending.push(argument);
+                }
+            } else if (type instanceof GenericArrayType array) {
+                pending.push(array.getGenericComponentType());
+            } else if (type instanceof WildcardType wildcard) {
+                for (Type bound : wildcard.getUpperBounds()) {
+                    pending.push(bound);
+                }
+                for (Type bound : wildcard.getLowerBounds()) {
+                    pending.push(bound);
+                }
+            } else if (type instanceof TypeVariable<?> variable) {
+                for (Type bound : variable.getBounds()) {
+                    pending.push(bound);
+                }
+            } else if (type instanceof Class<?> c) {
+                if (c.isArray()) {
+                    pending.push(c.getComponentType());
+                } else if (c.isEnum()) {
+                    classes.add(c);
+                } else if (!c.isPrimitive() && !ValueCodec.isPlatformClass(c)) {
+                    classes.add(c);
+                    for (Field field : ValueCodec.objectFields(c)) {
+                        pending.push(field.getGenericType());
+                    }
+                }
+            }
+        }
+        return new ReachableClasses(Set.copyOf(classes));
+    }
+
+    @Override
+    public boolean test(Class<?> type) {
+        return classes.contains(type);
+    }
+
+    @Override
+    public String toString() {
+        return "ReachableClasses" + classes;
+    }
+}
@@ -0,0 +1,468 @@
+package me.adversing.nihil.codec;
+
+import me.adversing.nihil.exception.CodecException;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Compact tagged binary encoding for property values.
+ * <p>
+ * Classes of enums and nested objects are written by name the first time they appear and by index afterwards,
+ * so a codec instance is stateful: the decoding side must read values in the order they were written,
+ * starting from the same {@link #reset()} point.
+ * <p>
+ * Decoding treats its input as untrusted: lengths and counts are checked against the remaining bytes,
+ * nesting is bounded, and enums and nested objects are only created for allowed classes. Any malformed
+ * input is reported as a {@link CodecException}.
+ */
+public final class ValueCodec {
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte CHAR = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte STRING = 10;
+    private static final byte BIG_DECIMAL = 11;
+    private static final byte BIG_INTEGER = 12;
+    private static final byte UUID_VALUE = 13;
+    private static final byte LOCAL_DATE = 14;
+    private static final byte LOCAL_TIME = 15;
+    private static final byte LOCAL_DATE_TIME = 16;
+    private static final byte INSTANT = 17;
+    private static final byte ENUM = 18;
+    private static final byte LIST = 19;
+    private static final byte SET = 20;
+    private static final byte MAP = 21;
+    private static final byte BYTES = 22;
+    private static final byte OBJECT = 23;
+
+    private static final int MAX_DEPTH = 64;
+
+    private static final ClassValue<Field[]> OBJECT_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private final ClassLoader classLoader;
+    private final Predicate<Class<?>> allowedClasses;
+    private final Map<Class<?>, Integer> classIds = new HashMap<>();
+    private final List<Class<?>> classes = new ArrayList<>();
+
+    /**
+     * Creates a codec resolving classes through the given loader.
+     *
+     * @param classLoader Loader used to resolve decoded class names
+     * @param allowedClasses Classes that may be instantiated while decoding enums and nested objects
+     */
+    public ValueCodec(ClassLoader classLoader, Predicate<Class<?>> allowedClasses) {
+        this.classLoader = classLoader;
+        this.allowedClasses = allowedClasses;
+    }
+
+    /**
+     * Forgets every class seen so far. Both sides must reset at the same point of the stream.
+     */
+    public void reset() {
+        classIds.clear();
+        classes.clear();
+    }
+
+    /**
+     * @return A mark to pass to {@link #rollback(int)} if the values written after it are discarded
+     */
+    public int mark() {
+        return classes.size();
+    }
+
+    /**
+     * Forgets classes first seen after the mark, e.g. when a partially encoded record is thrown away.
+     *
+     * @param mark The mark returned by {@link #mark()}
+     */
+    public void rollback(int mark) {
+        while (classes.size() > mark) {
+            classIds.remove(classes.remove(classes.size() - 1));
+        }
+    }
+
+    public void write(ByteBuffer out, Object value) {
+        if (value == null) {
+            out.put(NULL);
+        } else if (value instanceof String string) {
+            out.put(STRING);
+            writeString(out, string);
+        } else if (value instanceof Integer number) {
+            out.put(INT);
+            writeVarLong(out, zigZag(number));
+        } else if (value instanceof Long number) {
+            out.put(LONG);
+            writeVarLong(out, zigZag(number));
+        } else if (value instanceof Boolean bool) {
+            out.put(bool ? TRUE : FALSE);
+        } else if (value instanceof Double number) {
+            out.put(DOUBLE);
+            out.putDouble(number);
+        } else if (value instanceof Float number) {
+            out.put(FLOAT);
+            out.putFloat(number);
+        } else if (value instanceof Short number) {
+            out.put(SHORT);
+            writeVarLong(out, zigZag(number));
+        } else if (value instanceof Byte number) {
+            out.put(BYTE);
+            out.put(number);
+        } else if (value instanceof Character character) {
+            out.put(CHAR);
+            out.putChar(character);
+        } else if (value instanceof Enum<?> constant) {
+            out.put(ENUM);
+            writeClass(out, constant.getDeclaringClass());
+            writeString(out, constant.name());
+        } else if (value instanceof LocalDate date) {
+            out.put(LOCAL_DATE);
+            writeVarLong(out, zigZag(date.toEpochDay()));
+        } else if (value instanceof LocalDateTime dateTime) {
+            out.put(LOCAL_DATE_TIME);
+            writeVarLong(out, zigZag(dateTime.toLocalDate().toEpochDay()));
+            writeVarLong(out, dateTime.toLocalTime().toNanoOfDay());
+        } else if (value instanceof LocalTime time) {
+            out.put(LOCAL_TIME);
+            writeVarLong(out, time.toNanoOfDay());
+        } else if (value instanceof Instant instant) {
+            out.put(INSTANT);
+            writeVarLong(out, zigZag(instant.getEpochSecond()));
+            writeVarLong(out, instant.getNano());
+        } else if (value instanceof UUID uuid) {
+            out.put(UUID_VALUE);
+            out.putLong(uuid.getMostSignificantBits());
+            out.putLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof BigDecimal decimal) {
+            out.put(BIG_DECIMAL);
+            writeVarLong(out, zigZag(decimal.scale()));
+            writeBytes(out, decimal.unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger integer) {
+            out.put(BIG_INTEGER);
+            writeBytes(out, integer.toByteArray());
+        } else if (value instanceof byte[] bytes) {
+            out.put(BYTES);
+            writeBytes(out, bytes);
+        } else if (value instanceof Set<?> set) {
+            out.put(SET);
+            writeElements(out, set);
+        } else if (value instanceof Collection<?> collection) {
+            out.put(LIST);
+            writeElements(out, collection);
+        } else if (value instanceof Map<?, ?> map) {
+            out.put(MAP);
+            writeVarLong(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(out, entry.getKey());
+                write(out, entry.getValue());
+            }
+        } else {
+            writeObject(out, value);
+        }
+    }
+
+    /**
+     * Reads a value, creating enums and nested objects only for the classes allowed at construction.
+     *
+     * @throws CodecException If the input is malformed
+     */
+    public Object read(ByteBuffer in) {
+        return read(in, allowedClasses);
+    }
+
+    /**
+     * Reads a value, creating enums and nested objects only for the given classes.
+     *
+     * @param allowed Classes that may be instantiated while decoding this value
+     * @throws CodecException If the input is malformed
+     */
+    public Object read(ByteBuffer in, Predicate<Class<?>> allowed) {
+        try {
+            return read(in, allowed, 0);
+        } catch (BufferUnderflowException e) {
+            throw new CodecException("Encoded value is truncated", e);
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new CodecException("Malformed encoded value", e);
+        }
+    }
+
+    private Object read(ByteBuffer in, Predicate<Class<?>> allowed, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new CodecException("Encoded value is nested deeper than " + MAX_DEPTH + " levels");
+        }
+
+        byte tag = in.get();
+        return switch (tag) {
+            case NULL -> null;
+            case FALSE -> Boolean.FALSE;
+            case TRUE -> Boolean.TRUE;
+            case BYTE -> in.get();
+            case SHORT -> (short) unZigZag(readVarLong(in));
+            case CHAR -> in.getChar();
+            case INT -> (int) unZigZag(readVarLong(in));
+            case LONG -> unZigZag(readVarLong(in));
+            case FLOAT -> in.getFloat();
+            case DOUBLE -> in.getDouble();
+            case STRING -> readString(in);
+            case BIG_DECIMAL -> {
+                int scale = (int) unZigZag(readVarLong(in));
+                yield new BigDecimal(new BigInteger(readBytes(in)), scale);
+            }
+            case BIG_INTEGER -> new BigInteger(readBytes(in));
+            case UUID_VALUE -> new UUID(in.getLong(), in.getLong());
+            case LOCAL_DATE -> LocalDate.ofEpochDay(unZigZag(readVarLong(in)));
+            case LOCAL_TIME -> LocalTime.ofNanoOfDay(readVarLong(in));
+            case LOCAL_DATE_TIME -> {
+                LocalDate date = LocalDate.ofEpochDay(unZigZag(readVarLong(in)));
+                yield LocalDateTime.of(date, LocalTime.ofNanoOfDay(readVarLong(in)));
+            }
+            case INSTANT -> {
+                long seconds = unZigZag(readVarLong(in));
+                yield Instant.ofEpochSecond(seconds, readVarLong(in));
+            }
+            case ENUM -> readEnum(in, allowed);
+            case LIST -> readElements(in, new ArrayList<>(), allowed, depth);
+            case SET -> readElements(in, new LinkedHashSet<>(), allowed, depth);
+            case MAP -> {
+                int size = readLength(in);
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(read(in, allowed, depth + 1), read(in, allowed, depth + 1));
+                }
+                yield map;
+            }
+            case BYTES -> readBytes(in);
+            case OBJECT -> readObject(in, allowed, depth);
+            default -> throw new CodecException("Unknown value tag: " + tag);
+        };
+    }
+
+    public void writeClass(ByteBuffer out, Class<?> type) {
+        Integer id = classIds.get(type);
+        if (id != null) {
+            writeVarLong(out, id + 1);
+            return;
+        }
+
+        // first occurrence: index 0 followed by the name, the reader assigns the next index
+        writeVarLong(out, 0);
+        writeString(out, type.getName());
+        classIds.put(type, classes.size());
+        classes.add(type);
+    }
+
+    /**
+     * Reads a class reference. The class is loaded without being initialized; callers check it against
+     * their allow-list before creating anything from it.
+     *
+     * @throws CodecException If the reference is malformed or names an unknown class
+     */
+    public Class<?> readClass(ByteBuffer in) {
+        long id = readVarLong(in);
+        if (id > 0) {
+            if (id > classes.size()) {
+                throw new CodecException("Encoded data references unknown class index " + id);
+            }
+            return classes.get((int) id - 1);
+        }
+
+        String name = readString(in);
+        Class<?> type;
+        try {
+            type = Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new CodecException("Unknown class in encoded data: " + name, e);
+        }
+        classes.add(type);
+        classIds.put(type, classes.size() - 1);
+        return type;
+    }
+
+    private void writeElements(ByteBuffer out, Collection<?> elements) {
+        writeVarLong(out, elements.size());
+        for (Object element : elements) {
+            write(out, element);
+        }
+    }
+
+    private <C extends Collection<Object>> C readElements(ByteBuffer in, C collection, Predicate<Class<?>> allowed,
+                                                          int depth) {
+        int size = readLength(in);
+        for (int i = 0; i < size; i++) {
+            collection.add(read(in, allowed, depth + 1));
+        }
+        return collection;
+    }
+
+    private void writeObject(ByteBuffer out, Object value) {
+        Class<?> type = value.getClass();
+        Field[] fields = OBJECT_FIELDS.get(type);
+
+        out.put(OBJECT);
+        writeClass(out, type);
+        writeVarLong(out, fields.length);
+        try {
+            for (Field field : fields) {
+                write(out, field.get(value));
+            }
+        } catch (IllegalAccessException e) {
+            throw new PropertyUpdateException("Error encoding value of type: " + type.getName(), e);
+        }
+    }
+
+    private Object readObject(ByteBuffer in, Predicate<Class<?>> allowed, int depth) {
+        Class<?> type = checkAllowed(readClass(in), allowed);
+        Field[] fields = OBJECT_FIELDS.get(type);
+
+        long count = readVarLong(in);
+        if (count != fields.length) {
+            throw new CodecException("Encoded layout of " + type.getName() + " has " + count
+                    + " fields, the local class has " + fields.length);
+        }
+
+        try {
+            Object value = ReflectionUtils.createInstance(type);
+            for (Field field : fields) {
+                field.set(value, read(in, allowed, depth + 1));
+            }
+            return value;
+        } catch (ReflectiveOperationException e) {
+            throw new CodecException("Error decoding value of type: " + type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readEnum(ByteBuffer in, Predicate<Class<?>> allowed) {
+        Class<?> type = checkAllowed(readClass(in), allowed);
+        if (!type.isEnum()) {
+            throw new CodecException("Encoded enum type is not an enum: " + type.getName());
+        }
+        return Enum.valueOf((Class) type, readString(in));
+    }
+
+    private static Class<?> checkAllowed(Class<?> type, Predicate<Class<?>> allowed) {
+        if (!allowed.test(type)) {
+            throw new CodecException("Class not allowed in encoded data: " + type.getName());
+        }
+        return type;
+    }
+
+    public static void writeString(ByteBuffer out, String value) {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String readString(ByteBuffer in) {
+        int length = readLength(in);
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(ByteBuffer out, byte[] bytes) {
+        writeVarLong(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] bytes = new byte[readLength(in)];
+        in.get(bytes);
+        return bytes;
+    }
+
+    // every element takes at least one byte, so no valid length or count exceeds the remaining input
+    private static int readLength(ByteBuffer in) {
+        long length = readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new CodecException("Encoded length " + length + " exceeds the " + in.remaining()
+                    + " remaining bytes");
+        }
+        return (int) length;
+    }
+
+    public static void writeVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CodecException("Malformed variable-length integer");
+    }
+
+    static Field[] objectFields(Class<?> type) {
+        return OBJECT_FIELDS.get(type);
+    }
+
+    static boolean isPlatformClass(Class<?> type) {
+        String name = type.getName();
+        return type.isArray() || name.startsWith("java.") || name.startsWith("javax.")
+                || name.startsWith("jdk.") || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -1,21 +1,102 @@
 package me.adversing.nihil.config;
 
+import me.adversing.nihil.event.PropertyChangeBus;
+import me.adversing.nihil.intf.INamingStrategy;
+import me.adversing.nihil.intf.IPropertyHandler;
+import me.adversing.nihil.intf.IUpdateJournal;
+import me.adversing.nihil.workload.WorkloadRecorder;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
+/**
+ * Configuration of a Nihil instance. Built configurations are immutable and compare by value,
+ * so equal configurations share one instance through {@code Nihil.create}.
+ */
 public class NihilConfig {
     private AccessStrategy accessStrategy;
+    private ReadStrategy readStrategy;
     private boolean deepCopy;
     private boolean ignoreNull;
     private boolean includeTransient;
     private final Set<String> ignoredProperties;
+    private ConcurrencyMode concurrencyMode;
+    private int lockStripes;
+    private String versionProperty;
+    private int maxOptimisticRetries;
+    private IUpdateJournal journal;
+    private final Map<Class<?>, Supplier<?>> factories;
+    private boolean statistics;
+    private final Set<String> precompiledPackages;
+    private PropertyChangeBus changeBus;
+    private INamingStrategy namingStrategy;
+    private final Map<TypePair, Class<? extends IPropertyHandler>> handlers;
+    private ValidationMode validationMode;
+    private boolean validationRollback;
+    private final Set<String> internedProperties;
+    private int internCapacity;
+    private boolean strictVerification;
+    private WorkloadRecorder workloadRecorder;
 
     private NihilConfig() {
         this.accessStrategy = AccessStrategy.AUTO;
+        this.readStrategy = ReadStrategy.FIELD;
         this.deepCopy = true;
         this.ignoreNull = true;
         this.includeTransient = false;
         this.ignoredProperties = new HashSet<>();
+        this.concurrencyMode = ConcurrencyMode.NONE;
+        this.lockStripes = 64;
+        this.versionProperty = null;
+        this.maxOptimisticRetries = 3;
+        this.journal = null;
+        this.factories = new HashMap<>();
+        this.statistics = false;
+        this.precompiledPackages = new LinkedHashSet<>();
+        this.changeBus = null;
+        this.namingStrategy = null;
+        this.handlers = new HashMap<>();
+        this.validationMode = ValidationMode.FAIL_FAST;
+        this.validationRollback = false;
+        this.internedProperties = new HashSet<>();
+        this.internCapacity = 4096;
+        this.strictVerification = false;
+        this.workloadRecorder = null;
+    }
+
+    private NihilConfig(NihilConfig other) {
+        this.accessStrategy = other.accessStrategy;
+        this.readStrategy = other.readStrategy;
+        this.deepCopy = other.deepCopy;
+        this.ignoreNull = other.ignoreNull;
+        this.includeTransient = other.includeTransient;
+        this.ignoredProperties = Set.copyOf(other.ignoredProperties);
+        this.concurrencyMode = other.concurrencyMode;
+        this.lockStripes = other.lockStripes;
+        this.versionProperty = other.versionProperty;
+        this.maxOptimisticRetries = other.maxOptimisticRetries;
+        this.journal = other.journal;
+        this.factories = Map.copyOf(other.factories);
+        this.statistics = other.statistics;
+        this.precompiledPackages = Collections.unmodifiableSet(new LinkedHashSet<>(other.precompiledPackages));
+        this.changeBus = other.changeBus;
+        this.namingStrategy = other.namingStrategy;
+        this.handlers = Map.copyOf(other.handlers);
+        this.validationMode = other.validationMode;
+        this.validationRollback = other.validationRollback;
+        this.internedProperties = Set.copyOf(other.internedProperties);
+        this.internCapacity = other.internCapacity;
+        this.strictVerification = other.strictVerification;
+        this.workloadRecorder = other.workloadRecorder;
     }
 
     /**
@@ -24,7 +105,7 @@ public class NihilConfig {
      * @return Default configuration
      */
     public static NihilConfig defaults() {
-        return new NihilConfig();
+        return new NihilConfig(new NihilConfig());
     }
 
     public static Builder builder() {
@@ -35,6 +116,10 @@ public class NihilConfig {
         return accessStrategy;
     }
 
+    public ReadStrategy getReadStrategy() {
+        return readStrategy;
+    }
+
     public boolean isDeepCopy() {
         return deepCopy;
     }
@@ -51,6 +136,146 @@ public class NihilConfig {
         return ignoredProperties;
     }
 
+    public ConcurrencyMode getConcurrencyMode() {
+        return concurrencyMode;
+    }
+
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    public String getVersionProperty() {
+        return versionProperty;
+    }
+
+    public int getMaxOptimisticRetries() {
+        return maxOptimisticRetries;
+    }
+
+    public IUpdateJournal getJournal() {
+        return journal;
+    }
+
+    public Map<Class<?>, Supplier<?>> getFactories() {
+        return factories;
+    }
+
+    public boolean isStatistics() {
+        return statistics;
+    }
+
+    public Set<String> getPrecompiledPackages() {
+        return precompiledPackages;
+    }
+
+    public PropertyChangeBus getChangeBus() {
+        return changeBus;
+    }
+
+    public INamingStrategy getNamingStrategy() {
+        return namingStrategy;
+    }
+
+    /**
+     * @return The handlers bound to properties by their declared source and target types
+     */
+    public Map<TypePair, Class<? extends IPropertyHandler>> getHandlers() {
+        return handlers;
+    }
+
+    public ValidationMode getValidationMode() {
+        return validationMode;
+    }
+
+    public boolean isValidationRollback() {
+        return validationRollback;
+    }
+
+    /**
+     * @return The source properties whose values are interned, in addition to fields marked
+     * {@link me.adversing.nihil.annotation.Intern}
+     */
+    public Set<String> getInternedProperties() {
+        return internedProperties;
+    }
+
+    public int getInternCapacity() {
+        return internCapacity;
+    }
+
+    public boolean isStrictVerification() {
+        return strictVerification;
+    }
+
+    public WorkloadRecorder getWorkloadRecorder() {
+        return workloadRecorder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NihilConfig other)) {
+            return false;
+        }
+        return deepCopy == other.deepCopy
+                && ignoreNull == other.ignoreNull
+                && includeTransient == other.includeTransient
+                && lockStripes == other.lockStripes
+                && maxOptimisticRetries == other.maxOptimisticRetries
+                && statistics == other.statistics
+                && accessStrategy == other.accessStrategy
+                && readStrategy == other.readStrategy
+                && concurrencyMode == other.concurrencyMode
+                && ignoredProperties.equals(other.ignoredProperties)
+                && Objects.equals(versionProperty, other.versionProperty)
+                && Objects.equals(journal, other.journal)
+                && factories.equals(other.factories)
+                && precompiledPackages.equals(other.precompiledPackages)
+                && Objects.equals(changeBus, other.changeBus)
+                && Objects.equals(namingStrategy, other.namingStrategy)
+                && handlers.equals(other.handlers)
+                && validationMode == other.validationMode
+                && validationRollback == other.validationRollback
+                && internedProperties.equals(other.internedProperties)
+                && internCapacity == other.internCapacity
+                && strictVerification == other.strictVerification
+                && Objects.equals(workloadRecorder, other.workloadRecorder);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accessStrategy, readStrategy, deepCopy, ignoreNull, includeTransient, ignoredProperties,
+                concurrencyMode, lockStripes, versionProperty, maxOptimisticRetries, journal, factories,
+                statistics, precompiledPackages, changeBus, namingStrategy, handlers, validationMode,
+                validationRollback, internedProperties, internCapacity, strictVerification,
+                workloadRecorder);
+    }
+
+    /**
+     * Declared type of a source property and of the target property it is written to. Primitive types are
+     * boxed, so {@code long} and {@code Long} are the same.
+     *
+     * @param sourceType The source type, e.g. {@code Long} or {@code List<Long>}
+     * @param targetType The target type, e.g. {@code Course} or {@code List<Course>}
+     */
+    public record TypePair(Type sourceType, Type targetType) {
+        public TypePair {
+            sourceType = boxed(Objects.requireNonNull(sourceType, "sourceType"));
+            targetType = boxed(Objects.requireNonNull(targetType, "targetType"));
+        }
+
+        private static Type boxed(Type type) {
+            return type instanceof Class<?> cls ? MethodType.methodType(cls).wrap().returnType() : type;
+        }
+
+        @Override
+        public String toString() {
+            return sourceType.getTypeName() + " -> " + targetType.getTypeName();
+        }
+    }
+
     /**
      * Access strategy for updating properties.
      */
@@ -71,6 +296,63 @@ public class NihilConfig {
         FIELD
     }
 
+    /**
+     * How source properties are read. Accessors are resolved once per plan, so they cost a method handle
+     * call per property rather than a reflective lookup.
+     */
+    public enum ReadStrategy {
+        /**
+         * Use the getter or record accessor if available, otherwise direct field access.
+         */
+        AUTO,
+
+        /**
+         * Use only getters and record accessors; properties without one are skipped.
+         */
+        METHOD,
+
+        /**
+         * Use only direct field access.
+         */
+        FIELD
+    }
+
+    /**
+     * How concurrent updates on the same target are isolated from each other.
+     */
+    public enum ConcurrencyMode {
+        /**
+         * No isolation, the caller is responsible for synchronization.
+         */
+        NONE,
+
+        /**
+         * Each update holds the write lock of the stripe selected by target identity.
+         */
+        STRIPED_LOCK,
+
+        /**
+         * Values are prepared without locking, then applied after a compare-and-set of the version property
+         * from the expected version, so no lock is taken at all.
+         */
+        OPTIMISTIC
+    }
+
+    /**
+     * How source values violating their constraints, such as {@code @NotBlank}, are handled.
+     */
+    public enum ValidationMode {
+        /**
+         * Stop at the first violation.
+         */
+        FAIL_FAST,
+
+        /**
+         * Check every property, skipping the invalid ones, and report all violations.
+         */
+        COLLECT_ALL
+    }
+
     public static class Builder {
         private final NihilConfig config;
 
@@ -89,6 +371,17 @@ public class NihilConfig {
             return this;
         }
 
+        /**
+         * Sets how source properties are read, independently of how target properties are written.
+         *
+         * @param readStrategy The read strategy
+         * @return This builder for chaining
+         */
+        public Builder withReadStrategy(ReadStrategy readStrategy) {
+            config.readStrategy = readStrategy;
+            return this;
+        }
+
         /**
          * Sets whether deep copy is enabled.
          *
@@ -134,12 +427,244 @@ public class NihilConfig {
         }
 
         /**
-         * Builds the configuration.
+         * Sets how concurrent updates on the same target are isolated.
+         *
+         * @param concurrencyMode The concurrency mode
+         * @return This builder for chaining
+         */
+        public Builder withConcurrencyMode(ConcurrencyMode concurrencyMode) {
+            config.concurrencyMode = concurrencyMode;
+            return this;
+        }
+
+        /**
+         * Sets the number of lock stripes of {@link ConcurrencyMode#STRIPED_LOCK}, rounded up to a power of two.
+         *
+         * @param lockStripes The number of stripes
+         * @return This builder for chaining
+         */
+        public Builder withLockStripes(int lockStripes) {
+            if (lockStripes <= 0) {
+                throw new IllegalArgumentException("lockStripes must be positive");
+            }
+            config.lockStripes = lockStripes;
+            return this;
+        }
+
+        /**
+         * Sets the numeric property checked and bumped by optimistic updates.
+         * The property is never copied from sources. It must be an {@code int}, {@code long} or {@code short},
+         * or their wrapper, and never negative: a negative value marks an update in progress.
+         *
+         * @param versionProperty The version property name
+         * @return This builder for chaining
+         */
+        public Builder withVersionProperty(String versionProperty) {
+            config.versionProperty = versionProperty;
+            return this;
+        }
+
+        /**
+         * Sets how many times an optimistic update is retried after a conflict before failing.
+         *
+         * @param maxOptimisticRetries The maximum number of retries
+         * @return This builder for chaining
+         */
+        public Builder withMaxOptimisticRetries(int maxOptimisticRetries) {
+            if (maxOptimisticRetries < 0) {
+                throw new IllegalArgumentException("maxOptimisticRetries must not be negative");
+            }
+            config.maxOptimisticRetries = maxOptimisticRetries;
+            return this;
+        }
+
+        /**
+         * Sets the journal recording every applied update.
+         *
+         * @param journal The journal, or null to disable journaling
+         * @return This builder for chaining
+         */
+        public Builder withJournal(IUpdateJournal journal) {
+            config.journal = journal;
+            return this;
+        }
+
+        /**
+         * Registers the factory used to create instances of a class when mapping to it.
+         *
+         * @param type The class to create
+         * @param factory Supplier of new instances
+         * @param <T> The created type
+         * @return This builder for chaining
+         */
+        public <T> Builder withFactory(Class<T> type, Supplier<? extends T> factory) {
+            config.factories.put(type, factory);
+            return this;
+        }
+
+        /**
+         * Sets whether update counts, latencies and cache hit ratios are collected for {@code Nihil.stats()}.
+         *
+         * @param statistics True to collect statistics
+         * @return This builder for chaining
+         */
+        public Builder withStatistics(boolean statistics) {
+            config.statistics = statistics;
+            return this;
+        }
+
+        /**
+         * Adds packages scanned for {@code @UpdateSource} classes whose plans are compiled in the background
+         * as soon as {@code Nihil.create} returns the instance, so no request pays for the first compilation.
+         *
+         * @param packages The package names, subpackages included
+         * @return This builder for chaining
+         */
+        public Builder withPrecompiledPackages(String... packages) {
+            config.precompiledPackages.addAll(Arrays.asList(packages));
+            return this;
+        }
+
+        /**
+         * Sets the bus receiving every property whose value an update actually changed, including the
+         * values restored by a rollback. Publishing never blocks the update; see {@link PropertyChangeBus}.
+         *
+         * @param changeBus The bus, or null to publish no changes
+         * @return This builder for chaining
+         */
+        public Builder withChangeBus(PropertyChangeBus changeBus) {
+            config.changeBus = changeBus;
+            return this;
+        }
+
+        /**
+         * Sets how source field names are matched to target properties, e.g.
+         * {@code NamingStrategies.snakeToCamel()}. The strategy runs when a plan is compiled, so it costs nothing
+         * per update. {@code @UpdateProperty(targetProperty = ...)} still takes precedence for a field.
+         *
+         * @param namingStrategy The strategy, or null to match names as they are
+         * @return This builder for chaining
+         */
+        public Builder withNamingStrategy(INamingStrategy namingStrategy) {
+            config.namingStrategy = namingStrategy;
+            return this;
+        }
+
+        /**
+         * Binds a handler to every property whose source and target are declared with the given types, e.g.
+         * ids into entities, so the fields need no {@code @UpdateProperty(handler = ...)}.
+         * Types must match exactly; an annotated handler still takes precedence.
+         *
+         * @param sourceType The declared source type
+         * @param targetType The declared target type
+         * @param handler The handler class
+         * @return This builder for chaining
+         */
+        public Builder withHandler(Class<?> sourceType, Class<?> targetType, Class<? extends IPropertyHandler> handler) {
+            config.handlers.put(new TypePair(sourceType, targetType), handler);
+            return this;
+        }
+
+        /**
+         * Binds a handler to properties of generic types, e.g.
+         * {@code withHandler(new TypeRef<List<Long>>() {}, new TypeRef<List<Course>>() {}, CourseIdHandler.class)}.
+         *
+         * @param sourceType The declared source type
+         * @param targetType The declared target type
+         * @param handler The handler class
+         * @return This builder for chaining
+         * @see #withHandler(Class, Class, Class)
+         */
+        public Builder withHandler(TypeRef<?> sourceType, TypeRef<?> targetType,
+                                   Class<? extends IPropertyHandler> handler) {
+            config.handlers.put(new TypePair(sourceType.getType(), targetType.getType()), handler);
+            return this;
+        }
+
+        /**
+         * Sets whether an update stops at the first constraint violation or checks every property.
+         * Either way {@code update} throws a {@code ConstraintViolationException} and {@code tryUpdate}
+         * reports the violations as errors.
+         *
+         * @param validationMode The validation mode
+         * @return This builder for chaining
+         */
+        public Builder withValidationMode(ValidationMode validationMode) {
+            config.validationMode = validationMode;
+            return this;
+        }
+
+        /**
+         * Sets whether a constraint violation restores the properties the update already wrote, leaving
+         * the target unchanged. Otherwise the properties written before, or besides, the violations are kept.
+         *
+         * @param validationRollback True to roll back on violations
+         * @return This builder for chaining
+         */
+        public Builder withValidationRollback(boolean validationRollback) {
+            config.validationRollback = validationRollback;
+            return this;
+        }
+
+        /**
+         * Adds a source property whose values are interned, as if its field were marked
+         * {@link me.adversing.nihil.annotation.Intern}.
+         *
+         * @param property The source property name
+         * @return This builder for chaining
+         */
+        public Builder internProperty(String property) {
+            config.internedProperties.add(property);
+            return this;
+        }
+
+        /**
+         * Sets the number of slots of the intern table shared by all interned properties,
+         * rounded up to a power of two.
+         *
+         * @param internCapacity The table capacity
+         * @return This builder for chaining
+         */
+        public Builder withInternCapacity(int internCapacity) {
+            if (internCapacity <= 0) {
+                throw new IllegalArgumentException("internCapacity must be positive");
+            }
+            config.internCapacity = internCapacity;
+            return this;
+        }
+
+        /**
+         * Sets whether prepared class pairs are verified. In strict mode, {@code Nihil.prepare} and the warm-up
+         * of precompiled packages fail with a
+         * {@link me.adversing.nihil.exception.PlanVerificationException PlanVerificationException} when a source
+         * property has no setter or field to reach, or a type the target cannot hold.
+         *
+         * @param strictVerification True to verify prepared plans
+         * @return This builder for chaining
+         */
+        public Builder withStrictVerification(boolean strictVerification) {
+            config.strictVerification = strictVerification;
+            return this;
+        }
+
+        /**
+         * Sets the recorder sampling the shape of updated sources, for replaying the workload offline.
+         *
+         * @param workloadRecorder The recorder, or null to record nothing
+         * @return This builder for chaining
+         */
+        public Builder withWorkloadRecorder(WorkloadRecorder workloadRecorder) {
+            config.workloadRecorder = workloadRecorder;
+            return this;
+        }
+
+        /**
+         * Builds the configuration. Later changes to this builder do not affect the returned configuration.
          *
          * @return The configuration
          */
         public NihilConfig build() {
-            return config;
+            return new NihilConfig(config);
         }
     }
 }
\ No newline at end of file
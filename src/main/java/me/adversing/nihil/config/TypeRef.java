@@ -0,0 +1,31 @@
+package me.adversing.nihil.config;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Captures a generic type such as {@code List<Long>}, which a class literal cannot express:
+ * {@code new TypeRef<List<Long>>() {}}.
+ *
+ * @param <T> The captured type
+ */
+public abstract class TypeRef<T> {
+    private final Type type;
+
+    protected TypeRef() {
+        Type superclass = getClass().getGenericSuperclass();
+        if (!(superclass instanceof ParameterizedType parameterized)) {
+            throw new IllegalStateException("TypeRef must be created with a type argument, e.g. new TypeRef<List<Long>>() {}");
+        }
+        this.type = parameterized.getActualTypeArguments()[0];
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return type.getTypeName();
+    }
+}
@@ -0,0 +1,215 @@
+package me.adversing.nihil.event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers property changes to listeners on a background dispatcher thread.
+ * Updating threads claim a slot of a preallocated ring with a single CAS and publish into it, so publishing
+ * neither locks nor allocates. When listeners fall so far behind that the ring is full, new changes are
+ * dropped and counted rather than blocking the update.
+ */
+public class PropertyChangeBus implements AutoCloseable {
+
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private final List<PropertyChangeListener> listeners;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder listenerFailures = new LongAdder();
+    private long delivered;
+
+    private PropertyChangeBus(Builder builder) {
+        int size = 1;
+        while (size < builder.capacity) {
+            size <<= 1;
+        }
+
+        this.ring = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot(i - size);
+        }
+        this.listeners = List.copyOf(builder.listeners);
+
+        this.dispatcher = new Thread(this::dispatch, "nihil-change-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Publishes a change to the listeners.
+     *
+     * @return False if the ring was full and the change was dropped
+     */
+    public boolean publish(Object target, String property, Object oldValue, Object newValue) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= ring.length || !running) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = ring[(int) sequence & mask];
+        slot.target = target;
+        slot.property = property;
+        slot.oldValue = oldValue;
+        slot.newValue = newValue;
+        Slot.SEQUENCE.setRelease(slot, sequence);
+        return true;
+    }
+
+    private void dispatch() {
+        long next = 0;
+        long idleNanos = 1;
+
+        while (true) {
+            Slot slot = ring[(int) next & mask];
+            if ((long) Slot.SEQUENCE.getAcquire(slot) != next) {
+                if (!running && next == claimed.get()) {
+                    return;
+                }
+                // nothing published yet: back off gradually instead of having publishers wake us up
+                LockSupport.parkNanos(idleNanos);
+                idleNanos = Math.min(idleNanos * 2, MAX_IDLE_PARK_NANOS);
+                continue;
+            }
+            idleNanos = 1;
+
+            Object target = slot.target;
+            String property = slot.property;
+            Object oldValue = slot.oldValue;
+            Object newValue = slot.newValue;
+            slot.target = null;
+            slot.oldValue = null;
+            slot.newValue = null;
+            consumed = ++next;
+
+            for (PropertyChangeListener listener : listeners) {
+                try {
+                    listener.propertyChanged(target, property, oldValue, newValue);
+                } catch (RuntimeException e) {
+                    listenerFailures.increment();
+                }
+            }
+            delivered++;
+        }
+    }
+
+    /**
+     * Stops accepting changes, delivers the ones already published and stops the dispatcher.
+     * If the calling thread is interrupted while waiting, it stops waiting with its interrupt status set,
+     * and the dispatcher finishes delivering in the background.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return The number of changes dropped because the ring was full or the bus closed
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The number of listener invocations that threw
+     */
+    public long getListenerFailureCount() {
+        return listenerFailures.sum();
+    }
+
+    /**
+     * @return The number of changes handed to the listeners, exact once the bus is closed
+     */
+    public long getDeliveredCount() {
+        return delivered;
+    }
+
+    private static final class Slot {
+        private static final VarHandle SEQUENCE;
+
+        static {
+            try {
+                SEQUENCE = MethodHandles.lookup().findVarHandle(Slot.class, "sequence", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // sequence of the change held, published last so the other fields are visible once it matches
+        private long sequence;
+        private Object target;
+        private String property;
+        private Object oldValue;
+        private Object newValue;
+
+        private Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    public static class Builder {
+        private int capacity = 1024;
+        private final List<PropertyChangeListener> listeners = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * Sets the number of preallocated slots, rounded up to a power of two.
+         *
+         * @param capacity The ring capacity
+         * @return This builder for chaining
+         */
+        public Builder withCapacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Adds a listener. Listeners are called in registration order on the dispatcher thread.
+         *
+         * @param listener The listener
+         * @return This builder for chaining
+         */
+        public Builder addListener(PropertyChangeListener listener) {
+            listeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Builds the bus and starts its dispatcher thread.
+         *
+         * @return The bus
+         */
+        public PropertyChangeBus build() {
+            return new PropertyChangeBus(this);
+        }
+    }
+}
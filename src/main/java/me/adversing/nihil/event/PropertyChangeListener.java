@@ -0,0 +1,18 @@
+package me.adversing.nihil.event;
+
+/**
+ * Receives the property changes made by Nihil, on the dispatcher thread of a {@link PropertyChangeBus}.
+ */
+@FunctionalInterface
+public interface PropertyChangeListener {
+
+    /**
+     * Called for a property whose value actually changed.
+     *
+     * @param target The updated object
+     * @param property The target property
+     * @param oldValue The value before the update
+     * @param newValue The value written
+     */
+    void propertyChanged(Object target, String property, Object oldValue, Object newValue);
+}
@@ -0,0 +1,16 @@
+package me.adversing.nihil.exception;
+
+/**
+ * Thrown when binary patch or journal data is malformed, or names a class it may not be decoded into.
+ */
+public class CodecException extends PropertyUpdateException {
+    private static final long serialVersionUID = 1L;
+
+    public CodecException(String message) {
+        super(message);
+    }
+
+    public CodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
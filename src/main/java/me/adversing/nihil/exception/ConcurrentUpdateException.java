@@ -0,0 +1,25 @@
+package me.adversing.nihil.exception;
+
+/**
+ * Thrown when an optimistic update detects that the target version changed underneath it.
+ */
+public class ConcurrentUpdateException extends PropertyUpdateException {
+    private static final long serialVersionUID = 1L;
+
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public ConcurrentUpdateException(String message, long expectedVersion, long actualVersion) {
+        super(message);
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
@@ -0,0 +1,33 @@
+package me.adversing.nihil.exception;
+
+import me.adversing.nihil.result.PropertyError;
+
+import java.util.List;
+
+/**
+ * Thrown when source values violate their declared constraints.
+ * Collecting updates report the same violations as {@link PropertyError}s of this type, without throwing.
+ */
+public class ConstraintViolationException extends PropertyUpdateException {
+    private static final long serialVersionUID = 1L;
+
+    private final List<PropertyError> violations;
+
+    public ConstraintViolationException(List<PropertyError> violations) {
+        super(describe(violations));
+        this.violations = List.copyOf(violations);
+    }
+
+    private static String describe(List<PropertyError> violations) {
+        StringBuilder message = new StringBuilder("Constraint violation");
+        for (int i = 0; i < violations.size(); i++) {
+            PropertyError violation = violations.get(i);
+            message.append(i == 0 ? ": " : ", ").append(violation.property()).append(' ').append(violation.message());
+        }
+        return message.toString();
+    }
+
+    public List<PropertyError> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,39 @@
+package me.adversing.nihil.exception;
+
+import me.adversing.nihil.plan.PlanExplanation;
+
+import java.util.List;
+
+/**
+ * Thrown by strict verification when a prepared plan has properties that would not be written.
+ */
+public class PlanVerificationException extends PropertyUpdateException {
+    private static final long serialVersionUID = 1L;
+
+    // explanations hold reflective members, which do not serialize; the message lists the same failures
+    private final transient List<PlanExplanation> failures;
+
+    public PlanVerificationException(List<PlanExplanation> failures) {
+        super(describe(failures));
+        this.failures = List.copyOf(failures);
+    }
+
+    private static String describe(List<PlanExplanation> failures) {
+        StringBuilder message = new StringBuilder("Plan verification failed");
+        for (PlanExplanation failure : failures) {
+            message.append("\n  ").append(failure.sourceClass().getName())
+                    .append(" -> ").append(failure.targetClass().getName());
+            for (PlanExplanation.Property property : failure.unmatched()) {
+                message.append("\n    ").append(property.sourceProperty()).append(": ").append(property.problem());
+            }
+        }
+        return message.toString();
+    }
+
+    /**
+     * @return The explanations of the plans that failed verification, or null on a deserialized exception
+     */
+    public List<PlanExplanation> getFailures() {
+        return failures;
+    }
+}
@@ -2,560 +2,1687 @@ package me.adversing.nihil.impl;
 
 import me.adversing.nihil.Nihil;
 import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.event.PropertyChangeBus;
+import me.adversing.nihil.exception.ConcurrentUpdateException;
+import me.adversing.nihil.exception.ConstraintViolationException;
+import me.adversing.nihil.exception.PlanVerificationException;
 import me.adversing.nihil.intf.IPropertyHandler;
-import me.adversing.nihil.annotation.Dependency;
-import me.adversing.nihil.annotation.UpdateProperty;
+import me.adversing.nihil.intf.IUpdateJournal;
+import me.adversing.nihil.jfr.HandlerInvocationEvent;
+import me.adversing.nihil.jfr.NihilEvents;
+import me.adversing.nihil.jfr.UpdateEvent;
+import me.adversing.nihil.patch.PatchLayout;
+import me.adversing.nihil.annotation.UpdateSource;
 import me.adversing.nihil.exception.PropertyUpdateException;
-import me.adversing.nihil.handler.DefaultPropertyHandler;
+import me.adversing.nihil.plan.InstantiationPlan;
+import me.adversing.nihil.plan.MergePlan;
+import me.adversing.nihil.plan.PlanExplanation;
+import me.adversing.nihil.plan.PlanCompiler;
+import me.adversing.nihil.plan.PropertyPlan;
+import me.adversing.nihil.plan.SlotValues;
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.projection.FieldMask;
+import me.adversing.nihil.reference.PropertyGetter;
+import me.adversing.nihil.reference.PropertyReference;
+import me.adversing.nihil.reference.PropertySetter;
+import me.adversing.nihil.result.PropertyError;
+import me.adversing.nihil.result.UpdateResult;
+import me.adversing.nihil.result.UpdateTransaction;
+import me.adversing.nihil.stats.NihilStats;
+import me.adversing.nihil.stats.StatsRecorder;
+import me.adversing.nihil.util.ClassScanner;
+import me.adversing.nihil.util.PresenceMasks;
 import me.adversing.nihil.util.ReflectionUtils;
+import me.adversing.nihil.util.StripedLocks;
+import me.adversing.nihil.util.VersionStamp;
+import me.adversing.nihil.workload.WorkloadRecorder;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 /**
  * Default implementation of Nihil using Java Reflection.
  */
 public class NihilImpl implements Nihil {
 
+    private static final System.Logger LOGGER = System.getLogger(NihilImpl.class.getName());
+
+    // mapping lists are caller-supplied, so past this many the mapped plans are compiled on every update
+    private static final int MAX_CACHED_MAPPINGS = 1024;
+
+    // marks a prepared slot that must not be written
+    private static final Object SKIP = new Object();
+
     private final NihilConfig config;
-    private final Map<String, Method> methodCache = new ConcurrentHashMap<>();
-    private final Map<String, Field> fieldCache = new ConcurrentHashMap<>();
+    private final PlanCompiler planCompiler;
+    private final Map<Class<?>, Map<Class<?>, UpdatePlan>> planCache = new ConcurrentHashMap<>();
+    private final Map<List<Class<?>>, MergePlan> mergeCache = new ConcurrentHashMap<>();
+    private final Map<List<Object>, UpdatePlan> mappedPlanCache = new ConcurrentHashMap<>();
+    private final Map<Class<?>, PatchLayout<?>> layoutCache = new ConcurrentHashMap<>();
+    private final Map<Class<?>, InstantiationPlan<?>> instantiationCache = new ConcurrentHashMap<>();
+    private final StripedLocks locks;
+    private final ClassValue<Optional<VersionStamp>> versionStamps = new ClassValue<>() {
+        @Override
+        protected Optional<VersionStamp> computeValue(Class<?> targetClass) {
+            return Optional.ofNullable(planCompiler.versionStamp(targetClass));
+        }
+    };
+    private final Projector projector = new Projector(this);
+    private final StatsRecorder stats;
+    private volatile CompletableFuture<Void> warmUp;
+    private final PropertyChangeBus bus;
+    private final WorkloadRecorder recorder;
 
     public NihilImpl(NihilConfig config) {
         this.config = config;
+        this.stats = config.isStatistics() ? new StatsRecorder() : null;
+        this.bus = config.getChangeBus();
+        this.recorder = config.getWorkloadRecorder();
+        this.planCompiler = new PlanCompiler(config, stats);
+        this.locks = config.getConcurrencyMode() == NihilConfig.ConcurrencyMode.STRIPED_LOCK
+                ? new StripedLocks(config.getLockStripes())
+                : null;
     }
 
-    @Override
-    public <T, S> T update(T target, S source) {
-        return update(target, source, Map.of());
+    /**
+     * Scans the packages for {@link UpdateSource} classes and compiles their plans on daemon threads,
+     * which stop once everything is compiled. Each failure is logged, since nobody may ever join the
+     * returned future.
+     */
+    private CompletableFuture<Void> precompile(Set<String> packages) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader() != null
+                ? Thread.currentThread().getContextClassLoader()
+                : NihilImpl.class.getClassLoader();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "nihil-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CompletableFuture<Void> warmUp = CompletableFuture
+                .supplyAsync(() -> findSources(packages, loader), executor)
+                .whenComplete((sources, failure) -> logWarmUpFailure("Could not scan " + packages, failure))
+                .thenCompose(sources -> CompletableFuture.allOf(sources.stream()
+                        .map(source -> CompletableFuture.runAsync(
+                                () -> prepare(pairs(source, source.getAnnotation(UpdateSource.class))), executor)
+                                .whenComplete((result, failure) -> logWarmUpFailure(
+                                        "Could not precompile " + source.getName(), failure)))
+                        .toArray(CompletableFuture[]::new)));
+        warmUp.whenComplete((result, failure) -> executor.shutdown());
+        return warmUp;
     }
 
-    @Override
-    public <T, S> T update(T target, S source, Map<Class<?>, Object> dependencies) {
-        if (target == null || source == null) {
-            return target;
+    private static void logWarmUpFailure(String message, Throwable failure) {
+        if (failure != null) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            LOGGER.log(System.Logger.Level.WARNING, message, cause);
         }
+    }
 
-        Class<?> sourceClass = source.getClass();
-        Class<?> targetClass = target.getClass();
-
-        switch (config.getAccessStrategy()) {
-            case METHOD -> processViaSetters(target, source, dependencies, sourceClass, targetClass);
-            case FIELD -> processViaFieldAccess(target, source, dependencies, sourceClass, targetClass);
-            case AUTO -> {
-                // try setters first, then fall back to field access if needed
-                Set<String> processedProperties = processViaSetters(target, source, dependencies, sourceClass, targetClass);
-                processViaFieldAccess(target, source, dependencies, sourceClass, targetClass, processedProperties);
+    private static List<Class<?>> findSources(Set<String> packages, ClassLoader loader) {
+        List<Class<?>> sources = new ArrayList<>();
+        for (String packageName : packages) {
+            for (Class<?> type : ClassScanner.scan(packageName, loader)) {
+                if (type.isAnnotationPresent(UpdateSource.class)) {
+                    sources.add(type);
+                }
             }
         }
+        return sources;
+    }
 
-        return target;
+    private static Class<?>[] pairs(Class<?> source, UpdateSource annotation) {
+        Class<?>[] pairs = new Class<?>[annotation.value().length * 2];
+        for (int i = 0; i < annotation.value().length; i++) {
+            pairs[2 * i] = source;
+            pairs[2 * i + 1] = annotation.value()[i];
+        }
+        return pairs;
     }
 
     @Override
-    public <T> UpdaterBuilder<T> forTarget(T target) {
-        return new NihilImplBuilderBuilder<>(target, this);
-    }
+    public Nihil prepare(Class<?>... pairs) {
+        if (pairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Classes must be given as source/target pairs");
+        }
 
-    private <T, S> Set<String> processViaSetters(T target, S source, Map<Class<?>, Object> dependencies,
-                                                 Class<?> sourceClass, Class<?> targetClass) {
-        return Arrays.stream(sourceClass.getDeclaredFields())
-                .filter(this::shouldProcessField)
-                .map(field -> {
-                    try {
-                        field.setAccessible(true);
-                        Object value = ReflectionUtils.getFieldValue(field, source);
-
-                        if (shouldUpdateValue(value, field)) {
-                            String propertyName = field.getName();
-                            UpdateProperty annotation = field.getAnnotation(UpdateProperty.class);
-
-                            if (annotation != null && !annotation.targetProperty().isEmpty()) {
-                                propertyName = annotation.targetProperty();
-                            }
-
-                            // handle custom property mapping (if needed)
-                            if (annotation != null && !annotation.handler().equals(DefaultPropertyHandler.class)) {
-                                value = processWithHandler(value, annotation.handler(), dependencies);
-                            }
-
-                            // invoke setter method
-                            String setterName = "set" + capitalizeFirstLetter(propertyName);
-                            Method setter = findSetter(targetClass, setterName, value.getClass());
-
-                            if (setter != null) {
-                                setter.invoke(target, value);
-                                return propertyName;
-                            }
-                        }
-                    } catch (Exception e) {
-                        throw new PropertyUpdateException("Error updating property: " + field.getName(), e);
+        List<PlanExplanation> failures = null;
+        for (int i = 0; i < pairs.length; i += 2) {
+            UpdatePlan plan = plan(pairs[i], pairs[i + 1]);
+            if (config.getAccessStrategy() != NihilConfig.AccessStrategy.FIELD) {
+                bindSetters(plan);
+            }
+
+            if (config.isStrictVerification()) {
+                PlanExplanation explanation = planCompiler.explain(plan);
+                if (!explanation.isValid()) {
+                    if (failures == null) {
+                        failures = new ArrayList<>();
                     }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                    failures.add(explanation);
+                }
+            }
+        }
+
+        if (failures != null) {
+            throw new PlanVerificationException(failures);
+        }
+        return this;
     }
 
-    private <T, S> void processViaFieldAccess(T target, S source, Map<Class<?>, Object> dependencies,
-                                              Class<?> sourceClass, Class<?> targetClass) {
-        processViaFieldAccess(target, source, dependencies, sourceClass, targetClass, Set.of());
+    @Override
+    public PlanExplanation explain(Class<?> sourceClass, Class<?> targetClass) {
+        return planCompiler.explain(plan(sourceClass, targetClass));
     }
 
-    private <T, S> void processViaFieldAccess(T target, S source, Map<Class<?>, Object> dependencies,
-                                              Class<?> sourceClass, Class<?> targetClass,
-                                              Set<String> skipProperties) {
-        Arrays.stream(sourceClass.getDeclaredFields())
-                .filter(this::shouldProcessField)
-                .forEach(sourceField -> {
-                    try {
-                        String propertyName = sourceField.getName();
-                        UpdateProperty annotation = sourceField.getAnnotation(UpdateProperty.class);
+    /**
+     * Binds the setters of plain properties whose declared type is final, hence also their runtime class.
+     * Other setters depend on values only known at update time.
+     */
+    private static void bindSetters(UpdatePlan plan) {
+        for (PropertyPlan property : plan.properties()) {
+            if (property.hasHandler()) {
+                continue;
+            }
 
-                        if (annotation != null && !annotation.targetProperty().isEmpty()) {
-                            propertyName = annotation.targetProperty();
-                        }
+            Class<?> valueClass = MethodType.methodType(property.getSourceField().getType()).wrap().returnType();
+            if (Modifier.isFinal(valueClass.getModifiers())) {
+                property.setterHandleFor(valueClass);
+            }
+        }
+    }
 
-                        if (skipProperties.contains(propertyName)) {
-                            return;
-                        }
+    /**
+     * Starts the warm-up on the first call; later calls return the same future.
+     */
+    @Override
+    public CompletableFuture<Void> warmUp() {
+        CompletableFuture<Void> started = warmUp;
+        if (started == null) {
+            synchronized (this) {
+                started = warmUp;
+                if (started == null) {
+                    started = config.getPrecompiledPackages().isEmpty()
+                            ? CompletableFuture.completedFuture(null)
+                            : precompile(config.getPrecompiledPackages());
+                    warmUp = started;
+                }
+            }
+        }
+        return started;
+    }
 
-                        sourceField.setAccessible(true);
-                        Object value = ReflectionUtils.getFieldValue(sourceField, source);
+    @Override
+    public <T, S> T update(T target, S source) {
+        return update(target, source, Map.of());
+    }
 
-                        if (shouldUpdateValue(value, sourceField)) {
-                            if (annotation != null && !annotation.handler().equals(DefaultPropertyHandler.class)) {
-                                value = processWithHandler(value, annotation.handler(), dependencies);
-                            }
+    @Override
+    public <T, S> T update(T target, S source, Map<Class<?>, Object> dependencies) {
+        if (target == null || source == null) {
+            return target;
+        }
 
-                            Field targetField = findField(targetClass, propertyName);
-                            if (targetField != null) {
-                                ReflectionUtils.setFieldValue(targetField, target, value);
-                            }
-                        }
-                    } catch (Exception e) {
-                        throw new PropertyUpdateException("Error updating field: " + sourceField.getName(), e);
-                    }
-                });
+        execute(target, source, dependencies, null, null);
+        return target;
     }
 
-    @SuppressWarnings("unchecked")
-    private <V> Object processWithHandler(Object value, Class<? extends IPropertyHandler> handlerClass,
-                                          Map<Class<?>, Object> dependencies) throws Exception {
-        IPropertyHandler<V> handler = (IPropertyHandler<V>) ReflectionUtils.createInstance(handlerClass);
+    @Override
+    public <T> T merge(T target, List<?> sources, Map<Class<?>, Object> dependencies) {
+        if (target == null) {
+            return target;
+        }
 
-        // dependency injection
-        for (Field field : handlerClass.getDeclaredFields()) {
-            Dependency injection = field.getAnnotation(Dependency.class);
-            if (injection != null && dependencies.containsKey(field.getType())) {
-                ReflectionUtils.setFieldValue(field, handler, dependencies.get(field.getType()));
+        List<Object> present = new ArrayList<>(sources.size());
+        for (Object source : sources) {
+            if (source != null) {
+                present.add(source);
             }
         }
+        if (present.isEmpty()) {
+            return target;
+        }
+        if (present.size() == 1) {
+            return update(target, present.get(0), dependencies);
+        }
 
-        return handler.process((V) value);
-    }
-
-    /**
-     * Determines if a field should be processed based on configuration.
-     */
-    private boolean shouldProcessField(Field field) {
-        if (config.getIgnoredProperties().contains(field.getName())) {
-            return false;
+        UpdateEvent event = NihilEvents.beginUpdate();
+        Object[] merged = present.toArray();
+        MergePlan merge = mergePlan(target.getClass(), merged);
+        // a merge is reported as one update from its highest-precedence source
+        UpdatePlan reported = merge.plan(merged.length - 1);
+        long started = stats == null ? 0 : System.nanoTime();
+
+        int written;
+        try {
+            written = switch (config.getConcurrencyMode()) {
+                case NONE -> applyMerged(merge, target, resolve(merge, merged, dependencies));
+                case STRIPED_LOCK -> {
+                    // sources are resolved before locking, the lock only covers the writes
+                    Merged resolved = resolve(merge, merged, dependencies);
+                    Lock lock = locks.forTarget(target).writeLock();
+                    lock.lock();
+                    try {
+                        yield applyMerged(merge, target, resolved);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                case OPTIMISTIC -> updateOptimistically(merge.getTargetVersion(), target,
+                        requestedVersion(merge, merged), () -> resolve(merge, merged, dependencies),
+                        resolved -> applyMerged(merge, target, resolved), null);
+            };
+        } catch (RuntimeException e) {
+            if (stats != null) {
+                stats.updateFailed(reported);
+            }
+            throw e;
         }
 
-        int modifiers = field.getModifiers();
+        if (stats != null) {
+            stats.update(reported, written, System.nanoTime() - started);
+        }
+        // every source is sampled, so a replay sees each layer's shape
+        if (recorder != null && recorder.shouldSample()) {
+            for (int source = 0; source < merged.length; source++) {
+                recorder.record(merge.plan(source), merged[source]);
+            }
+        }
+        NihilEvents.commitUpdate(event, reported.getSourceClass(), reported.getTargetClass(), written);
+        return target;
+    }
 
-        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
-            return false;
+    private MergePlan mergePlan(Class<?> targetClass, Object[] sources) {
+        Class<?>[] key = new Class<?>[sources.length + 1];
+        key[0] = targetClass;
+        for (int i = 0; i < sources.length; i++) {
+            key[i + 1] = sources[i].getClass();
         }
 
-        return !Modifier.isTransient(modifiers) || config.isIncludeTransient();
+        List<Class<?>> cacheKey = Arrays.asList(key);
+        MergePlan merge = mergeCache.get(cacheKey);
+        if (merge == null) {
+            merge = mergeCache.computeIfAbsent(cacheKey, k -> {
+                UpdatePlan[] plans = new UpdatePlan[sources.length];
+                for (int i = 0; i < plans.length; i++) {
+                    plans[i] = plan(key[i + 1], targetClass);
+                }
+                return planCompiler.compileMerge(plans);
+            });
+        }
+        return merge;
     }
 
     /**
-     * Determines if a value should be used for updating based on configuration and annotations.
+     * The version expected by the highest-precedence source carrying one, or null.
      */
-    private boolean shouldUpdateValue(Object value, Field field) {
-        if (value == null) {
-            UpdateProperty annotation = field.getAnnotation(UpdateProperty.class);
-            return annotation != null && annotation.includeNull() || !config.isIgnoreNull();
+    private static Long requestedVersion(MergePlan merge, Object[] sources) {
+        for (int i = sources.length - 1; i >= 0; i--) {
+            Long version = readVersion(merge.plan(i).getSourceVersionField(), sources[i]);
+            if (version != null) {
+                return version;
+            }
         }
-        return true;
+        return null;
     }
 
     /**
-     * Finds a setter method for a property.
+     * Resolves the winning value of every target property, visiting sources from the highest precedence down
+     * so properties already decided are not even read from lower ones. Handlers only run for winners.
      */
-    private Method findSetter(Class<?> clazz, String setterName, Class<?> paramType) {
-        String cacheKey = clazz.getName() + "#" + setterName + "#" + paramType.getName();
+    private Merged resolve(MergePlan merge, Object[] sources, Map<Class<?>, Object> dependencies) {
+        PropertyPlan[] winners = new PropertyPlan[merge.size()];
+        Object[] values = new Object[merge.size()];
+        int[] winningSource = new int[merge.size()];
+        int remaining = merge.size();
+
+        for (int source = sources.length - 1; source >= 0 && remaining > 0; source--) {
+            UpdatePlan plan = merge.plan(source);
+            PropertyPlan[] properties = plan.properties();
+
+            if (plan.hasPresenceMask()) {
+                for (int bit = nextPresentBit(plan, sources[source], 0); bit >= 0;
+                     bit = nextPresentBit(plan, sources[source], bit + 1)) {
+                    int slot = plan.slotForBit(bit);
+                    if (slot >= 0 && offer(merge, source, properties[slot], true, sources[source],
+                            winners, values, winningSource)) {
+                        remaining--;
+                    }
+                }
+            } else {
+                for (PropertyPlan property : properties) {
+                    if (offer(merge, source, property, false, sources[source], winners, values, winningSource)) {
+                        remaining--;
+                    }
+                }
+            }
+        }
 
-        return methodCache.computeIfAbsent(cacheKey, key -> {
-            Optional<Method> exactMethod = ReflectionUtils.findMethod(clazz, setterName, paramType);
-            return exactMethod.orElseGet(() ->
-                    ReflectionUtils.findCompatibleSetter(clazz, setterName, paramType).orElse(null)
-            );
-        });
+        // only winning values are validated, and nothing is written yet, so a violation needs no rollback
+        List<PropertyError> violations = null;
+        for (int index = 0; index < winners.length; index++) {
+            PropertyPlan property = winners[index];
+            String violation = property == null ? null : property.violation(values[index]);
+            if (violation != null) {
+                if (violations == null) {
+                    violations = new ArrayList<>();
+                }
+                violations.add(new PropertyError(property.getSourceProperty(), ConstraintViolationException.class,
+                        violation));
+                if (stopsAtViolation()) {
+                    break;
+                }
+            }
+        }
+        if (violations != null) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        SlotValues[] recorded = config.getJournal() == null ? null : new SlotValues[sources.length];
+        for (int index = 0; index < winners.length; index++) {
+            PropertyPlan property = winners[index];
+            if (property == null) {
+                continue;
+            }
+
+            if (recorded != null) {
+                int source = winningSource[index];
+                if (recorded[source] == null) {
+                    recorded[source] = new SlotValues(merge.plan(source).size());
+                }
+                recorded[source].set(property.getSlot(), values[index]);
+            }
+            if (property.hasHandler()) {
+                try {
+                    values[index] = processWithHandler(values[index], property, dependencies);
+                } catch (Exception e) {
+                    throw propertyFailure(property, e);
+                }
+            }
+        }
+        return new Merged(winners, values, recorded);
     }
 
     /**
-     * Finds a field in a class.
+     * Offers a source's value for a target property.
+     *
+     * @return True if the property had no winner yet and the value wins it
      */
-    private Field findField(Class<?> clazz, String fieldName) {
-        String cacheKey = clazz.getName() + "#" + fieldName;
+    private boolean offer(MergePlan merge, int source, PropertyPlan property, boolean present, Object sourceObject,
+                          PropertyPlan[] winners, Object[] values, int[] winningSource) {
+        int index = merge.index(source, property.getSlot());
+        if (winners[index] != null) {
+            return false;
+        }
+
+        Object value;
+        try {
+            value = property.read(sourceObject);
+        } catch (Exception e) {
+            throw propertyFailure(property, e);
+        }
+        // a property marked present by the source's mask wins even when null
+        if (!present && !property.accepts(value)) {
+            return false;
+        }
 
-        return fieldCache.computeIfAbsent(cacheKey, key ->
-                ReflectionUtils.findField(clazz, fieldName).orElse(null)
-        );
+        winners[index] = property;
+        values[index] = value;
+        winningSource[index] = source;
+        return true;
     }
 
-    // this should be moved to a utility class
-    private String capitalizeFirstLetter(String input) {
-        if (input == null || input.isEmpty()) {
-            return input;
+    private int applyMerged(MergePlan merge, Object target, Merged resolved) {
+        PropertyPlan[] winners = resolved.properties();
+        Object[] values = resolved.values();
+        int written = 0;
+
+        for (int index = 0; index < winners.length; index++) {
+            if (winners[index] != null) {
+                write(winners[index], target, values[index], null, null);
+                written++;
+            }
+        }
+
+        if (resolved.recorded() != null) {
+            for (int source = 0; source < merge.sources(); source++) {
+                if (resolved.recorded()[source] != null) {
+                    config.getJournal().record(target, merge.plan(source), resolved.recorded()[source]);
+                }
+            }
         }
-        return Character.toUpperCase(input.charAt(0)) + input.substring(1);
+        return written;
     }
 
-    private static class NihilImplBuilderBuilder<T> implements UpdaterBuilder<T> {
-        private final T target;
-        private final NihilImpl nihil;
-        private final Map<Class<?>, Object> dependencies = new ConcurrentHashMap<>();
-        private final Map<String, String> propertyMappings = new ConcurrentHashMap<>();
-        private final Map<String, Function<Object, Object>> transformers = new ConcurrentHashMap<>();
+    @Override
+    public <T, S> UpdateResult<T> tryUpdate(T target, S source, Map<Class<?>, Object> dependencies) {
+        if (target == null || source == null) {
+            return new UpdateResult<>(target, 0, List.of());
+        }
 
-        NihilImplBuilderBuilder(T target, NihilImpl nihil) {
-            this.target = target;
-            this.nihil = nihil;
+        List<PropertyError> errors = new ArrayList<>();
+        int written = execute(target, source, dependencies, errors, null);
+        return new UpdateResult<>(target, written, errors.isEmpty() ? List.of() : Collections.unmodifiableList(errors));
+    }
+
+    @Override
+    public <T, S> UpdateTransaction<T> updateTransactional(T target, S source, Map<Class<?>, Object> dependencies) {
+        if (target == null || source == null) {
+            return new UndoLog<>(this, null, target);
         }
 
-        @Override
-        public <D> UpdaterBuilder<T> withDependency(Class<D> type, D dependency) {
-            dependencies.put(type, dependency);
-            return this;
+        UndoLog<T> undo = new UndoLog<>(this, plan(source.getClass(), target.getClass()), target);
+        undo.setWritten(execute(target, source, dependencies, null, undo));
+        return undo;
+    }
+
+    /**
+     * Restores the values recorded by a transactional update, under the same isolation as updates.
+     */
+    void rollback(UndoLog<?> undo) {
+        Object target = undo.target();
+        if (undo.plan() == null) {
+            return;
         }
 
-        @Override
-        public UpdaterBuilder<T> withMapping(String sourceProperty, String targetProperty) {
-            propertyMappings.put(sourceProperty, targetProperty);
-            return this;
+        VersionStamp version = undo.plan().getTargetVersion();
+        if (version != null) {
+            // a rollback is a change like any other, so optimistic readers must see a new version
+            long current = version.await(target);
+            while (!version.claim(target, current)) {
+                current = version.await(target);
+            }
+            try {
+                undo.restore(null);
+            } finally {
+                version.release(target, current + 1);
+            }
+            return;
+        }
+        if (locks == null) {
+            undo.restore(null);
+            return;
         }
 
-        @Override
-        @SuppressWarnings("unchecked")
-        public <V> UpdaterBuilder<T> withTransformer(String property, Function<V, Object> transformer) {
-            transformers.put(property, (Function<Object, Object>) transformer);
-            return this;
+        Lock lock = locks.forTarget(target).writeLock();
+        lock.lock();
+        try {
+            undo.restore(null);
+        } finally {
+            lock.unlock();
         }
+    }
 
-        @Override
-        public <S> T update(S source) {
-            if (source == null || target == null) {
-                return target;
+    /**
+     * Runs an update under the configured concurrency mode.
+     *
+     * @param errors Collects property failures, or null to fail on the first one
+     * @param undo Records overwritten values and restores them if the update fails, or null
+     * @return The number of properties written
+     */
+    private int execute(Object target, Object source, Map<Class<?>, Object> dependencies,
+                        List<PropertyError> errors, UndoLog<?> undo) {
+        UpdateEvent event = NihilEvents.beginUpdate();
+        UpdatePlan plan = plan(source.getClass(), target.getClass());
+        long started = stats == null ? 0 : System.nanoTime();
+
+        // violations are only tracked for plans declaring constraints, so other updates allocate nothing for them
+        List<PropertyError> violations = plan.hasConstraints() ? new ArrayList<>() : null;
+        UndoLog<?> log = undo == null && violations != null && config.isValidationRollback()
+                ? new UndoLog<>(this, plan, target)
+                : undo;
+
+        int written;
+        try {
+            written = switch (config.getConcurrencyMode()) {
+                case NONE -> applyOrRestore(plan, target, source, dependencies, errors, log, violations);
+                case STRIPED_LOCK -> {
+                    Lock lock = locks.forTarget(target).writeLock();
+                    lock.lock();
+                    try {
+                        yield applyOrRestore(plan, target, source, dependencies, errors, log, violations);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                case OPTIMISTIC -> updateOptimistically(plan.getTargetVersion(), target,
+                        readVersion(plan.getSourceVersionField(), source),
+                        () -> prepare(plan, source, dependencies, errors, violations),
+                        prepared -> applyPrepared(plan, target, prepared, errors, log), log);
+            };
+        } catch (RuntimeException e) {
+            if (stats != null) {
+                stats.updateFailed(plan);
             }
+            throw e;
+        }
 
-            // if we have custom mappings or transformers, we need to create a proxy
-            if (!propertyMappings.isEmpty() || !transformers.isEmpty()) {
-                S proxiedSource = createSourceProxy(source);
-                return nihil.update(target, proxiedSource, dependencies);
-            }
+        if (errors != null && violations != null) {
+            errors.addAll(violations);
+        }
 
-            return nihil.update(target, source, dependencies);
+        if (stats != null) {
+            stats.update(plan, written, System.nanoTime() - started);
         }
+        if (recorder != null && recorder.shouldSample()) {
+            recorder.record(plan, source);
+        }
+        NihilEvents.commitUpdate(event, plan.getSourceClass(), plan.getTargetClass(), written);
+        return written;
+    }
 
-        /**
-         * Creates a dynamic proxy for the source object to apply transformations
-         * and property mappings.
-         *
-         * @param source The source object to proxy
-         * @param <S>    The source type
-         * @return A proxy of the source with transformations applied
-         */
-        @SuppressWarnings("unchecked")
-        private <S> S createSourceProxy(S source) {
-            Class<?> sourceClass = source.getClass();
-
-            InvocationHandler handler = new SourceObjectInvocationHandler<>(source, transformers, propertyMappings);
-
-            if (sourceClass.isInterface()) {
-                // if the source is an interface, just use Java's built-in Proxy
-                return (S) Proxy.newProxyInstance(
-                        sourceClass.getClassLoader(),
-                        new Class<?>[]{sourceClass},
-                        handler
-                );
-            } else {
-                return createClassProxy(source);
-            }
+    @Override
+    public <T> T apply(T target, UpdatePlan plan, SlotValues values, Map<Class<?>, Object> dependencies) {
+        if (target == null || values == null) {
+            return target;
         }
 
-        /**
-         * Creates a proxy for a concrete class (not an interface).
-         * This implementation analyzes the source object and creates a wrapper
-         * that delegates all methods and applies transformations.
-         *
-         * @param source The source object
-         * @param <S>    The source type
-         * @return A proxy of the source object
-         */
-        @SuppressWarnings("unchecked")
-        private <S> S createClassProxy(S source) {
-            Class<S> sourceClass = (Class<S>) source.getClass();
+        validateSlots(plan, values);
+        applySlotValues(target, plan, values, dependencies, null);
+        return target;
+    }
 
-            // i'll use a wrapper approach that delegates to the original object but applies transformations
-            try {
-                return new SourceObjectWrapper<>(source, transformers, propertyMappings).createProxy();
-            } catch (Exception e) {
-                throw new PropertyUpdateException("Failed to create proxy for class: " + sourceClass.getName(), e);
+    /**
+     * Checks every present slot against its property's constraints before anything is written,
+     * so a rejected application leaves the target untouched and needs no rollback.
+     *
+     * @throws ConstraintViolationException If a value violates its property's constraints
+     */
+    private void validateSlots(UpdatePlan plan, SlotValues values) {
+        if (!plan.hasConstraints()) {
+            return;
+        }
+
+        PropertyPlan[] properties = plan.properties();
+        List<PropertyError> violations = new ArrayList<>();
+        for (int slot = values.nextPresent(0); slot >= 0; slot = values.nextPresent(slot + 1)) {
+            if (!admit(properties[slot], values.get(slot), violations) && stopsAtViolation()) {
+                break;
             }
         }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
     }
 
     /**
-     * Invocation handler that intercepts method calls on the proxy to apply transformations.
+     * Applies slot values under the configured concurrency mode.
+     *
+     * @param requestedVersion The version the target is expected to have, or null
      */
-    private record SourceObjectInvocationHandler<S>(S target, Map<String, Function<Object, Object>> transformers,
-                                                    Map<String, String> propertyMappings) implements InvocationHandler {
-
-        @Override
-        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            String methodName = method.getName();
-            // object-inherited methods are not intercepted
-            if (methodName.equals("equals") || methodName.equals("hashCode") || methodName.equals("toString")) {
-                return method.invoke(target, args);
+    private void applySlotValues(Object target, UpdatePlan plan, SlotValues values,
+                                 Map<Class<?>, Object> dependencies, Long requestedVersion) {
+        UpdateEvent event = NihilEvents.beginUpdate();
+        long started = stats == null ? 0 : System.nanoTime();
+
+        int written;
+        try {
+            written = switch (config.getConcurrencyMode()) {
+                case NONE -> applySlots(plan, target, values, dependencies);
+                case STRIPED_LOCK -> {
+                    Lock lock = locks.forTarget(target).writeLock();
+                    lock.lock();
+                    try {
+                        yield applySlots(plan, target, values, dependencies);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                case OPTIMISTIC -> updateOptimistically(plan.getTargetVersion(), target, requestedVersion,
+                        () -> prepareSlots(plan, values, dependencies),
+                        prepared -> applyPrepared(plan, target, prepared, null, null), null);
+            };
+        } catch (RuntimeException e) {
+            if (stats != null) {
+                stats.updateFailed(plan);
             }
+            throw e;
+        }
 
-            if (methodName.startsWith("get") && methodName.length() > 3 && args == null || args.length == 0) {
-                String propertyName = Character.toLowerCase(methodName.charAt(3)) + methodName.substring(4);
-                Object result = method.invoke(target, args);
+        if (stats != null) {
+            stats.update(plan, written, System.nanoTime() - started);
+        }
+        NihilEvents.commitUpdate(event, plan.getSourceClass(), plan.getTargetClass(), written);
+    }
 
-                if (transformers.containsKey(propertyName) && result != null) {
-                    return transformers.get(propertyName).apply(result);
-                }
+    @Override
+    public <T> T map(Object source, Class<T> targetClass) {
+        return map(source, targetClass, Map.of());
+    }
 
-                return result;
-            }
+    @Override
+    public <T> T map(Object source, Class<T> targetClass, Map<Class<?>, Object> dependencies) {
+        if (source == null) {
+            return null;
+        }
+        return mapWith(plan(source.getClass(), targetClass), instantiation(targetClass), source, dependencies);
+    }
 
-            // for non-getter methods, just delegate to the target
-            return method.invoke(target, args);
+    @Override
+    public <T> List<T> mapAll(Collection<?> sources, Class<T> targetClass) {
+        InstantiationPlan<T> instantiation = instantiation(targetClass);
+        List<T> results = new ArrayList<>(sources.size());
+        UpdatePlan plan = null;
+
+        for (Object source : sources) {
+            if (source == null) {
+                results.add(null);
+                continue;
+            }
+            // batches are usually homogeneous, so the plan is only looked up again when the class changes
+            if (plan == null || plan.getSourceClass() != source.getClass()) {
+                plan = plan(source.getClass(), targetClass);
+            }
+            results.add(mapWith(plan, instantiation, source, Map.of()));
         }
+        return results;
     }
 
     /**
-     * Wrapper that provides dynamic access to a source object while applying transformations.
-     * This handles the case where the source is a concrete class rather than an interface.
+     * Maps a source into a new instance, instrumented like an update: it is counted in the statistics,
+     * emits an update event, is sampled by the workload recorder and is journaled against the new instance.
      */
-    private static class SourceObjectWrapper<S> {
-        private final S target;
-        private final Map<String, Function<Object, Object>> transformers;
-        private final Map<String, String> propertyMappings;
-        private final Class<S> targetClass;
-
-        @SuppressWarnings("unchecked")
-        public SourceObjectWrapper(S target,
-                                   Map<String, Function<Object, Object>> transformers,
-                                   Map<String, String> propertyMappings) {
-            this.target = target;
-            this.transformers = transformers;
-            this.propertyMappings = propertyMappings;
-            this.targetClass = (Class<S>) target.getClass();
-        }
+    private <T> T mapWith(UpdatePlan plan, InstantiationPlan<T> instantiation, Object source,
+                          Map<Class<?>, Object> dependencies) {
+        UpdateEvent event = NihilEvents.beginUpdate();
+        long started = stats == null ? 0 : System.nanoTime();
+        List<PropertyError> violations = plan.hasConstraints() ? new ArrayList<>() : null;
+
+        T target;
+        int written;
+        try {
+            if (!instantiation.isConstructorBound()) {
+                // the new instance is not shared yet, so no concurrency mode applies
+                target = instantiation.newInstance();
+                written = applyPlan(plan, target, source, dependencies, null, null, violations);
+                if (violations != null && !violations.isEmpty()) {
+                    throw new ConstraintViolationException(violations);
+                }
+            } else {
+                Prepared prepared = prepare(plan, source, dependencies, null, violations);
+                Object[] values = prepared.values();
+                Object[] arguments = instantiation.newArguments();
+                int[] componentBySlot = instantiation.componentsBySlot(plan);
+                written = 0;
+
+                for (int slot = 0; slot < values.length; slot++) {
+                    if (values[slot] == SKIP) {
+                        continue;
+                    }
+                    if (componentBySlot[slot] >= 0) {
+                        arguments[componentBySlot[slot]] = plan.properties()[slot].intern(values[slot]);
+                        written++;
+                    } else if (prepared.recorded() != null) {
+                        // no component takes the value, so it was not written
+                        prepared.recorded().remove(slot);
+                    }
+                }
 
-        /**
-         * Creates a proxy that wraps the target object and applies transformations.
-         *
-         * @return A proxy that applies transformations
-         */
-        @SuppressWarnings("unchecked")
-        public S createProxy() {
-            try {
-                // create a dynamic proxy that implements all the target's interfaces
-                Class<?>[] interfaces = getAllInterfaces(targetClass);
-
-                if (interfaces.length > 0) {
-                    // if the class implements interfaces, we can use a standard proxy
-                    InvocationHandler handler = new SourceObjectInvocationHandler<>(
-                            target, transformers, propertyMappings
-                    );
-
-                    return (S) Proxy.newProxyInstance(
-                            targetClass.getClassLoader(),
-                            interfaces,
-                            handler
-                    );
-                } else {
-                    // for classes without interfaces, we need an advanced approach
-                    return createTransformingDelegate();
+                target = instantiation.newInstance(arguments);
+                if (prepared.recorded() != null) {
+                    config.getJournal().record(target, plan, prepared.recorded());
                 }
-            } catch (Exception e) {
-                throw new PropertyUpdateException("Failed to create proxy", e);
             }
+        } catch (RuntimeException e) {
+            if (stats != null) {
+                stats.updateFailed(plan);
+            }
+            throw e;
         }
 
-        /**
-         * Creates a delegate object that wraps the target while applying transformations.
-         * This is used for classes that don't implement interfaces.
-         *
-         * @return A proxy object that delegates to the target
-         */
-        private S createTransformingDelegate() {
-            return new TransformingDelegate<>(target, transformers).asProxy();
+        if (stats != null) {
+            stats.update(plan, written, System.nanoTime() - started);
         }
-
-        /**
-         * Gets all interfaces implemented by a class and its superclasses.
-         *
-         * @param cls The class to analyze
-         * @return Array of all interfaces
-         */
-        private Class<?>[] getAllInterfaces(Class<?> cls) {
-            Set<Class<?>> interfaces = collectInterfaces(cls);
-            return interfaces.toArray(new Class<?>[0]);
+        if (recorder != null && recorder.shouldSample()) {
+            recorder.record(plan, source);
         }
+        NihilEvents.commitUpdate(event, plan.getSourceClass(), plan.getTargetClass(), written);
+        return target;
+    }
 
-        /**
-         * Recursively collects all interfaces implemented by a class and its superclasses.
-         *
-         * @param cls The class to analyze
-         * @return Set of interfaces
-         */
-        private Set<Class<?>> collectInterfaces(Class<?> cls) {
-            Set<Class<?>> interfaces = Arrays.stream(cls.getInterfaces())
-                    .collect(Collectors.toSet());
+    @Override
+    public <T> T project(Object source, String fieldMask, Class<T> targetClass) {
+        return source == null ? null : projector.project(source, FieldMask.parse(fieldMask), targetClass);
+    }
 
-            Class<?> superClass = cls.getSuperclass();
-            if (superClass != null && superClass != Object.class) {
-                interfaces.addAll(collectInterfaces(superClass));
-            }
+    @Override
+    public Map<String, Object> project(Object source, String fieldMask) {
+        return source == null ? null : projector.project(source, FieldMask.parse(fieldMask));
+    }
 
-            return interfaces;
+    @SuppressWarnings("unchecked")
+    <T> InstantiationPlan<T> instantiation(Class<T> targetClass) {
+        InstantiationPlan<?> instantiation = instantiationCache.get(targetClass);
+        if (instantiation == null) {
+            instantiation = instantiationCache.computeIfAbsent(targetClass, key -> InstantiationPlan.compile(
+                    targetClass, (Supplier<? extends T>) config.getFactories().get(targetClass)));
         }
+        return (InstantiationPlan<T>) instantiation;
     }
 
-    /**
-     * A special delegating wrapper for cases where the source object's class
-     * doesn't implement any interfaces and can't be directly proxied.
-     */
-    private static class TransformingDelegate<S> {
-        private final S delegate;
-        private final Map<String, Function<Object, Object>> transformers;
-        private final Map<String, Object> transformedValues = new ConcurrentHashMap<>();
-
-        public TransformingDelegate(S delegate,
-                                    Map<String, Function<Object, Object>> transformers) {
-            this.delegate = delegate;
-            this.transformers = transformers;
+    @Override
+    public <T, R> R read(T target, Function<? super T, ? extends R> reader) {
+        if (target == null) {
+            return reader.apply(target);
+        }
+        if (config.getConcurrencyMode() == NihilConfig.ConcurrencyMode.OPTIMISTIC) {
+            return readOptimistically(target, reader);
+        }
+        if (locks == null) {
+            return reader.apply(target);
+        }
 
-            precomputeTransformedValues();
+        Lock lock = locks.forTarget(target).readLock();
+        lock.lock();
+        try {
+            return reader.apply(target);
+        } finally {
+            lock.unlock();
         }
+    }
 
-        /**
-         * Precomputes transformed values for all properties with transformers.
-         */
-        private void precomputeTransformedValues() {
-            Class<?> delegateClass = delegate.getClass();
+    @Override
+    public <T> UpdaterBuilder<T> forTarget(T target) {
+        return new NihilImplBuilderBuilder<>(target, this);
+    }
 
-            // process all getters
-            Arrays.stream(delegateClass.getMethods())
-                    .filter(this::isGetter)
-                    .forEach(getter -> {
-                        try {
-                            String propertyName = extractPropertyName(getter.getName());
-                            if (transformers.containsKey(propertyName)) {
-                                Object originalValue = getter.invoke(delegate);
-                                if (originalValue != null) {
-                                    transformedValues.put(propertyName,
-                                            transformers.get(propertyName).apply(originalValue));
-                                }
-                            }
-                        } catch (Exception e) {
-                            // skip on error
-                        }
-                    });
-
-            // also process fields directly if needed
-            Arrays.stream(delegateClass.getDeclaredFields())
-                    .forEach(field -> {
-                        try {
-                            String fieldName = field.getName();
-                            if (transformers.containsKey(fieldName) && !transformedValues.containsKey(fieldName)) {
-                                field.setAccessible(true);
-                                Object value = ReflectionUtils.getFieldValue(field, delegate);
-                                if (value != null) {
-                                    transformedValues.put(fieldName,
-                                            transformers.get(fieldName).apply(value));
-                                }
-                            }
-                        } catch (Exception e) {
-                            // skip on error
-                        }
-                    });
+    @Override
+    public UpdatePlan plan(Class<?> sourceClass, Class<?> targetClass) {
+        Map<Class<?>, UpdatePlan> byTarget = planCache.get(sourceClass);
+        if (byTarget == null) {
+            byTarget = planCache.computeIfAbsent(sourceClass, key -> new ConcurrentHashMap<>());
         }
 
-        /**
-         * Returns this object as a proxy that applies transformations.
-         *
-         * @return The proxy object
-         */
-        @SuppressWarnings("unchecked")
-        public S asProxy() {
-            return (S) this;
-        }
-
-        /**
-         * Checks if a method is a getter.
-         *
-         * @param method The method to check
-         * @return True if the method is a getter
-         */
-        private boolean isGetter(Method method) {
-            String name = method.getName();
-            // this heuristic is not perfect, but it's good enough for now. It does not work for records datatypes as 
-            // their getters are not prefixed with "get" or "is".
-            return (name.startsWith("get") && name.length() > 3 && method.getParameterCount() == 0 &&
-                    method.getReturnType() != void.class) ||
-                    (name.startsWith("is") && name.length() > 2 && method.getParameterCount() == 0 &&
-                            method.getReturnType() == boolean.class);
-        }
-
-        /**
-         * Extracts the property name from a getter method name.
-         *
-         * @param methodName The method name
-         * @return The property name
-         */
-        private String extractPropertyName(String methodName) {
-            // the same here
-            if (methodName.startsWith("get") && methodName.length() > 3) {
-                return Character.toLowerCase(methodName.charAt(3)) + methodName.substring(4);
-            } else if (methodName.startsWith("is") && methodName.length() > 2) {
-                return Character.toLowerCase(methodName.charAt(2)) + methodName.substring(3);
-            }
-            return methodName;
+        UpdatePlan plan = byTarget.get(targetClass);
+        if (stats != null) {
+            stats.planLookup(plan != null);
         }
+        if (plan == null) {
+            plan = byTarget.computeIfAbsent(targetClass, key -> planCompiler.compile(sourceClass, targetClass));
+        }
+        return plan;
+    }
 
-        @Override
-        public boolean equals(Object obj) {
-            if (obj instanceof TransformingDelegate) {
-                return delegate.equals(((TransformingDelegate<?>) obj).delegate);
+    /**
+     * Returns the plan redirecting source properties to other target properties, compiled once per mapping list.
+     *
+     * @param mappings Source and target property names, alternating; a later mapping of a source property wins
+     */
+    private UpdatePlan mappedPlan(Class<?> sourceClass, Class<?> targetClass, List<String> mappings) {
+        UpdatePlan plan = mappedPlanCache.get(List.of(sourceClass, targetClass, mappings));
+        if (plan == null) {
+            if (mappedPlanCache.size() >= MAX_CACHED_MAPPINGS) {
+                return compileMapped(sourceClass, targetClass, mappings);
             }
-            return delegate.equals(obj);
+            // the key keeps a copy, since the caller's mappings may still change
+            plan = mappedPlanCache.computeIfAbsent(List.of(sourceClass, targetClass, List.copyOf(mappings)),
+                    key -> compileMapped(sourceClass, targetClass, mappings));
         }
+        return plan;
+    }
 
-        @Override
-        public int hashCode() {
-            return delegate.hashCode();
+    private UpdatePlan compileMapped(Class<?> sourceClass, Class<?> targetClass, List<String> mappings) {
+        Map<String, String> targetBySource = new HashMap<>();
+        for (int i = 0; i < mappings.size(); i += 2) {
+            targetBySource.put(mappings.get(i), mappings.get(i + 1));
         }
+        return planCompiler.compile(sourceClass, targetClass, targetBySource);
+    }
 
-        @Override
-        public String toString() {
-            return "TransformingDelegate[" + delegate + "]";
+    /**
+     * Reads the values a regular update would write, without running handlers.
+     *
+     * @throws ConstraintViolationException If a value violates its property's constraints
+     */
+    private SlotValues readSlots(UpdatePlan plan, Object source) {
+        PropertyPlan[] properties = plan.properties();
+        SlotValues values = new SlotValues(properties.length);
+        List<PropertyError> violations = plan.hasConstraints() ? new ArrayList<>() : null;
+
+        if (plan.hasPresenceMask()) {
+            for (int bit = nextPresentBit(plan, source, 0); bit >= 0; bit = nextPresentBit(plan, source, bit + 1)) {
+                int slot = plan.slotForBit(bit);
+                if (slot >= 0) {
+                    Object value = readSource(properties[slot], source);
+                    if (admit(properties[slot], value, violations)) {
+                        values.set(slot, value);
+                    } else if (stopsAtViolation()) {
+                        break;
+                    }
+                }
+            }
+        } else {
+            for (PropertyPlan property : properties) {
+                Object value = readSource(property, source);
+                if (!property.accepts(value)) {
+                    continue;
+                }
+                if (admit(property, value, violations)) {
+                    values.set(property.getSlot(), value);
+                } else if (stopsAtViolation()) {
+                    break;
+                }
+            }
+        }
+
+        if (violations != null && !violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return values;
+    }
+
+    private Object readSource(PropertyPlan property, Object source) {
+        try {
+            return property.read(source);
+        } catch (ReflectiveOperationException e) {
+            throw propertyFailure(property, e);
+        }
+    }
+
+    @Override
+    public NihilStats stats() {
+        return stats == null ? NihilStats.EMPTY : stats.snapshot();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> PatchLayout<T> layout(Class<T> targetClass) {
+        PatchLayout<?> layout = layoutCache.get(targetClass);
+        if (layout == null) {
+            layout = layoutCache.computeIfAbsent(targetClass, key -> new PatchLayout<>(this, targetClass));
+        }
+        return (PatchLayout<T>) layout;
+    }
+
+    private int applyOrRestore(UpdatePlan plan, Object target, Object source, Map<Class<?>, Object> dependencies,
+                               List<PropertyError> errors, UndoLog<?> undo, List<PropertyError> violations) {
+        try {
+            int written = applyPlan(plan, target, source, dependencies, errors, undo, violations);
+            if (violations == null || violations.isEmpty()) {
+                return written;
+            }
+
+            if (config.isValidationRollback() && undo != null) {
+                undo.restore(null);
+                written = 0;
+            }
+            if (errors == null) {
+                throw new ConstraintViolationException(violations);
+            }
+            return written;
+        } catch (RuntimeException e) {
+            if (undo != null) {
+                undo.restore(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param violations Collects constraint violations, or null to skip validation
+     */
+    private int applyPlan(UpdatePlan plan, Object target, Object source, Map<Class<?>, Object> dependencies,
+                          List<PropertyError> errors, UndoLog<?> undo, List<PropertyError> violations) {
+        if (plan.hasPresenceMask()) {
+            return applyPresent(plan, target, source, dependencies, errors, undo, violations);
+        }
+
+        IUpdateJournal journal = config.getJournal();
+        SlotValues recorded = journal == null ? null : new SlotValues(plan.size());
+        boolean unboxed = recorded == null && undo == null && bus == null;
+        int written = 0;
+
+        for (PropertyPlan property : plan.properties()) {
+            try {
+                if (unboxed && property.copiesPrimitive()) {
+                    if (copyPrimitive(property, source, target, errors)) {
+                        written++;
+                    }
+                    continue;
+                }
+
+                Object value = property.read(source);
+
+                if (property.accepts(value)) {
+                    if (!admit(property, value, violations)) {
+                        if (stopsAtViolation()) {
+                            break;
+                        }
+                        continue;
+                    }
+
+                    Object raw = value;
+                    if (property.hasHandler()) {
+                        value = processWithHandler(value, property, dependencies);
+                    }
+                    if (write(property, target, value, errors, undo)) {
+                        if (recorded != null) {
+                            recorded.set(property.getSlot(), raw);
+                        }
+                        written++;
+                    }
+                }
+            } catch (Exception e) {
+                fail(property, e, errors);
+            }
+        }
+
+        if (journal != null && !rejects(violations, errors)) {
+            journal.record(target, plan, recorded);
+        }
+        return written;
+    }
+
+    /**
+     * Sparse path for sources carrying a presence mask: only set bits are visited, and a set bit is written
+     * even when its value is null, so the cost scales with the number of present properties.
+     */
+    private int applyPresent(UpdatePlan plan, Object target, Object source, Map<Class<?>, Object> dependencies,
+                             List<PropertyError> errors, UndoLog<?> undo, List<PropertyError> violations) {
+        IUpdateJournal journal = config.getJournal();
+        SlotValues recorded = journal == null ? null : new SlotValues(plan.size());
+        boolean unboxed = recorded == null && undo == null && bus == null;
+        PropertyPlan[] properties = plan.properties();
+        int written = 0;
+
+        for (int bit = nextPresentBit(plan, source, 0); bit >= 0; bit = nextPresentBit(plan, source, bit + 1)) {
+            int slot = plan.slotForBit(bit);
+            if (slot < 0) {
+                continue;
+            }
+
+            PropertyPlan property = properties[slot];
+            try {
+                if (unboxed && property.copiesPrimitive()) {
+                    if (copyPrimitive(property, source, target, errors)) {
+                        written++;
+                    }
+                    continue;
+                }
+
+                Object value = property.read(source);
+                if (!admit(property, value, violations)) {
+                    if (stopsAtViolation()) {
+                        break;
+                    }
+                    continue;
+                }
+
+                Object raw = value;
+                if (property.hasHandler()) {
+                    value = processWithHandler(value, property, dependencies);
+                }
+                if (write(property, target, value, errors, undo)) {
+                    if (recorded != null) {
+                        recorded.set(slot, raw);
+                    }
+                    written++;
+                }
+            } catch (Exception e) {
+                fail(property, e, errors);
+            }
+        }
+
+        if (journal != null && !rejects(violations, errors)) {
+            journal.record(target, plan, recorded);
+        }
+        return written;
+    }
+
+    /**
+     * Copies a primitive property without boxing it, when nothing needs the value as an object: the update
+     * is not journaled, undone or published. Failures are reported like those of {@link #write}.
+     *
+     * @return True if the value was written
+     */
+    private boolean copyPrimitive(PropertyPlan property, Object source, Object target, List<PropertyError> errors) {
+        try {
+            property.copyPrimitive(source, target);
+            return true;
+        } catch (InvocationTargetException e) {
+            if (errors == null) {
+                throw propertyFailure(property, e);
+            }
+            errors.add(PropertyError.of(property.getSourceProperty(), e.getCause()));
+            return false;
+        }
+    }
+
+    private static int nextPresentBit(UpdatePlan plan, Object source, int fromBit) {
+        try {
+            return PresenceMasks.nextSetBit(plan.getPresenceField(), source, fromBit);
+        } catch (IllegalAccessException e) {
+            throw new PropertyUpdateException("Error reading presence mask: " + plan.getPresenceField().getName(), e);
+        }
+    }
+
+    private int applySlots(UpdatePlan plan, Object target, SlotValues values, Map<Class<?>, Object> dependencies) {
+        PropertyPlan[] properties = plan.properties();
+
+        for (int slot = values.nextPresent(0); slot >= 0; slot = values.nextPresent(slot + 1)) {
+            PropertyPlan property = properties[slot];
+            Object value = values.get(slot);
+            if (property.hasHandler()) {
+                try {
+                    value = processWithHandler(value, property, dependencies);
+                } catch (Exception e) {
+                    throw propertyFailure(property, e);
+                }
+            }
+            write(property, target, value, null, null);
+        }
+
+        if (config.getJournal() != null) {
+            config.getJournal().record(target, plan, values);
+        }
+        return values.presentCount();
+    }
+
+    /**
+     * Optimistic update: source values and handlers are evaluated once, without holding any lock, then written
+     * after claiming the target with a compare-and-set on its version. A version carried by the source is an
+     * explicit expectation and is rejected on mismatch; otherwise a conflict is retried with the same values,
+     * since they only depend on the source.
+     */
+    private <P> int updateOptimistically(VersionStamp version, Object target, Long requestedVersion,
+                                         Supplier<P> preparation, ToIntFunction<P> application,
+                                         UndoLog<?> undo) {
+        if (version == null) {
+            throw new PropertyUpdateException("Optimistic updates require version property '"
+                    + config.getVersionProperty() + "' on " + target.getClass().getName());
+        }
+
+        P prepared = preparation.get();
+
+        for (int conflicts = 0; ; ) {
+            long expected = requestedVersion != null ? requestedVersion : version.await(target);
+            if (version.claim(target, expected)) {
+                boolean applied = false;
+                try {
+                    int written = application.applyAsInt(prepared);
+                    applied = true;
+                    return written;
+                } catch (RuntimeException e) {
+                    if (undo != null) {
+                        undo.restore(e);
+                    }
+                    throw e;
+                } finally {
+                    version.release(target, applied ? expected + 1 : expected);
+                }
+            }
+
+            // a claim lost to an update that then failed leaves the version unchanged, which is no conflict
+            long actual = version.await(target);
+            if (actual != expected
+                    && (requestedVersion != null || ++conflicts > config.getMaxOptimisticRetries())) {
+                throw new ConcurrentUpdateException("Concurrent update on " + target.getClass().getName()
+                        + ": expected version " + expected + " but found " + actual, expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Runs a reader between two reads of the target's version, and again until no update was applied
+     * meanwhile. Optimistic updates take no lock, so this is what keeps readers from seeing half of one.
+     */
+    private <T, R> R readOptimistically(T target, Function<? super T, ? extends R> reader) {
+        VersionStamp version = versionStamps.get(target.getClass()).orElse(null);
+        if (version == null) {
+            // without a version property no optimistic update can be applied to the target
+            return reader.apply(target);
+        }
+
+        while (true) {
+            long before = version.await(target);
+            R result;
+            try {
+                result = reader.apply(target);
+            } catch (RuntimeException e) {
+                // a torn read may throw, which only counts if nothing was written meanwhile
+                if (version.validate(target, before)) {
+                    throw e;
+                }
+                continue;
+            }
+            if (version.validate(target, before)) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * @param violations Collects constraint violations, or null to skip validation
+     * @throws ConstraintViolationException If a value is invalid and errors are not collected
+     */
+    private Prepared prepare(UpdatePlan plan, Object source, Map<Class<?>, Object> dependencies,
+                             List<PropertyError> errors, List<PropertyError> violations) {
+        PropertyPlan[] properties = plan.properties();
+        Object[] values = new Object[properties.length];
+        Arrays.fill(values, SKIP);
+        SlotValues recorded = config.getJournal() == null ? null : new SlotValues(properties.length);
+
+        if (plan.hasPresenceMask()) {
+            for (int bit = nextPresentBit(plan, source, 0); bit >= 0; bit = nextPresentBit(plan, source, bit + 1)) {
+                int slot = plan.slotForBit(bit);
+                if (slot >= 0 && !prepareProperty(properties[slot], true, source, values, recorded,
+                        dependencies, errors, violations)) {
+                    break;
+                }
+            }
+        } else {
+            for (PropertyPlan property : properties) {
+                if (!prepareProperty(property, false, source, values, recorded, dependencies, errors, violations)) {
+                    break;
+                }
+            }
+        }
+
+        if (violations == null || violations.isEmpty()) {
+            return new Prepared(values, recorded);
+        }
+        // nothing is written before the version check, so rejecting the update never needs to undo writes
+        if (errors == null) {
+            throw new ConstraintViolationException(violations);
+        }
+        if (config.isValidationRollback()) {
+            Arrays.fill(values, SKIP);
+            return new Prepared(values, null);
+        }
+        return new Prepared(values, recorded);
+    }
+
+    /**
+     * @return False if a constraint violation ends the update
+     */
+    private boolean prepareProperty(PropertyPlan property, boolean present, Object source, Object[] values,
+                                    SlotValues recorded, Map<Class<?>, Object> dependencies,
+                                    List<PropertyError> errors, List<PropertyError> violations) {
+        try {
+            Object value = property.read(source);
+
+            // a property marked present by the source's mask is written even when null
+            if (!present && !property.accepts(value)) {
+                return true;
+            }
+            if (!admit(property, value, violations)) {
+                return !stopsAtViolation();
+            }
+            Object raw = value;
+            if (property.hasHandler()) {
+                value = processWithHandler(value, property, dependencies);
+            }
+            values[property.getSlot()] = value;
+            if (recorded != null) {
+                recorded.set(property.getSlot(), raw);
+            }
+        } catch (Exception e) {
+            fail(property, e, errors);
+        }
+        return true;
+    }
+
+    private Prepared prepareSlots(UpdatePlan plan, SlotValues slotValues, Map<Class<?>, Object> dependencies) {
+        PropertyPlan[] properties = plan.properties();
+        Object[] values = new Object[properties.length];
+        Arrays.fill(values, SKIP);
+
+        for (int slot = slotValues.nextPresent(0); slot >= 0; slot = slotValues.nextPresent(slot + 1)) {
+            PropertyPlan property = properties[slot];
+            try {
+                Object value = slotValues.get(slot);
+                if (property.hasHandler()) {
+                    value = processWithHandler(value, property, dependencies);
+                }
+                values[slot] = value;
+            } catch (Exception e) {
+                throw propertyFailure(property, e);
+            }
+        }
+        return new Prepared(values, config.getJournal() == null ? null : slotValues);
+    }
+
+    private int applyPrepared(UpdatePlan plan, Object target, Prepared prepared, List<PropertyError> errors,
+                              UndoLog<?> undo) {
+        Object[] values = prepared.values();
+        int written = 0;
+
+        for (PropertyPlan property : plan.properties()) {
+            Object value = values[property.getSlot()];
+            if (value == SKIP) {
+                continue;
+            }
+
+            if (write(property, target, value, errors, undo)) {
+                written++;
+            } else if (prepared.recorded() != null) {
+                prepared.recorded().remove(property.getSlot());
+            }
+        }
+
+        if (prepared.recorded() != null) {
+            config.getJournal().record(target, plan, prepared.recorded());
+        }
+        return written;
+    }
+
+    /**
+     * Writes a property, either throwing its failure or adding it to the collected errors.
+     *
+     * @param errors Collects the failure, or null to throw it
+     * @param undo Records the value being overwritten, or null
+     * @return True if the value was written
+     */
+    private boolean write(PropertyPlan property, Object target, Object value, List<PropertyError> errors,
+                          UndoLog<?> undo) {
+        value = property.intern(value);
+        Object previous = bus == null ? null : readPrevious(property, target);
+
+        if (errors != null) {
+            try {
+                if (undo != null) {
+                    undo.record(property);
+                }
+            } catch (Exception e) {
+                errors.add(PropertyError.of(property.getSourceProperty(), e));
+                return false;
+            }
+            if (!writeCollecting(property, target, value, errors)) {
+                return false;
+            }
+        } else {
+            try {
+                if (undo != null) {
+                    undo.record(property);
+                }
+                writeProperty(property, target, value);
+            } catch (Exception e) {
+                throw propertyFailure(property, e);
+            }
+        }
+
+        if (bus != null) {
+            publishChange(property, target, previous, value);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the value about to be overwritten, for change events. A property that cannot be read
+     * is treated as previously null rather than failing the update.
+     */
+    private static Object readPrevious(PropertyPlan property, Object target) {
+        if (!property.isTargetReadable()) {
+            return null;
+        }
+        try {
+            return property.readTarget(target);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Publishes a change event unless the value did not change.
+     */
+    void publishChange(PropertyPlan property, Object target, Object oldValue, Object newValue) {
+        if (bus != null && !Objects.equals(oldValue, newValue)) {
+            bus.publish(target, property.getTargetProperty(), oldValue, newValue);
+        }
+    }
+
+    boolean isPublishingChanges() {
+        return bus != null;
+    }
+
+    /**
+     * Collecting counterpart of {@link #writeProperty}. Failures are recorded without being wrapped, and
+     * values the field cannot hold are rejected up front rather than through a reflection exception.
+     */
+    private boolean writeCollecting(PropertyPlan property, Object target, Object value, List<PropertyError> errors) {
+        NihilConfig.AccessStrategy strategy = config.getAccessStrategy();
+
+        try {
+            if (strategy != NihilConfig.AccessStrategy.FIELD) {
+                Class<?> valueClass = value == null ? null : value.getClass();
+                MethodHandle setter = property.setterHandleFor(valueClass);
+                if (setter != null) {
+                    setter.invokeExact(target, value);
+                    return true;
+                }
+
+                Method method = property.setterFor(valueClass);
+                if (method != null) {
+                    method.invoke(target, value);
+                    return true;
+                }
+            }
+
+            if (strategy != NihilConfig.AccessStrategy.METHOD) {
+                Field targetField = property.getTargetField();
+                if (targetField != null) {
+                    Class<?> type = targetField.getType();
+                    if (!isAssignable(type, value)) {
+                        errors.add(new PropertyError(property.getSourceProperty(), ClassCastException.class,
+                                "Cannot assign " + (value == null ? "null" : value.getClass().getName())
+                                        + " to " + type.getName()));
+                        return false;
+                    }
+                    targetField.set(target, value);
+                }
+            }
+            return true;
+        } catch (InvocationTargetException e) {
+            errors.add(PropertyError.of(property.getSourceProperty(), e.getCause()));
+            return false;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            errors.add(PropertyError.of(property.getSourceProperty(), t));
+            return false;
+        }
+    }
+
+    /**
+     * Whether {@link Field#set} accepts the value for a field of the given type, unboxing and widening included.
+     */
+    private static boolean isAssignable(Class<?> type, Object value) {
+        if (value == null || !type.isPrimitive()) {
+            return value == null ? !type.isPrimitive() : type.isInstance(value);
+        }
+
+        Class<?> from = MethodType.methodType(value.getClass()).unwrap().returnType();
+        if (from == type) {
+            return true;
+        }
+        if (from == boolean.class || type == boolean.class || type == char.class || !from.isPrimitive()) {
+            return false;
+        }
+        // widening follows byte < short < int < long < float < double, char widening from int upwards
+        return from == char.class ? wideningRank(type) >= 3 : wideningRank(from) < wideningRank(type);
+    }
+
+    private static int wideningRank(Class<?> type) {
+        if (type == byte.class) {
+            return 1;
+        } else if (type == short.class) {
+            return 2;
+        } else if (type == int.class) {
+            return 3;
+        } else if (type == long.class) {
+            return 4;
+        } else if (type == float.class) {
+            return 5;
+        }
+        return 6;
+    }
+
+    /**
+     * Reports a property failure: thrown when failing fast, collected otherwise.
+     */
+    private void fail(PropertyPlan property, Exception cause, List<PropertyError> errors) {
+        if (errors == null) {
+            throw propertyFailure(property, cause);
+        }
+        errors.add(PropertyError.of(property.getSourceProperty(), cause));
+    }
+
+    /**
+     * Checks a value about to be written against its property's constraints.
+     *
+     * @param violations Collects the violation, or null to skip validation
+     * @return True if the value may be written
+     */
+    private static boolean admit(PropertyPlan property, Object value, List<PropertyError> violations) {
+        String violation = violations == null ? null : property.violation(value);
+        if (violation == null) {
+            return true;
+        }
+        violations.add(new PropertyError(property.getSourceProperty(), ConstraintViolationException.class, violation));
+        return false;
+    }
+
+    private boolean stopsAtViolation() {
+        return config.getValidationMode() == NihilConfig.ValidationMode.FAIL_FAST;
+    }
+
+    /**
+     * @return True if constraint violations fail the update or undo its writes, so it is not journaled
+     */
+    private boolean rejects(List<PropertyError> violations, List<PropertyError> errors) {
+        return violations != null && !violations.isEmpty() && (errors == null || config.isValidationRollback());
+    }
+
+    /**
+     * Writes a value according to the access strategy.
+     * AUTO tries the setter first and falls back to direct field access.
+     * Neither path allocates once the setter for the value class is bound.
+     */
+    void writeProperty(PropertyPlan property, Object target, Object value) throws ReflectiveOperationException {
+        NihilConfig.AccessStrategy strategy = config.getAccessStrategy();
+
+        if (strategy != NihilConfig.AccessStrategy.FIELD) {
+            Class<?> valueClass = value == null ? null : value.getClass();
+            MethodHandle setter = property.setterHandleFor(valueClass);
+            if (setter != null) {
+                invokeSetter(setter, target, value);
+                return;
+            }
+
+            Method method = property.setterFor(valueClass);
+            if (method != null) {
+                method.invoke(target, value);
+                return;
+            }
+        }
+
+        if (strategy != NihilConfig.AccessStrategy.METHOD) {
+            Field targetField = property.getTargetField();
+            if (targetField != null) {
+                targetField.set(target, value);
+            }
+        }
+    }
+
+    // failures are wrapped the way Method.invoke wraps them
+    private static void invokeSetter(MethodHandle setter, Object target, Object value)
+            throws InvocationTargetException {
+        try {
+            setter.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private PropertyUpdateException propertyFailure(PropertyPlan property, Exception cause) {
+        if (cause instanceof PropertyUpdateException updateException) {
+            return updateException;
+        }
+
+        String kind = config.getAccessStrategy() == NihilConfig.AccessStrategy.FIELD ? "field" : "property";
+        return new PropertyUpdateException("Error updating " + kind + ": " + property.getSourceProperty(), cause);
+    }
+
+    private static Long readVersion(Field versionField, Object owner) {
+        if (versionField == null) {
+            return null;
+        }
+
+        try {
+            Object version = versionField.get(owner);
+            return version == null ? null : ((Number) version).longValue();
+        } catch (IllegalAccessException e) {
+            throw new PropertyUpdateException("Error reading version: " + versionField.getName(), e);
+        }
+    }
+
+    private Object processWithHandler(Object value, PropertyPlan property,
+                                      Map<Class<?>, Object> dependencies) throws Exception {
+        Class<? extends IPropertyHandler> handlerClass = property.getHandlerClass();
+        HandlerInvocationEvent event = NihilEvents.beginHandler();
+        long started = stats == null ? 0 : System.nanoTime();
+        Object processed;
+
+        try {
+            processed = property.getHandler().instance(dependencies).process(value);
+        } catch (Exception e) {
+            if (stats != null) {
+                stats.handler(handlerClass, System.nanoTime() - started, true);
+            }
+            throw e;
+        }
+
+        if (stats != null) {
+            stats.handler(handlerClass, System.nanoTime() - started, false);
+        }
+        NihilEvents.commitHandler(event, handlerClass, property.getTargetProperty());
+        return processed;
+    }
+
+    /**
+     * Values ready to be written, and the raw values to journal once they are.
+     */
+    private record Prepared(Object[] values, SlotValues recorded) {}
+
+    /**
+     * Winning property and value per merged index, null where no source wrote the property,
+     * with the source values per merged source for the journal.
+     */
+    private record Merged(PropertyPlan[] properties, Object[] values, SlotValues[] recorded) {}
+
+    private static class NihilImplBuilderBuilder<T> implements UpdaterBuilder<T> {
+        private final T target;
+        private final NihilImpl nihil;
+        private final Map<Class<?>, Object> dependencies = new ConcurrentHashMap<>();
+        // source and target property names, alternating, so the list is a cheap key for the mapped plan
+        private final List<String> propertyMappings = new ArrayList<>();
+        private final List<Transformer> transformers = new ArrayList<>();
+
+        NihilImplBuilderBuilder(T target, NihilImpl nihil) {
+            this.target = target;
+            this.nihil = nihil;
+        }
+
+        @Override
+        public <D> UpdaterBuilder<T> withDependency(Class<D> type, D dependency) {
+            dependencies.put(type, dependency);
+            return this;
+        }
+
+        @Override
+        public UpdaterBuilder<T> withMapping(String sourceProperty, String targetProperty) {
+            if (target != null && !isTargetProperty(target.getClass(), targetProperty)) {
+                throw new IllegalArgumentException("Mapped property '" + targetProperty + "' has no field or setter in "
+                        + target.getClass().getName());
+            }
+            propertyMappings.add(sourceProperty);
+            propertyMappings.add(targetProperty);
+            return this;
+        }
+
+        private static boolean isTargetProperty(Class<?> targetClass, String property) {
+            if (ReflectionUtils.findField(targetClass, property).isPresent()) {
+                return true;
+            }
+            String setterName = ReflectionUtils.setterName(property);
+            for (Method method : targetClass.getMethods()) {
+                if (method.getName().equals(setterName) && method.getParameterCount() == 1) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public <S, V> UpdaterBuilder<T> withMapping(PropertyGetter<S, V> sourceProperty,
+                                                    PropertySetter<? super T, ? super V> targetProperty) {
+            return withMapping(PropertyReference.of(sourceProperty).getName(),
+                    PropertyReference.of(targetProperty).getName());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> UpdaterBuilder<T> withTransformer(String property, Function<V, Object> transformer) {
+            transformers.add(new Transformer(property, null, (Function<Object, Object>) transformer));
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <S, V> UpdaterBuilder<T> withTransformer(PropertyGetter<S, V> property,
+                                                        Function<? super V, Object> transformer) {
+            transformers.add(new Transformer(null, PropertyReference.of(property),
+                    (Function<Object, Object>) transformer));
+            return this;
+        }
+
+        @Override
+        public <S> T update(S source) {
+            if (source == null || target == null) {
+                return target;
+            }
+            if (propertyMappings.isEmpty() && transformers.isEmpty()) {
+                return nihil.update(target, source, dependencies);
+            }
+
+            UpdatePlan plan = propertyMappings.isEmpty()
+                    ? nihil.plan(source.getClass(), target.getClass())
+                    : nihil.mappedPlan(source.getClass(), target.getClass(), propertyMappings);
+
+            // transformers run on the source values, before any handler, and are resolved to slots once per plan
+            SlotValues values = nihil.readSlots(plan, source);
+            for (Transformer transformer : transformers) {
+                int slot = transformer.slot(plan);
+                Object value = values.get(slot);
+                if (value != null) {
+                    values.set(slot, transformer.function().apply(value));
+                }
+            }
+
+            // not sampled by the workload recorder: replay could not reproduce the mappings and transformers
+            nihil.applySlotValues(target, plan, values, dependencies, readVersion(plan.getSourceVersionField(), source));
+            return target;
+        }
+    }
+
+    /**
+     * Transformer of a source property named either by a string or by a method reference.
+     */
+    private record Transformer(String property, PropertyReference reference, Function<Object, Object> function) {
+
+        int slot(UpdatePlan plan) {
+            if (reference != null) {
+                return reference.sourceSlot(plan);
+            }
+
+            int slot = plan.sourceSlot(property);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Transformed property '" + property + "' is not updated by " + plan);
+            }
+            return slot;
         }
     }
-}
\ No newline at end of file
+}
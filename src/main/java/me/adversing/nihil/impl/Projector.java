@@ -0,0 +1,185 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.plan.InstantiationPlan;
+import me.adversing.nihil.plan.PropertyPlan;
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.projection.FieldMask;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies the properties selected by a {@link FieldMask} from a source to a new DTO or map.
+ * Masks are compiled against the update plans into projection plans, cached per mask and class pair.
+ */
+final class Projector {
+
+    private static final int MAX_CACHED_MASKS = 1024;
+
+    private final NihilImpl nihil;
+    private final Map<FieldMask, Map<Class<?>, Map<Class<?>, Node>>> cache = new ConcurrentHashMap<>();
+
+    Projector(NihilImpl nihil) {
+        this.nihil = nihil;
+    }
+
+    <T> T project(Object source, FieldMask mask, Class<T> targetClass) {
+        return targetClass.cast(execute(nodeFor(mask, source.getClass(), targetClass), source));
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> project(Object source, FieldMask mask) {
+        return (Map<String, Object>) execute(nodeFor(mask, source.getClass(), Map.class), source);
+    }
+
+    private Node nodeFor(FieldMask mask, Class<?> sourceClass, Class<?> targetClass) {
+        Map<Class<?>, Map<Class<?>, Node>> bySource = cache.get(mask);
+        if (bySource == null) {
+            if (cache.size() >= MAX_CACHED_MASKS) {
+                return compile(mask, sourceClass, targetClass);
+            }
+            bySource = cache.computeIfAbsent(mask, key -> new ConcurrentHashMap<>());
+        }
+
+        Map<Class<?>, Node> byTarget = bySource.computeIfAbsent(sourceClass, key -> new ConcurrentHashMap<>());
+        Node node = byTarget.get(targetClass);
+        if (node == null) {
+            node = byTarget.computeIfAbsent(targetClass, key -> compile(mask, sourceClass, targetClass));
+        }
+        return node;
+    }
+
+    private Node compile(FieldMask mask, Class<?> sourceClass, Class<?> targetClass) {
+        boolean toMap = targetClass == Map.class;
+        // a map target has no layout of its own, the source's plan onto itself provides the property metadata
+        UpdatePlan plan = nihil.plan(sourceClass, toMap ? sourceClass : targetClass);
+        InstantiationPlan<?> instantiation = toMap ? null : nihil.instantiation(targetClass);
+
+        int size = mask.names().size();
+        PropertyPlan[] properties = new PropertyPlan[size];
+        Node[] children = new Node[size];
+        boolean[] collections = new boolean[size];
+
+        int i = 0;
+        for (String name : mask.names()) {
+            PropertyPlan property = findProperty(plan, name);
+            if (!toMap && property.getTargetField() == null) {
+                throw new IllegalArgumentException("Property '" + name + "' selected by field mask has no counterpart in "
+                        + targetClass.getName());
+            }
+            properties[i] = property;
+
+            FieldMask child = mask.child(name);
+            if (!child.isLeaf()) {
+                Field sourceField = property.getSourceField();
+                collections[i] = Collection.class.isAssignableFrom(sourceField.getType());
+
+                Class<?> nestedSource = collections[i] ? elementType(sourceField) : sourceField.getType();
+                Class<?> nestedTarget = Map.class;
+                if (!toMap) {
+                    Field targetField = property.getTargetField();
+                    nestedTarget = collections[i] ? elementType(targetField) : targetField.getType();
+                }
+                children[i] = compile(child, nestedSource, nestedTarget);
+            }
+            i++;
+        }
+        return new Node(plan, instantiation, properties, children, collections);
+    }
+
+    private Object execute(Node node, Object source) {
+        try {
+            if (node.instantiation() == null) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                for (int i = 0; i < node.properties().length; i++) {
+                    result.put(node.properties()[i].getSourceProperty(), valueOf(node, i, source));
+                }
+                return result;
+            }
+
+            if (node.instantiation().isConstructorBound()) {
+                Object[] arguments = node.instantiation().newArguments();
+                int[] componentBySlot = node.instantiation().componentsBySlot(node.plan());
+                for (int i = 0; i < node.properties().length; i++) {
+                    int component = componentBySlot[node.properties()[i].getSlot()];
+                    if (component >= 0) {
+                        arguments[component] = valueOf(node, i, source);
+                    }
+                }
+                return node.instantiation().newInstance(arguments);
+            }
+
+            Object target = node.instantiation().newInstance();
+            for (int i = 0; i < node.properties().length; i++) {
+                PropertyPlan property = node.properties()[i];
+                Object value = valueOf(node, i, source);
+                Class<?> targetType = property.getTargetField().getType();
+                // a selected leaf of a different type, e.g. an entity into a DTO field, is mapped as a whole
+                if (value != null && node.children()[i] == null && !wrap(targetType).isInstance(value)) {
+                    value = nihil.map(value, targetType);
+                }
+                nihil.writeProperty(property, target, value);
+            }
+            return target;
+        } catch (ReflectiveOperationException e) {
+            throw new PropertyUpdateException("Error projecting " + node.plan().getSourceClass().getName(), e);
+        }
+    }
+
+    private Object valueOf(Node node, int index, Object source) throws ReflectiveOperationException {
+        Object value = node.properties()[index].read(source);
+        Node child = node.children()[index];
+        if (value == null || child == null) {
+            return value;
+        }
+
+        if (!node.collections()[index]) {
+            return execute(child, value);
+        }
+
+        Collection<?> elements = (Collection<?>) value;
+        List<Object> projected = new ArrayList<>(elements.size());
+        for (Object element : elements) {
+            projected.add(element == null ? null : execute(child, element));
+        }
+        return projected;
+    }
+
+    private static PropertyPlan findProperty(UpdatePlan plan, String name) {
+        for (PropertyPlan property : plan.properties()) {
+            if (property.getSourceProperty().equals(name)) {
+                return property;
+            }
+        }
+        throw new IllegalArgumentException("Unknown property '" + name + "' in field mask for "
+                + plan.getSourceClass().getName());
+    }
+
+    private static Class<?> elementType(Field field) {
+        Type type = field.getGenericType();
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+            return element;
+        }
+        throw new IllegalArgumentException("Cannot resolve the element type of " + field);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * Compiled projection of one level of a mask.
+     */
+    private record Node(UpdatePlan plan, InstantiationPlan<?> instantiation, PropertyPlan[] properties,
+                        Node[] children, boolean[] collections) {}
+}
@@ -0,0 +1,117 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.plan.PropertyPlan;
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.result.UpdateTransaction;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+/**
+ * Previous values of the properties overwritten by a transactional update, indexed by slot.
+ * Only touched properties are recorded, so the log grows with the update rather than with the target.
+ */
+final class UndoLog<T> implements UpdateTransaction<T> {
+    private final NihilImpl nihil;
+    private final UpdatePlan plan;
+    private final T target;
+    private int[] slots = new int[4];
+    private Object[] previous = new Object[4];
+    private int size;
+    private int written;
+    private boolean rolledBack;
+
+    UndoLog(NihilImpl nihil, UpdatePlan plan, T target) {
+        this.nihil = nihil;
+        this.plan = plan;
+        this.target = target;
+    }
+
+    /**
+     * Records the current value of a property about to be overwritten.
+     */
+    void record(PropertyPlan property) throws ReflectiveOperationException {
+        Object value = property.readTarget(target);
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+            previous = Arrays.copyOf(previous, size * 2);
+        }
+        slots[size] = property.getSlot();
+        previous[size] = value;
+        size++;
+    }
+
+    /**
+     * Writes the recorded values back, most recent first. Every property is attempted even if one fails.
+     *
+     * @param failure The failure that caused the rollback, receiving restore failures as suppressed, or null
+     */
+    void restore(RuntimeException failure) {
+        PropertyUpdateException restoreFailure = null;
+        PropertyPlan[] properties = plan.properties();
+
+        for (int i = size - 1; i >= 0; i--) {
+            PropertyPlan property = properties[slots[i]];
+            try {
+                Object current = nihil.isPublishingChanges() && property.isTargetReadable()
+                        ? property.readTarget(target) : null;
+                Field targetField = property.getTargetField();
+                if (targetField != null) {
+                    targetField.set(target, previous[i]);
+                } else {
+                    nihil.writeProperty(property, target, previous[i]);
+                }
+                nihil.publishChange(property, target, current, previous[i]);
+            } catch (Exception e) {
+                PropertyUpdateException error = new PropertyUpdateException(
+                        "Error rolling back property: " + property.getTargetProperty(), e);
+                if (failure != null) {
+                    failure.addSuppressed(error);
+                } else if (restoreFailure == null) {
+                    restoreFailure = error;
+                } else {
+                    restoreFailure.addSuppressed(error);
+                }
+            }
+        }
+
+        size = 0;
+        Arrays.fill(previous, null);
+        if (restoreFailure != null) {
+            throw restoreFailure;
+        }
+    }
+
+    void setWritten(int written) {
+        this.written = written;
+    }
+
+    UpdatePlan plan() {
+        return plan;
+    }
+
+    @Override
+    public T target() {
+        return target;
+    }
+
+    @Override
+    public int written() {
+        return written;
+    }
+
+    @Override
+    public void rollback() {
+        if (rolledBack) {
+            throw new IllegalStateException("Update already rolled back");
+        }
+        nihil.rollback(this);
+        rolledBack = true;
+    }
+
+    @Override
+    public boolean isRolledBack() {
+        return rolledBack;
+    }
+}
@@ -0,0 +1,29 @@
+package me.adversing.nihil.intf;
+
+import me.adversing.nihil.naming.NamingStrategies;
+
+/**
+ * Derives the target property written by a source field from the field's name, e.g. {@code email_address}
+ * to {@code emailAddress}. Applied once per field when a plan is compiled, never during updates.
+ *
+ * @see NamingStrategies
+ */
+@FunctionalInterface
+public interface INamingStrategy {
+
+    /**
+     * @param sourceProperty The name of the source field
+     * @return The name of the target property it updates
+     */
+    String targetProperty(String sourceProperty);
+
+    /**
+     * Applies another strategy to the names produced by this one.
+     *
+     * @param next The strategy applied second
+     * @return The combined strategy
+     */
+    default INamingStrategy andThen(INamingStrategy next) {
+        return NamingStrategies.chain(this, next);
+    }
+}
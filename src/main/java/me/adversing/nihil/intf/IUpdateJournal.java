@@ -0,0 +1,19 @@
+package me.adversing.nihil.intf;
+
+import me.adversing.nihil.plan.SlotValues;
+import me.adversing.nihil.plan.UpdatePlan;
+
+/**
+ * Sink receiving every update applied by a Nihil instance, e.g. for audit or crash recovery.
+ */
+public interface IUpdateJournal {
+
+    /**
+     * Records an applied update. Called by the updating thread after all properties were written.
+     *
+     * @param target The updated object
+     * @param plan The plan the update went through
+     * @param values The source values of the written slots, before any handler ran
+     */
+    void record(Object target, UpdatePlan plan, SlotValues values);
+}
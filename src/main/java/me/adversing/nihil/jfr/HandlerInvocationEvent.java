@@ -0,0 +1,20 @@
+package me.adversing.nihil.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.adversing.nihil.HandlerInvocation")
+@Label("Handler Invocation")
+@Category("Nihil")
+@Description("Invocation of a custom property handler, including its creation and dependency injection")
+public class HandlerInvocationEvent extends Event {
+
+    @Label("Handler Class")
+    public Class<?> handlerClass;
+
+    @Label("Property")
+    public String property;
+}
@@ -0,0 +1,27 @@
+package me.adversing.nihil.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.adversing.nihil.MetadataCacheMiss")
+@Label("Metadata Cache Miss")
+@Category("Nihil")
+@Description("Reflective lookup of a setter or field that was not cached yet")
+public class MetadataCacheMissEvent extends Event {
+
+    @Label("Kind")
+    @Description("setter or field")
+    public String kind;
+
+    @Label("Owner Class")
+    public Class<?> ownerClass;
+
+    @Label("Member")
+    public String member;
+
+    @Label("Value Class")
+    public Class<?> valueClass;
+}
@@ -0,0 +1,124 @@
+package me.adversing.nihil.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Gate for Nihil's JFR events.
+ * Events are only created while a recording runs, so with no recording the cost is a single volatile read.
+ */
+public final class NihilEvents {
+
+    private static volatile boolean recording;
+
+    static {
+        try {
+            if (FlightRecorder.isAvailable()) {
+                FlightRecorder.addListener(new FlightRecorderListener() {
+                    @Override
+                    public void recordingStateChanged(Recording changed) {
+                        refresh();
+                    }
+                });
+                if (FlightRecorder.isInitialized()) {
+                    refresh();
+                }
+            }
+        } catch (RuntimeException e) {
+            // JFR unavailable or not permitted, events stay disabled
+        }
+    }
+
+    private NihilEvents() {}
+
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    private static void refresh() {
+        recording = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(r -> r.getState() == RecordingState.RUNNING);
+    }
+
+    public static UpdateEvent beginUpdate() {
+        if (!recording) {
+            return null;
+        }
+        UpdateEvent event = new UpdateEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitUpdate(UpdateEvent event, Class<?> sourceClass, Class<?> targetClass, int written) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.sourceClass = sourceClass;
+            event.targetClass = targetClass;
+            event.propertiesWritten = written;
+            event.commit();
+        }
+    }
+
+    public static HandlerInvocationEvent beginHandler() {
+        if (!recording) {
+            return null;
+        }
+        HandlerInvocationEvent event = new HandlerInvocationEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitHandler(HandlerInvocationEvent event, Class<?> handlerClass, String property) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.handlerClass = handlerClass;
+            event.property = property;
+            event.commit();
+        }
+    }
+
+    public static PlanCompilationEvent beginCompilation() {
+        if (!recording) {
+            return null;
+        }
+        PlanCompilationEvent event = new PlanCompilationEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitCompilation(PlanCompilationEvent event, Class<?> sourceClass, Class<?> targetClass,
+                                         int properties) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.sourceClass = sourceClass;
+            event.targetClass = targetClass;
+            event.properties = properties;
+            event.commit();
+        }
+    }
+
+    public static void cacheMiss(String kind, Class<?> ownerClass, String member, Class<?> valueClass) {
+        if (!recording) {
+            return;
+        }
+        MetadataCacheMissEvent event = new MetadataCacheMissEvent();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.ownerClass = ownerClass;
+            event.member = member;
+            event.valueClass = valueClass;
+            event.commit();
+        }
+    }
+}
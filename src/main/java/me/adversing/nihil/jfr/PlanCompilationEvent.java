@@ -0,0 +1,23 @@
+package me.adversing.nihil.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.adversing.nihil.PlanCompilation")
+@Label("Plan Compilation")
+@Category("Nihil")
+@Description("Compilation of the update plan of a source/target class pair")
+public class PlanCompilationEvent extends Event {
+
+    @Label("Source Class")
+    public Class<?> sourceClass;
+
+    @Label("Target Class")
+    public Class<?> targetClass;
+
+    @Label("Properties")
+    public int properties;
+}
@@ -0,0 +1,23 @@
+package me.adversing.nihil.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.adversing.nihil.Update")
+@Label("Update")
+@Category("Nihil")
+@Description("A single update applied through a compiled plan")
+public class UpdateEvent extends Event {
+
+    @Label("Source Class")
+    public Class<?> sourceClass;
+
+    @Label("Target Class")
+    public Class<?> targetClass;
+
+    @Label("Properties Written")
+    public int propertiesWritten;
+}
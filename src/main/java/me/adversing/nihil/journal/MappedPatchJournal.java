@@ -0,0 +1,477 @@
+package me.adversing.nihil.journal;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.codec.ReachableClasses;
+import me.adversing.nihil.codec.ValueCodec;
+import me.adversing.nihil.exception.CodecException;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.intf.IUpdateJournal;
+import me.adversing.nihil.plan.SlotValues;
+import me.adversing.nihil.plan.UpdatePlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of applied updates, written to memory-mapped segment files.
+ * <p>
+ * Writers are spread over a fixed number of lanes, each appending to its own segment under its own lock,
+ * so concurrent updates only contend when their threads share a lane. Every record carries a sequence
+ * number taken under the lane lock, and replay merges the lanes back into that order. Since the journal
+ * is written while the updated target is held, updates of one target replay in the order they were applied.
+ * <p>
+ * Each segment starts with a small header followed by records of the form
+ * {@code [length][crc32c][payload]}; a zero length marks the end of the written data, since segments are
+ * preallocated and zero-filled. Appending a record is a copy into the mapping, no system call is made
+ * until a segment is rotated or {@link #flush()} is called.
+ */
+public class MappedPatchJournal implements IUpdateJournal, AutoCloseable {
+
+    private static final int MAGIC = 0x4E4A4E4C; // "NJNL"
+    private static final int FORMAT_VERSION = 2;
+    private static final int SEGMENT_HEADER_SIZE = 20;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte UPDATE_RECORD = 1;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int DEFAULT_LANES = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Function<Object, ?> keyExtractor;
+    private final long session;
+    private final AtomicLong nextSegment;
+    private final AtomicLong nextRecord = new AtomicLong();
+    private final Lane[] lanes;
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private final ThreadLocal<Lane> lane;
+    private volatile boolean closed;
+
+    private MappedPatchJournal(Path directory, int segmentSize, int laneCount, Function<Object, ?> keyExtractor) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.keyExtractor = keyExtractor;
+
+        try {
+            Files.createDirectories(directory);
+            List<Path> existing = segments(directory);
+            this.session = existing.isEmpty() ? 0 : sequenceOf(existing.get(existing.size() - 1)) + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal directory " + directory, e);
+        }
+        this.nextSegment = new AtomicLong(session);
+
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i);
+        }
+        // threads are dealt to lanes round-robin on their first record
+        this.lane = ThreadLocal.withInitial(() -> lanes[Math.floorMod(nextLane.getAndIncrement(), lanes.length)]);
+    }
+
+    /**
+     * Opens a journal appending to new segments in the given directory, with one lane per available
+     * processor, up to four.
+     *
+     * @param directory The directory holding the segment files
+     * @param segmentSize The size of each preallocated segment in bytes
+     * @param keyExtractor Function extracting the key identifying a target, e.g. its id
+     * @return The journal
+     */
+    public static MappedPatchJournal open(Path directory, int segmentSize, Function<Object, ?> keyExtractor) {
+        return open(directory, segmentSize, DEFAULT_LANES, keyExtractor);
+    }
+
+    /**
+     * Opens a journal appending to new segments in the given directory.
+     * Every lane that receives a record maps a segment of its own, so up to {@code lanes} segments are
+     * open at once.
+     *
+     * @param directory The directory holding the segment files
+     * @param segmentSize The size of each preallocated segment in bytes
+     * @param lanes The number of independent append lanes
+     * @param keyExtractor Function extracting the key identifying a target, e.g. its id
+     * @return The journal
+     */
+    public static MappedPatchJournal open(Path directory, int segmentSize, int lanes,
+                                          Function<Object, ?> keyExtractor) {
+        if (segmentSize <= SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        if (lanes < 1) {
+            throw new IllegalArgumentException("lanes must be positive: " + lanes);
+        }
+        return new MappedPatchJournal(directory, segmentSize, lanes, keyExtractor);
+    }
+
+    @Override
+    public void record(Object target, UpdatePlan plan, SlotValues values) {
+        lane.get().record(target, plan, values);
+    }
+
+    /**
+     * Forces the current segment of every lane to storage.
+     */
+    public void flush() {
+        for (Lane l : lanes) {
+            l.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Lane l : lanes) {
+            l.close();
+        }
+    }
+
+    /**
+     * One append path: a segment, and the codec whose class dictionary restarts with it.
+     */
+    private final class Lane {
+        private final int index;
+        // the writer never decodes, so nothing needs to be allowed
+        private final ValueCodec codec = new ValueCodec(Thread.currentThread().getContextClassLoader(), type -> false);
+        private final CRC32C crc = new CRC32C();
+
+        private ByteBuffer scratch = ByteBuffer.allocate(4096);
+        private MappedByteBuffer segment;
+
+        private Lane(int index) {
+            this.index = index;
+        }
+
+        synchronized void record(Object target, UpdatePlan plan, SlotValues values) {
+            if (closed) {
+                throw new PropertyUpdateException("Journal is closed: " + directory);
+            }
+            if (segment == null) {
+                rotate();
+            }
+
+            long sequence = nextRecord.getAndIncrement();
+            int length = encode(sequence, target, plan, values);
+            if (segment.remaining() < RECORD_HEADER_SIZE + length + Integer.BYTES) {
+                rotate();
+                // the class dictionary restarts with the segment
+                length = encode(sequence, target, plan, values);
+                if (segment.remaining() < RECORD_HEADER_SIZE + length + Integer.BYTES) {
+                    throw new PropertyUpdateException("Journal record of " + length + " bytes exceeds segment size");
+                }
+            }
+
+            crc.reset();
+            crc.update(scratch.array(), 0, length);
+
+            int position = segment.position();
+            segment.position(position + RECORD_HEADER_SIZE);
+            segment.put(scratch.array(), 0, length);
+            segment.putInt(position + Integer.BYTES, (int) crc.getValue());
+            // the length goes last, readers treat a zero length as the end of the segment
+            segment.putInt(position, length);
+        }
+
+        private int encode(long sequence, Object target, UpdatePlan plan, SlotValues values) {
+            while (true) {
+                int mark = codec.mark();
+                try {
+                    scratch.clear();
+                    scratch.putLong(sequence);
+                    scratch.put(UPDATE_RECORD);
+                    codec.writeClass(scratch, plan.getSourceClass());
+                    codec.writeClass(scratch, plan.getTargetClass());
+                    scratch.putLong(plan.fingerprint());
+                    codec.write(scratch, keyExtractor.apply(target));
+                    ValueCodec.writeVarLong(scratch, values.presentCount());
+                    for (int slot = values.nextPresent(0); slot >= 0; slot = values.nextPresent(slot + 1)) {
+                        ValueCodec.writeVarLong(scratch, slot);
+                        codec.write(scratch, values.get(slot));
+                    }
+                    return scratch.position();
+                } catch (BufferOverflowException e) {
+                    codec.rollback(mark);
+                    scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+                }
+            }
+        }
+
+        private void rotate() {
+            if (segment != null) {
+                segment.force();
+            }
+
+            Path file = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, nextSegment.getAndIncrement(),
+                    SEGMENT_SUFFIX));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // the mapping stays valid after the channel is closed
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create journal segment " + file, e);
+            }
+
+            segment.putInt(MAGIC);
+            segment.putInt(FORMAT_VERSION);
+            segment.putLong(session);
+            segment.putInt(index);
+            codec.reset();
+        }
+
+        synchronized void flush() {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+
+        synchronized void close() {
+            flush();
+            segment = null;
+        }
+    }
+
+    /**
+     * Re-applies every record of a journal directory, in order, through the plans of the given instance.
+     * Reading a segment stops at its first torn or corrupted record, which is what a crash leaves behind.
+     * <p>
+     * Keys and values are only decoded into the enums and nested classes reachable from the declared
+     * source property types of each record's plan (see {@link ReachableClasses}).
+     *
+     * @param directory The directory holding the segment files
+     * @param nihil The instance whose plans the records are applied through
+     * @param targetResolver Function returning the object to update for a target class and key, or null to skip
+     * @param dependencies Additional objects needed for complex property handling
+     * @return The number of records applied
+     * @throws CodecException If a record with a valid checksum cannot be decoded
+     */
+    public static long replay(Path directory, Nihil nihil, BiFunction<Class<?>, Object, Object> targetResolver,
+                              Map<Class<?>, Object> dependencies) {
+        return replay(directory, nihil, targetResolver, dependencies, type -> false);
+    }
+
+    /**
+     * Re-applies every record of a journal directory, also allowing keys and values to be decoded into
+     * the given classes, e.g. subclasses of declared property types.
+     *
+     * @param directory The directory holding the segment files
+     * @param nihil The instance whose plans the records are applied through
+     * @param targetResolver Function returning the object to update for a target class and key, or null to skip
+     * @param dependencies Additional objects needed for complex property handling
+     * @param additionalClasses Classes allowed on top of those reachable from each plan
+     * @return The number of records applied
+     * @throws CodecException If a record with a valid checksum cannot be decoded
+     */
+    public static long replay(Path directory, Nihil nihil, BiFunction<Class<?>, Object, Object> targetResolver,
+                              Map<Class<?>, Object> dependencies, Predicate<Class<?>> additionalClasses) {
+        Map<UpdatePlan, Predicate<Class<?>>> allowed = new IdentityHashMap<>();
+        Function<UpdatePlan, Predicate<Class<?>>> allowList =
+                plan -> allowed.computeIfAbsent(plan, p -> ReachableClasses.of(p).or(additionalClasses));
+        long applied = 0;
+
+        try {
+            for (Map<Integer, List<Path>> session : sessions(directory).values()) {
+                PriorityQueue<LaneReader> readers = new PriorityQueue<>(Comparator.comparingLong(r -> r.sequence));
+                for (List<Path> laneSegments : session.values()) {
+                    LaneReader reader = new LaneReader(laneSegments.iterator());
+                    if (reader.advance()) {
+                        readers.add(reader);
+                    }
+                }
+
+                while (!readers.isEmpty()) {
+                    LaneReader reader = readers.poll();
+                    if (replayRecord(reader.payload, reader.codec, nihil, targetResolver, dependencies, allowList)) {
+                        applied++;
+                    }
+                    if (reader.advance()) {
+                        readers.add(reader);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal " + directory, e);
+        }
+        return applied;
+    }
+
+    /**
+     * Reads the records of one lane of a session, segment after segment, in sequence order.
+     */
+    private static final class LaneReader {
+        private final Iterator<Path> segments;
+        private final ValueCodec codec = new ValueCodec(Thread.currentThread().getContextClassLoader(), type -> false);
+        private final CRC32C crc = new CRC32C();
+
+        private ByteBuffer buffer;
+        private ByteBuffer payload;
+        private long sequence;
+
+        private LaneReader(Iterator<Path> segments) {
+            this.segments = segments;
+        }
+
+        /**
+         * Moves to the next intact record.
+         *
+         * @return False once every segment of the lane was read
+         */
+        boolean advance() throws IOException {
+            while (true) {
+                if (buffer != null && buffer.remaining() >= RECORD_HEADER_SIZE) {
+                    int position = buffer.position();
+                    int length = buffer.getInt();
+                    int checksum = buffer.getInt();
+                    if (length > Long.BYTES && length <= buffer.remaining()) {
+                        ByteBuffer record = buffer.slice(position + RECORD_HEADER_SIZE, length);
+                        crc.reset();
+                        crc.update(record.duplicate());
+                        if ((int) crc.getValue() == checksum) {
+                            buffer.position(position + RECORD_HEADER_SIZE + length);
+                            sequence = record.getLong();
+                            payload = record;
+                            return true;
+                        }
+                    }
+                }
+
+                if (!segments.hasNext()) {
+                    return false;
+                }
+                buffer = map(segments.next());
+                buffer.position(SEGMENT_HEADER_SIZE);
+                codec.reset();
+            }
+        }
+    }
+
+    private static boolean replayRecord(ByteBuffer payload, ValueCodec codec, Nihil nihil,
+                                        BiFunction<Class<?>, Object, Object> targetResolver,
+                                        Map<Class<?>, Object> dependencies,
+                                        Function<UpdatePlan, Predicate<Class<?>>> allowList) {
+        UpdatePlan plan;
+        Class<?> targetClass;
+        SlotValues values;
+        Object key;
+        try {
+            byte type = payload.get();
+            if (type != UPDATE_RECORD) {
+                throw new CodecException("Unknown journal record type: " + type);
+            }
+
+            Class<?> sourceClass = codec.readClass(payload);
+            targetClass = codec.readClass(payload);
+            long fingerprint = payload.getLong();
+
+            plan = nihil.plan(sourceClass, targetClass);
+            if (plan.fingerprint() != fingerprint) {
+                throw new CodecException("Journal was written with a different layout of " + plan);
+            }
+
+            Predicate<Class<?>> allowed = allowList.apply(plan);
+            key = codec.read(payload, allowed);
+
+            long count = ValueCodec.readVarLong(payload);
+            if (count < 0 || count > plan.size()) {
+                throw new CodecException("Journal record has " + count + " values, " + plan + " has "
+                        + plan.size() + " slots");
+            }
+            values = new SlotValues(plan.size());
+            for (int i = 0; i < count; i++) {
+                long slot = ValueCodec.readVarLong(payload);
+                if (slot < 0 || slot >= plan.size()) {
+                    throw new CodecException("Journal record references unknown slot " + slot + " of " + plan);
+                }
+                values.set((int) slot, codec.read(payload, allowed));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new CodecException("Journal record is truncated", e);
+        }
+
+        Object target = targetResolver.apply(targetClass, key);
+        if (target == null) {
+            return false;
+        }
+        nihil.apply(target, plan, values, dependencies);
+        return true;
+    }
+
+    /**
+     * Groups the segments of a directory by the session that wrote them, in order, then by lane.
+     */
+    private static TreeMap<Long, Map<Integer, List<Path>>> sessions(Path directory) throws IOException {
+        TreeMap<Long, Map<Integer, List<Path>>> sessions = new TreeMap<>();
+        for (Path file : segments(directory)) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                int read;
+                do {
+                    read = channel.read(header);
+                } while (read > 0 && header.hasRemaining());
+            }
+            header.flip();
+            if (header.remaining() < SEGMENT_HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new PropertyUpdateException("Not a journal segment: " + file);
+            }
+            if (header.getInt() != FORMAT_VERSION) {
+                throw new PropertyUpdateException("Unsupported journal format in " + file);
+            }
+            long session = header.getLong();
+            int laneIndex = header.getInt();
+            sessions.computeIfAbsent(session, s -> new TreeMap<>())
+                    .computeIfAbsent(laneIndex, l -> new ArrayList<>())
+                    .add(file);
+        }
+        return sessions;
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .toList());
+            // zero-padded sequence numbers sort lexicographically
+            segments.sort(null);
+            return segments;
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
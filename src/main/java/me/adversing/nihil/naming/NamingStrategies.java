@@ -0,0 +1,122 @@
+package me.adversing.nihil.naming;
+
+import me.adversing.nihil.intf.INamingStrategy;
+
+import java.util.List;
+
+/**
+ * Built-in {@link INamingStrategy naming strategies}. They compare by value, so configurations using equal
+ * strategies are equal and share one Nihil instance.
+ */
+public final class NamingStrategies {
+
+    private NamingStrategies() {}
+
+    /**
+     * @return The strategy turning {@code email_address} into {@code emailAddress}
+     */
+    public static INamingStrategy snakeToCamel() {
+        return Builtin.SNAKE_TO_CAMEL;
+    }
+
+    /**
+     * @return The strategy turning {@code emailAddress} into {@code email_address} and {@code userID} into {@code user_id}
+     */
+    public static INamingStrategy camelToSnake() {
+        return Builtin.CAMEL_TO_SNAKE;
+    }
+
+    /**
+     * Creates a strategy removing the first matching prefix, e.g. {@code m_email} or {@code mEmail} to {@code email}.
+     * Names that are nothing but a prefix are kept.
+     *
+     * @param prefixes The prefixes, tried in order
+     * @return The strategy
+     */
+    public static INamingStrategy stripPrefix(String... prefixes) {
+        return new StripPrefix(List.of(prefixes));
+    }
+
+    /**
+     * Combines two strategies, e.g. {@code chain(stripPrefix("m_"), snakeToCamel())} for {@code m_email_address}.
+     *
+     * @param first The strategy applied first
+     * @param next The strategy applied to its result
+     * @return The combined strategy
+     */
+    public static INamingStrategy chain(INamingStrategy first, INamingStrategy next) {
+        return new Chain(first, next);
+    }
+
+    private enum Builtin implements INamingStrategy {
+        SNAKE_TO_CAMEL {
+            @Override
+            public String targetProperty(String sourceProperty) {
+                StringBuilder name = new StringBuilder(sourceProperty.length());
+                boolean upper = false;
+                for (int i = 0; i < sourceProperty.length(); i++) {
+                    char c = sourceProperty.charAt(i);
+                    if (c == '_') {
+                        // leading underscores do not start a word
+                        upper = name.length() > 0;
+                    } else {
+                        name.append(upper ? Character.toUpperCase(c) : c);
+                        upper = false;
+                    }
+                }
+                return name.length() == 0 ? sourceProperty : name.toString();
+            }
+        },
+        CAMEL_TO_SNAKE {
+            @Override
+            public String targetProperty(String sourceProperty) {
+                StringBuilder name = new StringBuilder(sourceProperty.length() + 4);
+                for (int i = 0; i < sourceProperty.length(); i++) {
+                    char c = sourceProperty.charAt(i);
+                    if (Character.isUpperCase(c) && i > 0 && startsWord(sourceProperty, i)) {
+                        name.append('_');
+                    }
+                    name.append(Character.toLowerCase(c));
+                }
+                return name.toString();
+            }
+
+            // an upper-case letter starts a word after a lower-case one, or ends an acronym as in "IDCard"
+            private boolean startsWord(String name, int i) {
+                char previous = name.charAt(i - 1);
+                if (Character.isLowerCase(previous) || Character.isDigit(previous)) {
+                    return true;
+                }
+                return Character.isUpperCase(previous) && i + 1 < name.length()
+                        && Character.isLowerCase(name.charAt(i + 1));
+            }
+        }
+    }
+
+    private record StripPrefix(List<String> prefixes) implements INamingStrategy {
+        @Override
+        public String targetProperty(String sourceProperty) {
+            for (String prefix : prefixes) {
+                if (sourceProperty.length() > prefix.length() && sourceProperty.startsWith(prefix)) {
+                    return decapitalize(sourceProperty.substring(prefix.length()));
+                }
+            }
+            return sourceProperty;
+        }
+
+        // same rule as java.beans.Introspector: "URL" stays "URL", "Email" becomes "email"
+        private static String decapitalize(String name) {
+            if (name.length() > 1 && Character.isUpperCase(name.charAt(1))) {
+                return name;
+            }
+            return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+
+    private record Chain(INamingStrategy first, INamingStrategy next) implements INamingStrategy {
+        @Override
+        public String targetProperty(String sourceProperty) {
+            return next.targetProperty(first.targetProperty(sourceProperty));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package me.adversing.nihil.patch;
+
+import me.adversing.nihil.plan.SlotValues;
+
+import java.util.Map;
+
+/**
+ * Partial update of a target class held in slots, as a reflection-free alternative to a dedicated DTO class.
+ * Only properties that were set are applied, explicit nulls included.
+ *
+ * <pre>{@code
+ * Patch<User> patch = nihil.patch(User.class)
+ *         .set(EMAIL, "john@example.com")
+ *         .set("phoneNumber", null);
+ * patch.applyTo(user);
+ * }</pre>
+ *
+ * @param <T> Target type
+ */
+public final class Patch<T> extends SlotValues {
+    private final PatchLayout<T> layout;
+
+    Patch(PatchLayout<T> layout) {
+        super(layout.getPlan().size());
+        this.layout = layout;
+    }
+
+    public PatchLayout<T> getLayout() {
+        return layout;
+    }
+
+    public <V> Patch<T> set(PatchLayout.Property<T, V> property, V value) {
+        checkLayout(property);
+        set(property.slot(), value);
+        return this;
+    }
+
+    /**
+     * Sets a property by name, for dynamic callers; prefer a {@link PatchLayout.Property} kept in a constant.
+     *
+     * @throws IllegalArgumentException If the property does not exist or cannot hold the value
+     */
+    public Patch<T> set(String property, Object value) {
+        set(value == null ? layout.slotOf(property) : layout.checkedSlot(property, value.getClass()), value);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(PatchLayout.Property<T, V> property) {
+        checkLayout(property);
+        return (V) get(property.slot());
+    }
+
+    public boolean isSet(PatchLayout.Property<T, ?> property) {
+        checkLayout(property);
+        return isPresent(property.slot());
+    }
+
+    public Patch<T> unset(PatchLayout.Property<T, ?> property) {
+        checkLayout(property);
+        remove(property.slot());
+        return this;
+    }
+
+    /**
+     * Applies the set properties to a target through the layout's plan.
+     *
+     * @param target The object to update
+     * @return The updated target object
+     */
+    public T applyTo(T target) {
+        return applyTo(target, Map.of());
+    }
+
+    /**
+     * Applies the set properties to a target through the layout's plan.
+     *
+     * @param target The object to update
+     * @param dependencies Additional objects needed for property handlers declared on the target class
+     * @return The updated target object
+     */
+    public T applyTo(T target, Map<Class<?>, Object> dependencies) {
+        return layout.getNihil().apply(target, layout.getPlan(), this, dependencies);
+    }
+
+    private void checkLayout(PatchLayout.Property<T, ?> property) {
+        if (property.layout() != layout) {
+            throw new IllegalArgumentException("Property " + property.name() + " belongs to another layout");
+        }
+    }
+}
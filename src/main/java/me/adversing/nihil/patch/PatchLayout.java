@@ -0,0 +1,132 @@
+package me.adversing.nihil.patch;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.plan.PropertyPlan;
+import me.adversing.nihil.plan.UpdatePlan;
+
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Slot layout of a class used by {@link Patch}es targeting it.
+ * The layout is the class's plan onto itself, so every updatable property of the class gets a slot.
+ *
+ * @param <T> Target type
+ */
+public final class PatchLayout<T> {
+    private final Nihil nihil;
+    private final Class<T> targetClass;
+    private final UpdatePlan plan;
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    public PatchLayout(Nihil nihil, Class<T> targetClass) {
+        this.nihil = nihil;
+        this.targetClass = targetClass;
+        this.plan = nihil.plan(targetClass, targetClass);
+
+        for (PropertyPlan property : plan.properties()) {
+            slots.put(property.getSourceProperty(), property.getSlot());
+        }
+    }
+
+    public Class<T> getTargetClass() {
+        return targetClass;
+    }
+
+    public UpdatePlan getPlan() {
+        return plan;
+    }
+
+    Nihil getNihil() {
+        return nihil;
+    }
+
+    /**
+     * Resolves a property name to its slot.
+     *
+     * @param name The property name
+     * @return The slot
+     * @throws IllegalArgumentException If the class has no such updatable property
+     */
+    public int slotOf(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            throw new IllegalArgumentException("No updatable property " + name + " in " + targetClass.getName());
+        }
+        return slot;
+    }
+
+    /**
+     * Resolves a typed property handle, to be kept in a constant and reused by every patch.
+     *
+     * @param name The property name
+     * @param valueType The type of the property values
+     * @param <V> The value type
+     * @return The property handle
+     * @throws IllegalArgumentException If the property does not exist or cannot hold values of the given type
+     */
+    public <V> Property<T, V> property(String name, Class<V> valueType) {
+        return new Property<>(this, checkedSlot(name, valueType), name, valueType);
+    }
+
+    /**
+     * Resolves a property name to its slot, checking that the property can hold values of the given type.
+     *
+     * @throws IllegalArgumentException If the property does not exist or cannot hold values of the given type
+     */
+    int checkedSlot(String name, Class<?> valueType) {
+        int slot = slotOf(name);
+        Class<?> fieldType = wrap(plan.properties()[slot].getSourceField().getType());
+        if (!fieldType.isAssignableFrom(wrap(valueType))) {
+            throw new IllegalArgumentException("Property " + name + " of " + targetClass.getName()
+                    + " has type " + fieldType.getName() + ", not " + valueType.getName());
+        }
+        return slot;
+    }
+
+    public Patch<T> newPatch() {
+        return new Patch<>(this);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * Typed handle to one slot of a layout.
+     *
+     * @param <T> Target type
+     * @param <V> Value type
+     */
+    public static final class Property<T, V> {
+        private final PatchLayout<T> layout;
+        private final int slot;
+        private final String name;
+        private final Class<V> valueType;
+
+        // only created by the layout, which checked the slot and type
+        Property(PatchLayout<T> layout, int slot, String name, Class<V> valueType) {
+            this.layout = layout;
+            this.slot = slot;
+            this.name = name;
+            this.valueType = valueType;
+        }
+
+        public PatchLayout<T> layout() {
+            return layout;
+        }
+
+        public int slot() {
+            return slot;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Class<V> valueType() {
+            return valueType;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.annotation.NotBlank;
+import me.adversing.nihil.annotation.Pattern;
+import me.adversing.nihil.annotation.Range;
+import me.adversing.nihil.annotation.Satisfies;
+import me.adversing.nihil.annotation.Size;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Compiles the constraint annotations of a source field into checks run on the value an update is about to write.
+ */
+final class Constraints {
+
+    /**
+     * A compiled constraint.
+     */
+    @FunctionalInterface
+    interface Constraint {
+        /**
+         * @return The violation message, or null if the value is valid
+         */
+        String check(Object value);
+    }
+
+    private Constraints() {}
+
+    /**
+     * @return The constraints declared on the field, or null if it has none
+     */
+    static Constraint[] compile(Field field) {
+        List<Constraint> constraints = new ArrayList<>();
+
+        NotBlank notBlank = field.getAnnotation(NotBlank.class);
+        if (notBlank != null) {
+            String message = message(notBlank.message(), "must not be blank");
+            constraints.add(value -> value instanceof CharSequence text && !isBlank(text) ? null : message);
+        }
+
+        Size size = field.getAnnotation(Size.class);
+        if (size != null) {
+            int min = size.min();
+            int max = size.max();
+            String message = message(size.message(), "size must be between " + min + " and " + max);
+            constraints.add(value -> {
+                int length = length(value);
+                return length < 0 || length >= min && length <= max ? null : message;
+            });
+        }
+
+        Range range = field.getAnnotation(Range.class);
+        if (range != null) {
+            long min = range.min();
+            long max = range.max();
+            String message = message(range.message(), "must be between " + min + " and " + max);
+            constraints.add(value -> !(value instanceof Number number) || inRange(number, min, max) ? null : message);
+        }
+
+        Pattern pattern = field.getAnnotation(Pattern.class);
+        if (pattern != null) {
+            java.util.regex.Pattern compiled = java.util.regex.Pattern.compile(pattern.regexp());
+            String message = message(pattern.message(), "must match " + pattern.regexp());
+            constraints.add(value -> !(value instanceof CharSequence text) || compiled.matcher(text).matches()
+                    ? null : message);
+        }
+
+        Satisfies satisfies = field.getAnnotation(Satisfies.class);
+        if (satisfies != null) {
+            Predicate<Object> predicate = instantiate(satisfies.value());
+            String message = message(satisfies.message(), "must satisfy " + satisfies.value().getSimpleName());
+            constraints.add(value -> predicate.test(value) ? null : message);
+        }
+
+        return constraints.isEmpty() ? null : constraints.toArray(new Constraint[0]);
+    }
+
+    private static String message(String declared, String fallback) {
+        return declared.isEmpty() ? fallback : declared;
+    }
+
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The length of a sized value, or -1 if the value is null or has no size
+     */
+    private static int length(Object value) {
+        if (value instanceof CharSequence text) {
+            return text.length();
+        } else if (value instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            return map.size();
+        } else if (value != null && value.getClass().isArray()) {
+            return Array.getLength(value);
+        }
+        return -1;
+    }
+
+    private static boolean inRange(Number number, long min, long max) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal.compareTo(BigDecimal.valueOf(min)) >= 0 && decimal.compareTo(BigDecimal.valueOf(max)) <= 0;
+        } else if (number instanceof BigInteger integer) {
+            return integer.compareTo(BigInteger.valueOf(min)) >= 0 && integer.compareTo(BigInteger.valueOf(max)) <= 0;
+        } else if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            return value >= min && value <= max;
+        }
+        long value = number.longValue();
+        return value >= min && value <= max;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<Object> instantiate(Class<? extends Predicate<?>> predicateClass) {
+        try {
+            Constructor<? extends Predicate<?>> constructor = predicateClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return (Predicate<Object>) constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot instantiate predicate: " + predicateClass.getName(), e);
+        }
+    }
+}
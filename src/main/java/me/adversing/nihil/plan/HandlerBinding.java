@@ -0,0 +1,85 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.annotation.Dependency;
+import me.adversing.nihil.intf.IPropertyHandler;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A property handler class resolved once: its constructor and {@link Dependency} fields are looked up when the
+ * plan is compiled, and a handler without instance state is created once and shared by every update.
+ */
+public final class HandlerBinding {
+    private final Class<? extends IPropertyHandler> handlerClass;
+    private final Constructor<? extends IPropertyHandler> constructor;
+    private final Field[] dependencyFields;
+    private final IPropertyHandler<Object> shared;
+
+    @SuppressWarnings("unchecked")
+    HandlerBinding(Class<? extends IPropertyHandler> handlerClass) {
+        this.handlerClass = handlerClass;
+        try {
+            this.constructor = handlerClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Handler needs a no-argument constructor: " + handlerClass.getName(), e);
+        }
+
+        List<Field> dependencies = new ArrayList<>();
+        boolean stateless = true;
+        for (Field field : handlerClass.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            stateless = false;
+            if (field.isAnnotationPresent(Dependency.class)) {
+                field.setAccessible(true);
+                dependencies.add(field);
+            }
+        }
+        this.dependencyFields = dependencies.toArray(new Field[0]);
+
+        // a handler with instance fields may keep per-call state, so only field-less handlers are shared
+        IPropertyHandler<Object> instance = null;
+        if (stateless && handlerClass.getSuperclass() == Object.class) {
+            try {
+                instance = constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Cannot instantiate handler: " + handlerClass.getName(), e);
+            }
+        }
+        this.shared = instance;
+    }
+
+    public Class<? extends IPropertyHandler> getHandlerClass() {
+        return handlerClass;
+    }
+
+    /**
+     * Returns the handler to call for one update: the shared instance, or a new one with its dependencies injected.
+     *
+     * @param dependencies The dependencies of the update, by type
+     * @return The handler
+     * @throws ReflectiveOperationException If the handler cannot be created or injected
+     */
+    @SuppressWarnings("unchecked")
+    public IPropertyHandler<Object> instance(Map<Class<?>, Object> dependencies) throws ReflectiveOperationException {
+        if (shared != null) {
+            return shared;
+        }
+
+        IPropertyHandler<Object> handler = constructor.newInstance();
+        for (Field field : dependencyFields) {
+            Object dependency = dependencies.get(field.getType());
+            if (dependency != null) {
+                field.set(handler, dependency);
+            }
+        }
+        return handler;
+    }
+}
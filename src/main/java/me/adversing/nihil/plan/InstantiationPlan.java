@@ -0,0 +1,154 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.exception.PropertyUpdateException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cached way of creating instances of a target class for mapping.
+ * A configured factory wins; records are created through their canonical constructor, other classes through
+ * their no-argument constructor, each resolved to a method handle once.
+ *
+ * @param <T> Target type
+ */
+public final class InstantiationPlan<T> {
+    private final Class<T> type;
+    private final Supplier<? extends T> factory;
+    private final MethodHandle constructor;
+    private final RecordComponent[] components;
+    private final Object[] componentDefaults;
+    private final Map<UpdatePlan, int[]> componentsBySlot = new ConcurrentHashMap<>();
+
+    private InstantiationPlan(Class<T> type, Supplier<? extends T> factory, MethodHandle constructor,
+                              RecordComponent[] components) {
+        this.type = type;
+        this.factory = factory;
+        this.constructor = constructor;
+        this.components = components;
+        this.componentDefaults = new Object[components == null ? 0 : components.length];
+
+        for (int i = 0; i < componentDefaults.length; i++) {
+            Class<?> componentType = components[i].getType();
+            // primitives cannot be passed as null, the array trick yields their zero value
+            componentDefaults[i] = componentType.isPrimitive() ? Array.get(Array.newInstance(componentType, 1), 0) : null;
+        }
+    }
+
+    /**
+     * Compiles the instantiation plan of a class.
+     *
+     * @param type The class to instantiate
+     * @param factory A configured factory, or null to use a constructor
+     * @return The plan
+     * @throws PropertyUpdateException If the class has neither a factory nor a usable constructor
+     */
+    public static <T> InstantiationPlan<T> compile(Class<T> type, Supplier<? extends T> factory) {
+        if (factory != null) {
+            return new InstantiationPlan<>(type, factory, null, null);
+        }
+
+        try {
+            Constructor<?> constructor;
+            RecordComponent[] components = null;
+            if (type.isRecord()) {
+                components = type.getRecordComponents();
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    parameterTypes[i] = components[i].getType();
+                }
+                constructor = type.getDeclaredConstructor(parameterTypes);
+            } else {
+                constructor = type.getDeclaredConstructor();
+            }
+            constructor.setAccessible(true);
+
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+            handle = components == null
+                    ? handle.asType(MethodType.methodType(Object.class))
+                    : handle.asSpreader(Object[].class, components.length)
+                            .asType(MethodType.methodType(Object.class, Object[].class));
+            return new InstantiationPlan<>(type, null, handle, components);
+        } catch (ReflectiveOperationException e) {
+            throw new PropertyUpdateException("No factory or usable constructor to instantiate " + type.getName(), e);
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return True if instances are created from all their values at once, i.e. the type is a record
+     */
+    public boolean isConstructorBound() {
+        return components != null;
+    }
+
+    /**
+     * Creates an empty instance to be populated afterwards.
+     */
+    public T newInstance() {
+        if (factory != null) {
+            return factory.get();
+        }
+
+        try {
+            return type.cast((Object) constructor.invokeExact());
+        } catch (Throwable e) {
+            throw new PropertyUpdateException("Error instantiating " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Returns a fresh argument array for the canonical constructor, holding each component's default value.
+     */
+    public Object[] newArguments() {
+        return componentDefaults.clone();
+    }
+
+    /**
+     * Maps the slots of a plan onto the constructor arguments they feed, resolved once per plan.
+     *
+     * @param plan A plan targeting this type
+     * @return The component index of each slot, or -1 if the slot matches no component
+     */
+    public int[] componentsBySlot(UpdatePlan plan) {
+        int[] indexes = componentsBySlot.get(plan);
+        if (indexes != null) {
+            return indexes;
+        }
+
+        PropertyPlan[] properties = plan.properties();
+        int[] resolved = new int[properties.length];
+        for (PropertyPlan property : properties) {
+            resolved[property.getSlot()] = -1;
+            for (int i = 0; i < components.length; i++) {
+                if (components[i].getName().equals(property.getTargetProperty())) {
+                    resolved[property.getSlot()] = i;
+                    break;
+                }
+            }
+        }
+        componentsBySlot.put(plan, resolved);
+        return resolved;
+    }
+
+    /**
+     * Creates an instance from its constructor arguments.
+     */
+    public T newInstance(Object[] arguments) {
+        try {
+            return type.cast((Object) constructor.invokeExact(arguments));
+        } catch (Throwable e) {
+            throw new PropertyUpdateException("Error instantiating " + type.getName(), e);
+        }
+    }
+}
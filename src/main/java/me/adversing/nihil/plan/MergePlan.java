@@ -0,0 +1,91 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.util.VersionStamp;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+/**
+ * Compiled description of how several sources, possibly of different classes, are merged onto one target class.
+ * Every target property written by any of the sources gets a merged index, so the winning value of each
+ * property can be resolved before anything is written.
+ */
+public final class MergePlan {
+    private final Class<?> targetClass;
+    private final UpdatePlan[] plans;
+    private final int[][] indexBySlot;
+    private final String[] targetProperties;
+
+    MergePlan(Class<?> targetClass, UpdatePlan[] plans, int[][] indexBySlot, String[] targetProperties) {
+        this.targetClass = targetClass;
+        this.plans = plans;
+        this.indexBySlot = indexBySlot;
+        this.targetProperties = targetProperties;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * @return The number of sources merged
+     */
+    public int sources() {
+        return plans.length;
+    }
+
+    /**
+     * @param source The position of the source, lowest precedence first
+     * @return The plan of that source
+     */
+    public UpdatePlan plan(int source) {
+        return plans[source];
+    }
+
+    /**
+     * @return The number of distinct target properties written by the sources
+     */
+    public int size() {
+        return targetProperties.length;
+    }
+
+    /**
+     * Maps a slot of one source's plan to the merged index of the target property it writes.
+     *
+     * @param source The position of the source
+     * @param slot The slot in that source's plan
+     * @return The merged index
+     */
+    public int index(int source, int slot) {
+        return indexBySlot[source][slot];
+    }
+
+    /**
+     * @param index The merged index
+     * @return The target property it stands for
+     */
+    public String targetProperty(int index) {
+        return targetProperties[index];
+    }
+
+    /**
+     * @return The target field holding the version, or null if no version property is configured or found
+     */
+    public Field getTargetVersionField() {
+        return plans[0].getTargetVersionField();
+    }
+
+    /**
+     * @return Compare-and-set access to the target version, or null unless updates are optimistic and the
+     * target has a version field
+     */
+    public VersionStamp getTargetVersion() {
+        return plans[0].getTargetVersion();
+    }
+
+    @Override
+    public String toString() {
+        return "MergePlan" + Arrays.stream(plans).map(plan -> plan.getSourceClass().getName()).toList()
+                + " -> " + targetClass.getName();
+    }
+}
@@ -0,0 +1,508 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.annotation.Intern;
+import me.adversing.nihil.annotation.UpdateProperty;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.handler.DefaultPropertyHandler;
+import me.adversing.nihil.intf.INamingStrategy;
+import me.adversing.nihil.intf.IPropertyHandler;
+import me.adversing.nihil.jfr.NihilEvents;
+import me.adversing.nihil.jfr.PlanCompilationEvent;
+import me.adversing.nihil.stats.StatsRecorder;
+import me.adversing.nihil.util.InternTable;
+import me.adversing.nihil.util.PresenceMasks;
+import me.adversing.nihil.util.ReflectionUtils;
+import me.adversing.nihil.util.VersionStamp;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles {@link UpdatePlan}s for a given configuration.
+ * All class scanning happens here, so the update path only walks precomputed slots.
+ */
+public final class PlanCompiler {
+
+    private final NihilConfig config;
+    private final StatsRecorder stats;
+    // handlers are resolved once per class and shared by every property and plan using them
+    private final Map<Class<? extends IPropertyHandler>, HandlerBinding> handlerBindings = new ConcurrentHashMap<>();
+    // created with the first interned property, so configurations without interning never allocate it
+    private InternTable internTable;
+
+    public PlanCompiler(NihilConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * @param config The configuration
+     * @param stats The recorder counting metadata lookups, or null if statistics are disabled
+     */
+    public PlanCompiler(NihilConfig config, StatsRecorder stats) {
+        this.config = config;
+        this.stats = stats;
+    }
+
+    /**
+     * Compiles the plan for applying sources of one class onto targets of another.
+     *
+     * @param sourceClass The source class
+     * @param targetClass The target class
+     * @return The compiled plan
+     */
+    public UpdatePlan compile(Class<?> sourceClass, Class<?> targetClass) {
+        return compile(sourceClass, targetClass, Map.of());
+    }
+
+    /**
+     * Compiles a plan whose source properties are redirected to other target properties.
+     * A mapping overrides both the property's own name and its {@link UpdateProperty#targetProperty()}.
+     *
+     * @param sourceClass The source class
+     * @param targetClass The target class
+     * @param mappings Target property by source property
+     * @return The compiled plan
+     * @throws IllegalArgumentException If a mapped source property is not updated from the source class
+     */
+    public UpdatePlan compile(Class<?> sourceClass, Class<?> targetClass, Map<String, String> mappings) {
+        PlanCompilationEvent event = NihilEvents.beginCompilation();
+        UpdatePlan plan = doCompile(sourceClass, targetClass, mappings);
+        for (String sourceProperty : mappings.keySet()) {
+            if (plan.sourceSlot(sourceProperty) < 0) {
+                throw new IllegalArgumentException("Mapped property '" + sourceProperty
+                        + "' is not updated from " + sourceClass.getName());
+            }
+        }
+        NihilEvents.commitCompilation(event, sourceClass, targetClass, plan.size());
+        return plan;
+    }
+
+    /**
+     * Compiles the merge of already compiled plans sharing one target class.
+     *
+     * @param plans The plans of the merged sources, lowest precedence first
+     * @return The compiled merge
+     * @throws IllegalArgumentException If no plan is given or the plans target different classes
+     */
+    public MergePlan compileMerge(UpdatePlan... plans) {
+        if (plans.length == 0) {
+            throw new IllegalArgumentException("At least one plan is required");
+        }
+
+        Class<?> targetClass = plans[0].getTargetClass();
+        Map<String, Integer> indexByProperty = new LinkedHashMap<>();
+        int[][] indexBySlot = new int[plans.length][];
+
+        for (int source = 0; source < plans.length; source++) {
+            UpdatePlan plan = plans[source];
+            if (plan.getTargetClass() != targetClass) {
+                throw new IllegalArgumentException("Merged plans must share a target class: "
+                        + targetClass.getName() + " and " + plan.getTargetClass().getName());
+            }
+
+            PropertyPlan[] properties = plan.properties();
+            indexBySlot[source] = new int[properties.length];
+            for (PropertyPlan property : properties) {
+                indexBySlot[source][property.getSlot()] = indexByProperty.computeIfAbsent(
+                        property.getTargetProperty(), name -> indexByProperty.size());
+            }
+        }
+
+        return new MergePlan(targetClass, plans.clone(), indexBySlot, indexByProperty.keySet().toArray(String[]::new));
+    }
+
+    private UpdatePlan doCompile(Class<?> sourceClass, Class<?> targetClass, Map<String, String> mappings) {
+        String versionProperty = config.getVersionProperty();
+        INamingStrategy namingStrategy = config.getNamingStrategy();
+        Map<NihilConfig.TypePair, Class<? extends IPropertyHandler>> handlers = config.getHandlers();
+        Class<?> userClass = userClass(sourceClass);
+        Field presenceField = PresenceMasks.findMaskField(userClass);
+        List<PropertyPlan> properties = new ArrayList<>();
+        Field sourceVersionField = null;
+
+        for (Field field : sourceFields(sourceClass)) {
+            Method accessor = config.getReadStrategy() == NihilConfig.ReadStrategy.FIELD
+                    ? null
+                    : sourceAccessor(sourceClass, field);
+            if (field.equals(presenceField) || skipReason(field, accessor) != null) {
+                continue;
+            }
+
+            field.setAccessible(true);
+            UpdateProperty annotation = field.getAnnotation(UpdateProperty.class);
+
+            String targetProperty = field.getName();
+            if (annotation != null && !annotation.targetProperty().isEmpty()) {
+                targetProperty = annotation.targetProperty();
+            } else if (namingStrategy != null) {
+                targetProperty = namingStrategy.targetProperty(targetProperty);
+            }
+            targetProperty = mappings.getOrDefault(field.getName(), targetProperty);
+
+            // the version is never copied from a source, it only carries the expected value
+            if (targetProperty.equals(versionProperty)) {
+                sourceVersionField = field;
+                continue;
+            }
+
+            Field targetField = accessibleField(targetClass, targetProperty);
+            Class<? extends IPropertyHandler> handlerClass = null;
+            if (annotation != null && !annotation.handler().equals(DefaultPropertyHandler.class)) {
+                handlerClass = annotation.handler();
+            } else if (!handlers.isEmpty()) {
+                Type targetType = targetType(targetClass, targetProperty, targetField);
+                if (targetType != null) {
+                    handlerClass = handlers.get(new NihilConfig.TypePair(field.getGenericType(), targetType));
+                }
+            }
+
+            properties.add(new PropertyPlan(
+                    properties.size(),
+                    field,
+                    accessor,
+                    accessor == null ? null : reader(accessor),
+                    targetProperty,
+                    targetClass,
+                    targetField,
+                    handlerClass == null ? null : handlerBinding(handlerClass),
+                    field.isAnnotationPresent(Intern.class) || config.getInternedProperties().contains(field.getName())
+                            ? internTable()
+                            : null,
+                    annotation != null && annotation.includeNull(),
+                    annotation != null && annotation.includeNull() || !config.isIgnoreNull(),
+                    stats,
+                    config.getAccessStrategy()
+            ));
+        }
+
+        Field targetVersionField = versionProperty == null ? null : accessibleField(targetClass, versionProperty);
+
+        int[] slotByBit = presenceField == null ? new int[0] : slotsByBit(userClass, properties);
+
+        return new UpdatePlan(sourceClass, targetClass, properties.toArray(new PropertyPlan[0]),
+                sourceVersionField, targetVersionField, versionStamp(targetVersionField), presenceField, slotByBit);
+    }
+
+    /**
+     * Resolves the version of a target class for optimistic updates.
+     *
+     * @param targetClass The target class
+     * @return Compare-and-set access to its version, or null unless updates are optimistic and the class has
+     * a version field
+     */
+    public VersionStamp versionStamp(Class<?> targetClass) {
+        String versionProperty = config.getVersionProperty();
+        return versionProperty == null ? null : versionStamp(accessibleField(targetClass, versionProperty));
+    }
+
+    private VersionStamp versionStamp(Field versionField) {
+        return versionField == null || config.getConcurrencyMode() != NihilConfig.ConcurrencyMode.OPTIMISTIC
+                ? null
+                : VersionStamp.of(versionField);
+    }
+
+    /**
+     * The declared type of a target property: its field's, or else the parameter type of its only setter.
+     */
+    private static Type targetType(Class<?> targetClass, String targetProperty, Field targetField) {
+        if (targetField != null) {
+            return targetField.getGenericType();
+        }
+
+        String setterName = ReflectionUtils.setterName(targetProperty);
+        Method setter = null;
+        for (Method method : targetClass.getMethods()) {
+            if (method.getName().equals(setterName) && method.getParameterCount() == 1) {
+                if (setter != null) {
+                    return null;
+                }
+                setter = method;
+            }
+        }
+        return setter == null ? null : setter.getGenericParameterTypes()[0];
+    }
+
+    private HandlerBinding handlerBinding(Class<? extends IPropertyHandler> handlerClass) {
+        HandlerBinding binding = handlerBindings.get(handlerClass);
+        if (binding == null) {
+            binding = handlerBindings.computeIfAbsent(handlerClass, HandlerBinding::new);
+        }
+        return binding;
+    }
+
+    private synchronized InternTable internTable() {
+        if (internTable == null) {
+            internTable = new InternTable(config.getInternCapacity());
+        }
+        return internTable;
+    }
+
+    private int[] slotsByBit(Class<?> sourceClass, List<PropertyPlan> properties) {
+        Field[] bitFields = PresenceMasks.bitFields(sourceClass);
+        int[] slotByBit = new int[bitFields.length];
+
+        for (int bit = 0; bit < bitFields.length; bit++) {
+            slotByBit[bit] = -1;
+            for (PropertyPlan property : properties) {
+                if (property.getSourceField().equals(bitFields[bit])) {
+                    slotByBit[bit] = property.getSlot();
+                    break;
+                }
+            }
+        }
+        return slotByBit;
+    }
+
+    /**
+     * Skips the subclasses generated at runtime for a class, such as lazy-loading proxies, whose declared
+     * fields are their own bookkeeping rather than properties.
+     *
+     * @return The first class of the hierarchy written by hand
+     */
+    private static Class<?> userClass(Class<?> type) {
+        Class<?> userClass = type;
+        while (isGenerated(userClass) && userClass.getSuperclass() != null
+                && userClass.getSuperclass() != Object.class) {
+            userClass = userClass.getSuperclass();
+        }
+        return userClass;
+    }
+
+    // the naming conventions of CGLIB, Hibernate and ByteBuddy proxies
+    private static boolean isGenerated(Class<?> type) {
+        String name = type.getName();
+        return type.isSynthetic() || name.contains("$$") || name.contains("$HibernateProxy$")
+                || name.contains("$ByteBuddy$");
+    }
+
+    private static boolean isPlatformClass(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        return loader == null || loader == ClassLoader.getPlatformClassLoader();
+    }
+
+    /**
+     * The fields of a source, inherited ones first. A field hidden by one of the same name in a subclass is
+     * left out, so every property is read once.
+     */
+    private static List<Field> sourceFields(Class<?> sourceClass) {
+        Class<?> userClass = userClass(sourceClass);
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> type = userClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            // the state of platform superclasses is not made of properties, nor accessible
+            if (type != userClass && isPlatformClass(type)) {
+                break;
+            }
+            hierarchy.add(0, type);
+        }
+
+        List<Field> fields = new ArrayList<>();
+        Map<String, Integer> indexByName = new HashMap<>();
+        for (Class<?> type : hierarchy) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    Integer hidden = indexByName.put(field.getName(), fields.size());
+                    if (hidden != null) {
+                        fields.set(hidden, null);
+                    }
+                }
+                fields.add(field);
+            }
+        }
+        fields.removeIf(Objects::isNull);
+        return fields;
+    }
+
+    /**
+     * The record accessor or getter a source field is read through: it must be accessible and return a
+     * value the field's type can hold, so handlers and constraints keep seeing the declared field type.
+     *
+     * @return The accessor, or null if the field has none
+     */
+    private static Method sourceAccessor(Class<?> sourceClass, Field field) {
+        Method accessor = null;
+        if (sourceClass.isRecord()) {
+            for (RecordComponent component : sourceClass.getRecordComponents()) {
+                if (component.getName().equals(field.getName())) {
+                    accessor = component.getAccessor();
+                }
+            }
+        } else {
+            // looked up on the class written by hand, so a getter declared below the field's class is found too
+            accessor = ReflectionUtils.findGetter(userClass(sourceClass), field.getName()).orElse(null);
+        }
+
+        if (accessor == null || !wrap(field.getType()).isAssignableFrom(wrap(accessor.getReturnType()))
+                || !accessor.trySetAccessible()) {
+            return null;
+        }
+        return accessor;
+    }
+
+    /**
+     * @return The accessor as a handle of type {@code (Object)Object}, so reads never go through
+     * {@code Method.invoke}
+     */
+    private static MethodHandle reader(Method accessor) {
+        try {
+            return MethodHandles.lookup().unreflect(accessor)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Accessor " + accessor + " is not accessible", e);
+        }
+    }
+
+    /**
+     * Determines if a field should be processed based on configuration.
+     *
+     * @return Why the field is skipped, or null if it is processed
+     */
+    private String skipReason(Field field, Method accessor) {
+        if (config.getIgnoredProperties().contains(field.getName())) {
+            return "ignored by configuration";
+        }
+
+        int modifiers = field.getModifiers();
+
+        if (Modifier.isStatic(modifiers)) {
+            return "static";
+        }
+        // record components are final but read like any other property
+        if (Modifier.isFinal(modifiers) && !field.getDeclaringClass().isRecord()) {
+            return "final";
+        }
+        if (Modifier.isTransient(modifiers) && !config.isIncludeTransient()) {
+            return "transient";
+        }
+        return config.getReadStrategy() == NihilConfig.ReadStrategy.METHOD && accessor == null
+                ? "no accessor"
+                : null;
+    }
+
+    /**
+     * Describes how a compiled plan reads and writes each property, resolving the setter or field the update path
+     * binds for the declared source type.
+     *
+     * @param plan The compiled plan
+     * @return The explanation
+     */
+    public PlanExplanation explain(UpdatePlan plan) {
+        Class<?> sourceClass = plan.getSourceClass();
+        Class<?> targetClass = plan.getTargetClass();
+
+        List<PlanExplanation.Property> properties = new ArrayList<>();
+        Set<String> written = new HashSet<>();
+        for (PropertyPlan property : plan.properties()) {
+            properties.add(explain(property, targetClass));
+            written.add(property.getTargetProperty());
+        }
+
+        List<PlanExplanation.Ignored> ignored = new ArrayList<>();
+        for (Field field : sourceFields(sourceClass)) {
+            Method accessor = config.getReadStrategy() == NihilConfig.ReadStrategy.METHOD
+                    ? sourceAccessor(sourceClass, field)
+                    : null;
+            String reason = skipReason(field, accessor);
+            if (reason == null && field.equals(plan.getPresenceField())) {
+                reason = "presence mask";
+            } else if (reason == null && field.equals(plan.getSourceVersionField())) {
+                reason = "expected version";
+            }
+            if (reason != null && !field.isSynthetic()) {
+                ignored.add(new PlanExplanation.Ignored(field.getName(), reason));
+            }
+        }
+
+        List<String> unwritten = new ArrayList<>();
+        for (Class<?> type = targetClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()
+                        && !field.getName().equals(config.getVersionProperty()) && written.add(field.getName())) {
+                    unwritten.add(field.getName());
+                }
+            }
+        }
+
+        return new PlanExplanation(sourceClass, targetClass, List.copyOf(properties), List.copyOf(ignored),
+                List.copyOf(unwritten));
+    }
+
+    private PlanExplanation.Property explain(PropertyPlan property, Class<?> targetClass) {
+        NihilConfig.AccessStrategy strategy = config.getAccessStrategy();
+        // a handler's output type is only known at runtime, so any setter or field is assumed to accept it
+        Class<?> valueClass = property.hasHandler() ? null : wrap(property.getSourceField().getType());
+        String setterName = ReflectionUtils.setterName(property.getTargetProperty());
+        Method anySetter = strategy == NihilConfig.AccessStrategy.FIELD ? null : anySetter(targetClass, setterName);
+
+        PlanExplanation.Access access = PlanExplanation.Access.NONE;
+        Member writer = null;
+        String problem = null;
+
+        Method setter = valueClass == null ? anySetter : anySetter == null ? null : property.setterFor(valueClass);
+        Field field = strategy == NihilConfig.AccessStrategy.METHOD ? null : property.getTargetField();
+        if (setter != null) {
+            access = PlanExplanation.Access.SETTER;
+            writer = setter;
+        } else if (field != null) {
+            access = PlanExplanation.Access.FIELD;
+            writer = field;
+            if (valueClass != null && !wrap(field.getType()).isAssignableFrom(valueClass)) {
+                problem = "field of type " + field.getType().getName() + " cannot hold " + valueClass.getName();
+            }
+        } else if (anySetter != null) {
+            problem = setterName + "(" + anySetter.getParameterTypes()[0].getName() + ") does not accept "
+                    + valueClass.getName();
+        } else {
+            problem = switch (strategy) {
+                case METHOD -> "no setter " + setterName + " on " + targetClass.getSimpleName();
+                case FIELD -> "no field " + property.getTargetProperty() + " on " + targetClass.getSimpleName();
+                case AUTO -> "no setter or field for " + property.getTargetProperty() + " on "
+                        + targetClass.getSimpleName();
+            };
+        }
+
+        return new PlanExplanation.Property(property.getSlot(), property.getSourceProperty(),
+                property.getSourceField().getGenericType(), property.getSourceAccessor(), property.getTargetProperty(),
+                access, writer, property.getHandlerClass(), property.isInterned(), property.hasConstraints(), problem);
+    }
+
+    private static Method anySetter(Class<?> targetClass, String setterName) {
+        for (Method method : targetClass.getMethods()) {
+            if (method.getName().equals(setterName) && method.getParameterCount() == 1) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private Field accessibleField(Class<?> clazz, String name) {
+        NihilEvents.cacheMiss("field", clazz, name, null);
+        if (stats != null) {
+            stats.metadataLookup(false);
+        }
+        Field field = ReflectionUtils.findField(clazz, name).orElse(null);
+        if (field != null) {
+            field.setAccessible(true);
+        }
+        return field;
+    }
+}
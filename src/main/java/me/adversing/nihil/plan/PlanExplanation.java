@@ -0,0 +1,127 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.intf.IPropertyHandler;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Human and machine readable description of a compiled {@link UpdatePlan}, as returned by
+ * {@code Nihil.explain}: how each property is read and written, and which source fields and target properties
+ * take part in no update.
+ *
+ * @param sourceClass The source class
+ * @param targetClass The target class
+ * @param properties The compiled properties, by slot
+ * @param ignored The source fields no update reads
+ * @param unwrittenTargetProperties The target fields no source property writes
+ */
+public record PlanExplanation(Class<?> sourceClass, Class<?> targetClass, List<Property> properties,
+                              List<Ignored> ignored, List<String> unwrittenTargetProperties) {
+
+    /**
+     * How a property reaches the target.
+     */
+    public enum Access {
+        /**
+         * Through a setter method.
+         */
+        SETTER,
+
+        /**
+         * Through direct field access.
+         */
+        FIELD,
+
+        /**
+         * Not at all: updates silently skip the property.
+         */
+        NONE
+    }
+
+    /**
+     * @param slot The property's slot in the plan
+     * @param sourceProperty The source field name
+     * @param sourceType The declared type of the source field
+     * @param reader The getter or record accessor the value is read through, or null if the field is read
+     * @param targetProperty The target property written
+     * @param access How the value reaches the target
+     * @param writer The setter or field written, or null if the access is {@link Access#NONE}
+     * @param handler The handler converting the value, or null if it is written unchanged
+     * @param interned True if written values are interned
+     * @param constrained True if the source field declares constraints
+     * @param problem Why the property is not written as declared, or null if it is
+     */
+    public record Property(int slot, String sourceProperty, Type sourceType, Method reader, String targetProperty,
+                           Access access, Member writer, Class<? extends IPropertyHandler> handler, boolean interned,
+                           boolean constrained, String problem) {
+
+        public boolean isValid() {
+            return problem == null;
+        }
+    }
+
+    /**
+     * @param property The source field name
+     * @param reason Why the field is not read
+     */
+    public record Ignored(String property, String reason) {}
+
+    /**
+     * @return The properties that are never written or whose declared type the target cannot hold
+     */
+    public List<Property> unmatched() {
+        return properties.stream().filter(property -> !property.isValid()).toList();
+    }
+
+    /**
+     * @return True if every compiled property reaches the target
+     */
+    public boolean isValid() {
+        for (Property property : properties) {
+            if (!property.isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder()
+                .append(sourceClass.getName()).append(" -> ").append(targetClass.getName()).append('\n');
+
+        for (Property property : properties) {
+            text.append("  ").append(property.sourceProperty()).append(" -> ").append(property.targetProperty())
+                    .append(": ").append(property.access());
+            if (property.writer() != null) {
+                text.append(' ').append(property.writer().getName());
+            }
+            if (property.reader() != null) {
+                text.append(", read by ").append(property.reader().getName()).append("()");
+            }
+            if (property.handler() != null) {
+                text.append(", handler ").append(property.handler().getSimpleName());
+            }
+            if (property.interned()) {
+                text.append(", interned");
+            }
+            if (property.constrained()) {
+                text.append(", validated");
+            }
+            if (property.problem() != null) {
+                text.append(" [").append(property.problem()).append(']');
+            }
+            text.append('\n');
+        }
+        for (Ignored ignored : ignored) {
+            text.append("  ignored ").append(ignored.property()).append(": ").append(ignored.reason()).append('\n');
+        }
+        if (!unwrittenTargetProperties.isEmpty()) {
+            text.append("  not written: ").append(String.join(", ", unwrittenTargetProperties)).append('\n');
+        }
+        return text.toString();
+    }
+}
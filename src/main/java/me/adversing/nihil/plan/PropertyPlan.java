@@ -0,0 +1,386 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.intf.IPropertyHandler;
+import me.adversing.nihil.jfr.NihilEvents;
+import me.adversing.nihil.stats.StatsRecorder;
+import me.adversing.nihil.util.InternTable;
+import me.adversing.nihil.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled metadata for a single source property of an {@link UpdatePlan}.
+ * Everything that does not depend on the runtime value is resolved once, when the plan is compiled.
+ */
+public final class PropertyPlan {
+    private final int slot;
+    private final Field sourceField;
+    private final Method sourceAccessor;
+    private final MethodHandle sourceReader;
+    private final String targetProperty;
+    private final String setterName;
+    private final Class<?> targetClass;
+    private final Field targetField;
+    private final Setter nullSetter;
+    private final Method getter;
+    private final HandlerBinding handler;
+    private final Constraints.Constraint[] constraints;
+    private final InternTable interner;
+    private final boolean includeNull;
+    private final boolean writesNull;
+    private final StatsRecorder stats;
+    private final MethodHandle primitiveCopy;
+
+    // setters depend on the runtime value class, so they are bound lazily and cached per slot; the cached
+    // bindings themselves are reused, so alternating value classes do not allocate
+    private final Map<Class<?>, SetterBinding> setters = new ConcurrentHashMap<>();
+    private volatile SetterBinding lastBinding;
+
+    /**
+     * @param sourceReader The source accessor as a handle of type {@code (Object)Object}, or null to read the field
+     * @param writesNull True if a null source value is written rather than skipped
+     * @param accessStrategy The strategy writes go through, which decides how primitive values are copied
+     */
+    PropertyPlan(int slot, Field sourceField, Method sourceAccessor, MethodHandle sourceReader, String targetProperty,
+                 Class<?> targetClass, Field targetField, HandlerBinding handler, InternTable interner,
+                 boolean includeNull, boolean writesNull, StatsRecorder stats,
+                 NihilConfig.AccessStrategy accessStrategy) {
+        this.slot = slot;
+        this.sourceField = sourceField;
+        this.sourceAccessor = sourceAccessor;
+        this.sourceReader = sourceReader;
+        this.targetProperty = targetProperty;
+        this.setterName = ReflectionUtils.setterName(targetProperty);
+        this.targetClass = targetClass;
+        this.targetField = targetField;
+        this.nullSetter = ReflectionUtils.findReferenceSetter(targetClass, setterName).map(Setter::of).orElse(null);
+        this.getter = targetField == null ? ReflectionUtils.findGetter(targetClass, targetProperty).orElse(null) : null;
+        this.handler = handler;
+        this.constraints = Constraints.compile(sourceField);
+        this.interner = interner;
+        this.includeNull = includeNull;
+        this.writesNull = writesNull;
+        this.stats = stats;
+        this.primitiveCopy = primitiveCopy(accessStrategy);
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public Field getSourceField() {
+        return sourceField;
+    }
+
+    public String getSourceProperty() {
+        return sourceField.getName();
+    }
+
+    /**
+     * @return The getter or record accessor the value is read through, or null if it is read from the field
+     */
+    public Method getSourceAccessor() {
+        return sourceAccessor;
+    }
+
+    public String getTargetProperty() {
+        return targetProperty;
+    }
+
+    /**
+     * @return The target field with the same name as the target property, or null if there is none
+     */
+    public Field getTargetField() {
+        return targetField;
+    }
+
+    /**
+     * @return The custom handler class, or null if the value is written unchanged
+     */
+    public Class<? extends IPropertyHandler> getHandlerClass() {
+        return handler == null ? null : handler.getHandlerClass();
+    }
+
+    /**
+     * @return The bound handler, or null if the value is written unchanged
+     */
+    public HandlerBinding getHandler() {
+        return handler;
+    }
+
+    public boolean hasHandler() {
+        return handler != null;
+    }
+
+    /**
+     * @return True if the source field declares constraints such as {@code @NotBlank}
+     */
+    public boolean hasConstraints() {
+        return constraints != null;
+    }
+
+    /**
+     * Checks a source value against the constraints of this property.
+     *
+     * @param value The value about to be written
+     * @return The message of the first violated constraint, or null if the value is valid
+     */
+    public String violation(Object value) {
+        if (constraints == null) {
+            return null;
+        }
+        for (Constraints.Constraint constraint : constraints) {
+            String message = constraint.check(value);
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    public boolean isInterned() {
+        return interner != null;
+    }
+
+    /**
+     * Replaces a value about to be written by its canonical instance, if this property is interned.
+     *
+     * @param value The value
+     * @return An equal instance shared with earlier writes, or the value itself
+     */
+    public Object intern(Object value) {
+        if (interner == null || value == null) {
+            return value;
+        }
+        Object canonical = interner.intern(value);
+        if (stats != null) {
+            stats.internLookup(canonical != value);
+        }
+        return canonical;
+    }
+
+    public boolean isIncludeNull() {
+        return includeNull;
+    }
+
+    /**
+     * Tells whether a value read from a source without a presence mask is written. A null is written only
+     * if the property includes nulls or the configuration does not ignore them; every path reading sources
+     * applies this rule, so updates, coalesced patches and encoded patches agree.
+     *
+     * @param value The source value
+     * @return True if the value is written
+     */
+    public boolean accepts(Object value) {
+        return value != null || writesNull;
+    }
+
+    /**
+     * Reads the value of this property from the source object, through its accessor if the plan bound one.
+     *
+     * @param source The source object
+     * @return The current value
+     * @throws IllegalAccessException If the field cannot be read
+     * @throws InvocationTargetException If the accessor throws
+     */
+    public Object read(Object source) throws ReflectiveOperationException {
+        if (sourceReader == null) {
+            return sourceField.get(source);
+        }
+        try {
+            return (Object) sourceReader.invokeExact(source);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * @return True if {@link #copyPrimitive} can write this property
+     */
+    public boolean copiesPrimitive() {
+        return primitiveCopy != null;
+    }
+
+    /**
+     * Copies a primitive value from the source to the target without boxing it, through the setter or field
+     * a boxed write would use. Only bound for properties without handler, constraints or interning.
+     *
+     * @param source The source object
+     * @param target The target object
+     * @throws InvocationTargetException If the accessor or setter throws
+     */
+    public void copyPrimitive(Object source, Object target) throws InvocationTargetException {
+        try {
+            primitiveCopy.invokeExact(source, target);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * @return The copy as a handle of type {@code (Object, Object)void}, or null if the value has to be boxed
+     */
+    private MethodHandle primitiveCopy(NihilConfig.AccessStrategy strategy) {
+        Class<?> type = sourceAccessor != null ? sourceAccessor.getReturnType() : sourceField.getType();
+        if (!type.isPrimitive() || handler != null || constraints != null || interner != null) {
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle write = null;
+            if (strategy != NihilConfig.AccessStrategy.FIELD) {
+                Method setter = findSetter(MethodType.methodType(type).wrap().returnType()).orElse(null);
+                if (setter != null) {
+                    // a setter taking a reference type receives the boxed value anyway
+                    if (setter.getParameterTypes()[0] != type) {
+                        return null;
+                    }
+                    write = lookup.unreflect(setter);
+                } else if (strategy == NihilConfig.AccessStrategy.METHOD) {
+                    return null;
+                }
+            }
+            if (write == null) {
+                if (targetField == null || targetField.getType() != type) {
+                    return null;
+                }
+                write = lookup.unreflectSetter(targetField);
+            }
+
+            MethodHandle read = sourceAccessor != null ? lookup.unreflect(sourceAccessor) : lookup.unreflectGetter(sourceField);
+            MethodHandle copy = MethodHandles.filterArguments(write, 1, read)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return MethodHandles.permuteArguments(copy, copy.type(), 1, 0);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return True if {@link #readTarget} can read this property from a target
+     */
+    public boolean isTargetReadable() {
+        return targetField != null || getter != null;
+    }
+
+    /**
+     * Reads the current value of this property from a target, through its field or else its getter.
+     *
+     * @param target The target object
+     * @return The current value
+     * @throws ReflectiveOperationException If the value cannot be read
+     * @throws IllegalStateException If the target has neither a field nor a getter for the property
+     */
+    public Object readTarget(Object target) throws ReflectiveOperationException {
+        if (targetField != null) {
+            return targetField.get(target);
+        }
+        if (getter != null) {
+            return getter.invoke(target);
+        }
+        throw new IllegalStateException("No field or getter to read property: " + targetProperty);
+    }
+
+    /**
+     * Finds the target setter able to accept a value of the given class.
+     * An exact parameter match is preferred over a compatible one.
+     *
+     * @param valueClass The runtime class of the value, or null for a null value
+     * @return The setter, or null if the target has none
+     */
+    public Method setterFor(Class<?> valueClass) {
+        Setter setter = bindSetter(valueClass);
+        return setter == null ? null : setter.method();
+    }
+
+    /**
+     * Same as {@link #setterFor(Class)}, as a handle of type {@code (Object, Object)void}.
+     * Invoking it exactly does not allocate, unlike {@link Method#invoke} and its varargs array.
+     *
+     * @param valueClass The runtime class of the value, or null for a null value
+     * @return The setter handle, or null if the target has none or the setter is not accessible as a handle
+     */
+    public MethodHandle setterHandleFor(Class<?> valueClass) {
+        Setter setter = bindSetter(valueClass);
+        return setter == null ? null : setter.handle();
+    }
+
+    private Setter bindSetter(Class<?> valueClass) {
+        if (valueClass == null) {
+            return nullSetter;
+        }
+
+        SetterBinding binding = lastBinding;
+        if (binding == null || binding.valueClass() != valueClass) {
+            binding = setters.get(valueClass);
+            if (binding == null) {
+                lastBinding = setters.computeIfAbsent(valueClass, this::resolveSetter);
+                return lastBinding.setter();
+            }
+            lastBinding = binding;
+        }
+        if (stats != null) {
+            stats.metadataLookup(true);
+        }
+        return binding.setter();
+    }
+
+    private SetterBinding resolveSetter(Class<?> valueClass) {
+        NihilEvents.cacheMiss("setter", targetClass, setterName, valueClass);
+        if (stats != null) {
+            stats.metadataLookup(false);
+        }
+        return new SetterBinding(valueClass, findSetter(valueClass).map(Setter::of).orElse(null));
+    }
+
+    /**
+     * Finds the setter for a value class: an exact parameter match, else a compatible one, else for a boxed
+     * value the setter taking its primitive type.
+     */
+    private Optional<Method> findSetter(Class<?> valueClass) {
+        Optional<Method> exactMethod = ReflectionUtils.findMethod(targetClass, setterName, valueClass);
+        if (exactMethod.isPresent()) {
+            return exactMethod;
+        }
+
+        Optional<Method> compatible = ReflectionUtils.findCompatibleSetter(targetClass, setterName, valueClass);
+        Class<?> primitive = MethodType.methodType(valueClass).unwrap().returnType();
+        if (compatible.isPresent() || primitive == valueClass) {
+            return compatible;
+        }
+        return ReflectionUtils.findMethod(targetClass, setterName, primitive);
+    }
+
+    @Override
+    public String toString() {
+        return getSourceProperty() + " -> " + targetProperty;
+    }
+
+    private record SetterBinding(Class<?> valueClass, Setter setter) {}
+
+    private record Setter(Method method, MethodHandle handle) {
+
+        private static final MethodType WRITE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        static Setter of(Method method) {
+            try {
+                return new Setter(method, MethodHandles.lookup().unreflect(method).asType(WRITE));
+            } catch (IllegalAccessException e) {
+                // left to Method.invoke, which reports the access failure when the setter is used
+                return new Setter(method, null);
+            }
+        }
+    }
+}
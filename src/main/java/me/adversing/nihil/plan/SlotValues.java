@@ -0,0 +1,76 @@
+package me.adversing.nihil.plan;
+
+import java.util.Arrays;
+
+/**
+ * Values indexed by the slots of an {@link UpdatePlan}, with a presence bit per slot.
+ * A present slot is written even when its value is null; an absent slot is left untouched.
+ */
+public class SlotValues {
+    private final Object[] values;
+    private final long[] presence;
+
+    public SlotValues(int size) {
+        this.values = new Object[size];
+        this.presence = new long[(size + 63) >>> 6];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public void set(int slot, Object value) {
+        values[slot] = value;
+        presence[slot >>> 6] |= 1L << slot;
+    }
+
+    public Object get(int slot) {
+        return values[slot];
+    }
+
+    public boolean isPresent(int slot) {
+        return (presence[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public void remove(int slot) {
+        values[slot] = null;
+        presence[slot >>> 6] &= ~(1L << slot);
+    }
+
+    /**
+     * Returns the first present slot at or after the given one.
+     *
+     * @param fromSlot The slot to start from
+     * @return The next present slot, or -1 if there is none
+     */
+    public int nextPresent(int fromSlot) {
+        int word = fromSlot >>> 6;
+        if (word >= presence.length) {
+            return -1;
+        }
+
+        long bits = presence[word] & (-1L << fromSlot);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == presence.length) {
+                return -1;
+            }
+            bits = presence[word];
+        }
+    }
+
+    public int presentCount() {
+        int count = 0;
+        for (long word : presence) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        Arrays.fill(presence, 0L);
+    }
+}
@@ -0,0 +1,181 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.util.VersionStamp;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiled description of how instances of a source class are applied onto a target class.
+ * Plans are built once per class pair and shared by every update between them.
+ */
+public final class UpdatePlan {
+    private final Class<?> sourceClass;
+    private final Class<?> targetClass;
+    private final PropertyPlan[] properties;
+    private final Field sourceVersionField;
+    private final Field targetVersionField;
+    private final VersionStamp targetVersion;
+    private final Field presenceField;
+    private final int[] slotByBit;
+    private final long fingerprint;
+    private final boolean constrained;
+    // indexed once so builder transformers resolve their slot without scanning the properties
+    private final Map<String, Integer> slotsBySource;
+
+    UpdatePlan(Class<?> sourceClass, Class<?> targetClass, PropertyPlan[] properties,
+               Field sourceVersionField, Field targetVersionField, VersionStamp targetVersion, Field presenceField,
+               int[] slotByBit) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.properties = properties;
+        this.sourceVersionField = sourceVersionField;
+        this.targetVersionField = targetVersionField;
+        this.targetVersion = targetVersion;
+        this.presenceField = presenceField;
+        this.slotByBit = slotByBit;
+        this.fingerprint = computeFingerprint();
+
+        boolean anyConstraint = false;
+        Map<String, Integer> slots = new HashMap<>();
+        for (PropertyPlan property : properties) {
+            anyConstraint |= property.hasConstraints();
+            slots.put(property.getSourceProperty(), property.getSlot());
+        }
+        this.constrained = anyConstraint;
+        this.slotsBySource = Map.copyOf(slots);
+    }
+
+    public Class<?> getSourceClass() {
+        return sourceClass;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * @return The compiled properties, indexed by slot. The array is shared and must not be modified.
+     */
+    public PropertyPlan[] properties() {
+        return properties;
+    }
+
+    public int size() {
+        return properties.length;
+    }
+
+    /**
+     * Finds the property writing the given target property.
+     *
+     * @param targetProperty The target property name
+     * @return The property plan, or null if no source property maps to it
+     */
+    public PropertyPlan property(String targetProperty) {
+        for (PropertyPlan property : properties) {
+            if (property.getTargetProperty().equals(targetProperty)) {
+                return property;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the slot reading the given source property.
+     *
+     * @param sourceProperty The source property name
+     * @return The slot, or -1 if the property is not updated
+     */
+    public int sourceSlot(String sourceProperty) {
+        Integer slot = slotsBySource.get(sourceProperty);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @return The source field carrying the expected version, or null if the source has none
+     */
+    public Field getSourceVersionField() {
+        return sourceVersionField;
+    }
+
+    /**
+     * @return The target field holding the version, or null if no version property is configured or found
+     */
+    public Field getTargetVersionField() {
+        return targetVersionField;
+    }
+
+    /**
+     * @return Compare-and-set access to the target version, or null unless updates are optimistic and the
+     * target has a version field
+     */
+    public VersionStamp getTargetVersion() {
+        return targetVersion;
+    }
+
+    /**
+     * @return True if any property declares constraints, so updates through this plan validate their values
+     */
+    public boolean hasConstraints() {
+        return constrained;
+    }
+
+    public boolean hasPresenceMask() {
+        return presenceField != null;
+    }
+
+    /**
+     * @return The source's {@link me.adversing.nihil.annotation.PresenceMask} field, or null if it has none
+     */
+    public Field getPresenceField() {
+        return presenceField;
+    }
+
+    /**
+     * Maps a presence bit of the source to the slot it stands for.
+     *
+     * @param bit The presence bit
+     * @return The slot, or -1 if the bit is unknown or its property is not updated
+     */
+    public int slotForBit(int bit) {
+        return bit < slotByBit.length ? slotByBit[bit] : -1;
+    }
+
+    /**
+     * Hash of the class pair and of every slot's name and type.
+     * Two plans with the same fingerprint agree on the meaning of each slot.
+     *
+     * @return The layout fingerprint
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    // 64-bit FNV-1a over names only, so the fingerprint is stable across JVMs and class loaders
+    private long computeFingerprint() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, sourceClass.getName());
+        hash = mix(hash, targetClass.getName());
+        for (PropertyPlan property : properties) {
+            hash = mix(hash, property.getSourceProperty());
+            hash = mix(hash, property.getSourceField().getType().getName());
+            hash = mix(hash, property.getTargetProperty());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= 0xff;
+        return hash * 0x100000001b3L;
+    }
+
+    @Override
+    public String toString() {
+        return "UpdatePlan[" + sourceClass.getName() + " -> " + targetClass.getName() + "]";
+    }
+}
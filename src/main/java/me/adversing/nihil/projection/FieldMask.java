@@ -0,0 +1,107 @@
+package me.adversing.nihil.projection;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed field mask such as {@code id,name,address.city}: a tree of selected property names.
+ * Parsed masks are immutable and cached by their text, so a repeated mask is parsed only once.
+ */
+public final class FieldMask {
+
+    // masks usually come from request parameters, so the cache is bounded instead of growing with every variant
+    private static final int MAX_CACHED_MASKS = 1024;
+    private static final Map<String, FieldMask> CACHE = new ConcurrentHashMap<>();
+    private static final FieldMask LEAF = new FieldMask("", Map.of());
+    // marks a node selected as a whole while building, never a valid property name
+    private static final String WHOLE = "";
+
+    private final String text;
+    private final Map<String, FieldMask> children;
+
+    private FieldMask(String text, Map<String, FieldMask> children) {
+        this.text = text;
+        this.children = children;
+    }
+
+    /**
+     * Parses a comma-separated list of dot-separated property paths.
+     *
+     * @param text The mask, e.g. {@code id,name,address.city}
+     * @return The parsed mask
+     * @throws IllegalArgumentException If the mask is empty or contains an empty path segment
+     */
+    public static FieldMask parse(String text) {
+        FieldMask mask = CACHE.get(text);
+        if (mask != null) {
+            return mask;
+        }
+
+        mask = new FieldMask(text, freeze(build(text)));
+        if (CACHE.size() < MAX_CACHED_MASKS) {
+            CACHE.putIfAbsent(text, mask);
+        }
+        return mask;
+    }
+
+    private static Map<String, Object> build(String text) {
+        Map<String, Object> root = new LinkedHashMap<>();
+
+        for (String path : text.split(",")) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                throw new IllegalArgumentException("Empty path in field mask: " + text);
+            }
+
+            Map<String, Object> node = root;
+            for (String segment : trimmed.split("\\.", -1)) {
+                String name = segment.trim();
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Empty property name in field mask: " + text);
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> child = (Map<String, Object>) node.computeIfAbsent(name, key -> new LinkedHashMap<>());
+                node = child;
+            }
+            node.put(WHOLE, Boolean.TRUE);
+        }
+        return root;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, FieldMask> freeze(Map<String, Object> node) {
+        Map<String, FieldMask> children = new LinkedHashMap<>();
+        node.forEach((name, child) -> {
+            Map<String, Object> grandChildren = (Map<String, Object>) child;
+            // selecting "address" and "address.city" selects the whole address
+            children.put(name, grandChildren.containsKey(WHOLE) ? LEAF : new FieldMask(name, freeze(grandChildren)));
+        });
+        return Collections.unmodifiableMap(children);
+    }
+
+    /**
+     * @return True if the whole property is selected, i.e. no nested path was given
+     */
+    public boolean isLeaf() {
+        return children.isEmpty();
+    }
+
+    /**
+     * @return The selected property names at this level, in mask order
+     */
+    public Set<String> names() {
+        return children.keySet();
+    }
+
+    public FieldMask child(String name) {
+        return children.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
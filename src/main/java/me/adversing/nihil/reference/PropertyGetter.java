@@ -0,0 +1,14 @@
+package me.adversing.nihil.reference;
+
+import java.io.Serializable;
+import java.util.function.Function;
+
+/**
+ * Method reference to a getter or record accessor naming a source property, e.g. {@code StudentDTO::getEmail}.
+ *
+ * @param <S> The declaring type
+ * @param <V> The property type
+ */
+@FunctionalInterface
+public interface PropertyGetter<S, V> extends Function<S, V>, Serializable {
+}
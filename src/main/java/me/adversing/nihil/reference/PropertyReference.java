@@ -0,0 +1,144 @@
+package me.adversing.nihil.reference;
+
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.util.ReflectionUtils;
+
+import java.io.Serializable;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Property named by a {@link PropertyGetter} or {@link PropertySetter} method reference.
+ * A method reference compiles to one class per call site, so each call site is introspected once and
+ * later resolutions are a single lookup by class.
+ */
+public final class PropertyReference {
+
+    private static final Map<Class<?>, PropertyReference> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<?> declaringClass;
+    private final String name;
+    // the plan a reference is used with rarely changes, so its slot is remembered instead of searched by name
+    private volatile SlotBinding lastBinding;
+
+    private PropertyReference(Class<?> declaringClass, String name) {
+        this.declaringClass = declaringClass;
+        this.name = name;
+    }
+
+    /**
+     * Resolves the source property read by a getter reference.
+     *
+     * @param getter A method reference such as {@code StudentDTO::getEmail} or {@code StudentRecord::email}
+     * @return The referenced property
+     * @throws IllegalArgumentException If the getter is not a method reference to the accessor of a field
+     */
+    public static PropertyReference of(PropertyGetter<?, ?> getter) {
+        return resolve(getter, false);
+    }
+
+    /**
+     * Resolves the target property written by a setter reference.
+     *
+     * @param setter A method reference such as {@code Student::setEmail}
+     * @return The referenced property
+     * @throws IllegalArgumentException If the setter is not a method reference to a {@code set} method
+     */
+    public static PropertyReference of(PropertySetter<?, ?> setter) {
+        return resolve(setter, true);
+    }
+
+    private static PropertyReference resolve(Serializable reference, boolean setter) {
+        PropertyReference resolved = CACHE.get(reference.getClass());
+        if (resolved == null) {
+            resolved = CACHE.computeIfAbsent(reference.getClass(), key -> introspect(reference, setter));
+        }
+        return resolved;
+    }
+
+    private static PropertyReference introspect(Serializable reference, boolean setter) {
+        SerializedLambda lambda;
+        try {
+            Method writeReplace = reference.getClass().getDeclaredMethod("writeReplace");
+            writeReplace.setAccessible(true);
+            lambda = (SerializedLambda) writeReplace.invoke(reference);
+        } catch (ReflectiveOperationException | ClassCastException | SecurityException e) {
+            throw new IllegalArgumentException("Not a method reference: " + reference, e);
+        }
+
+        String method = lambda.getImplMethodName();
+        if (method.startsWith("lambda$")) {
+            throw new IllegalArgumentException("Expected a method reference such as Type::getName, not a lambda");
+        }
+
+        Class<?> declaringClass;
+        try {
+            declaringClass = Class.forName(lambda.getImplClass().replace('/', '.'), false,
+                    reference.getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Cannot load " + lambda.getImplClass(), e);
+        }
+
+        String described = declaringClass.getName() + "::" + method;
+        if (setter) {
+            if (!method.startsWith("set") || method.length() == 3) {
+                throw new IllegalArgumentException("Not a setter: " + described);
+            }
+            return new PropertyReference(declaringClass, decapitalize(method.substring(3)));
+        }
+
+        String name = method;
+        if (method.startsWith("get") && method.length() > 3) {
+            name = decapitalize(method.substring(3));
+        } else if (method.startsWith("is") && method.length() > 2) {
+            name = decapitalize(method.substring(2));
+        }
+        // sources are read through their fields, so the accessor must stand for one
+        if (ReflectionUtils.findField(declaringClass, name).isEmpty()) {
+            throw new IllegalArgumentException("No field '" + name + "' behind " + described);
+        }
+        return new PropertyReference(declaringClass, name);
+    }
+
+    private static String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    public Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds the slot of a plan reading this property from its source.
+     *
+     * @param plan The plan
+     * @return The slot
+     * @throws IllegalArgumentException If the plan does not update this property
+     */
+    public int sourceSlot(UpdatePlan plan) {
+        SlotBinding binding = lastBinding;
+        if (binding != null && binding.plan() == plan) {
+            return binding.slot();
+        }
+
+        int slot = plan.sourceSlot(name);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Source property '" + name + "' is not updated by " + plan);
+        }
+        lastBinding = new SlotBinding(plan, slot);
+        return slot;
+    }
+
+    @Override
+    public String toString() {
+        return declaringClass.getSimpleName() + "." + name;
+    }
+
+    private record SlotBinding(UpdatePlan plan, int slot) {}
+}
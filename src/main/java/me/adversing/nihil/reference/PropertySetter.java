@@ -0,0 +1,14 @@
+package me.adversing.nihil.reference;
+
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+
+/**
+ * Method reference to a setter naming a target property, e.g. {@code Student::setEmail}.
+ *
+ * @param <T> The declaring type
+ * @param <V> The property type
+ */
+@FunctionalInterface
+public interface PropertySetter<T, V> extends BiConsumer<T, V>, Serializable {
+}
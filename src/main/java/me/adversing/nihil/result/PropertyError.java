@@ -0,0 +1,19 @@
+package me.adversing.nihil.result;
+
+import java.io.Serializable;
+
+/**
+ * A property that could not be applied by a collecting update.
+ * Only the cause type and message are kept, so no stack trace is captured for the failure.
+ *
+ * @param property The source property
+ * @param causeType The type of the failure
+ * @param message The failure message, possibly null
+ */
+public record PropertyError(String property, Class<? extends Throwable> causeType, String message)
+        implements Serializable {
+
+    public static PropertyError of(String property, Throwable cause) {
+        return new PropertyError(property, cause.getClass(), cause.getMessage());
+    }
+}
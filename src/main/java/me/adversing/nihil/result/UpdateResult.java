@@ -0,0 +1,18 @@
+package me.adversing.nihil.result;
+
+import java.util.List;
+
+/**
+ * Outcome of a collecting update: the properties that failed did not stop the others from being applied.
+ *
+ * @param target The updated target
+ * @param written The number of properties written
+ * @param errors The properties that failed, in slot order
+ * @param <T> Target type
+ */
+public record UpdateResult<T>(T target, int written, List<PropertyError> errors) {
+
+    public boolean isSuccess() {
+        return errors.isEmpty();
+    }
+}
@@ -0,0 +1,30 @@
+package me.adversing.nihil.result;
+
+/**
+ * An applied all-or-nothing update that can still be undone.
+ *
+ * @param <T> Target type
+ */
+public interface UpdateTransaction<T> {
+
+    /**
+     * @return The updated target
+     */
+    T target();
+
+    /**
+     * @return The number of properties written
+     */
+    int written();
+
+    /**
+     * Restores the properties written by the update to their previous values, through their fields when the
+     * target has them. Values written by later updates to the same properties are overwritten as well.
+     * Rollbacks are not recorded by the journal.
+     *
+     * @throws IllegalStateException If the update was already rolled back
+     */
+    void rollback();
+
+    boolean isRolledBack();
+}
@@ -0,0 +1,77 @@
+package me.adversing.nihil.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory latency histogram with one power-of-two bucket per nanosecond magnitude.
+ * Recording is a couple of striped counter increments, so it does not contend under concurrency.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 1);
+        buckets[63 - Long.numberOfLeadingZeros(value)].increment();
+        totalNanos.add(value);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts, totalNanos.sum());
+    }
+
+    /**
+     * Point-in-time copy of a histogram. Bucket {@code i} counts latencies in {@code [2^i, 2^(i+1))} nanoseconds.
+     */
+    public record Snapshot(long[] counts, long totalNanos) {
+
+        public long count() {
+            long count = 0;
+            for (long bucket : counts) {
+                count += bucket;
+            }
+            return count;
+        }
+
+        public double meanNanos() {
+            long count = count();
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Returns an upper bound of the given percentile, precise to the bucket's power of two.
+         *
+         * @param percentile The percentile, between 0 and 100
+         * @return The upper bound of the bucket holding the percentile, in nanoseconds
+         */
+        public long percentileNanos(double percentile) {
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package me.adversing.nihil.stats;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the statistics of a Nihil instance, as returned by {@link me.adversing.nihil.Nihil#stats()}.
+ *
+ * @param pairs Per source/target class pair statistics
+ * @param handlers Per handler class statistics
+ * @param planCacheHits Plan lookups served from the cache
+ * @param planCacheMisses Plan lookups that compiled a plan
+ * @param metadataCacheHits Setter lookups served from a plan's bindings
+ * @param metadataCacheMisses Setter and field lookups that had to reflect
+ * @param internHits Interned values replaced by an equal instance already in the intern table
+ * @param internMisses Interned values that were not in the table and are now its canonical instance
+ */
+public record NihilStats(List<PairStats> pairs, Map<Class<?>, HandlerStats> handlers,
+                         long planCacheHits, long planCacheMisses,
+                         long metadataCacheHits, long metadataCacheMisses,
+                         long internHits, long internMisses) {
+
+    public static final NihilStats EMPTY = new NihilStats(List.of(), Map.of(), 0, 0, 0, 0, 0, 0);
+
+    public double planCacheHitRatio() {
+        return ratio(planCacheHits, planCacheMisses);
+    }
+
+    public double metadataCacheHitRatio() {
+        return ratio(metadataCacheHits, metadataCacheMisses);
+    }
+
+    /**
+     * @return The share of interned values that were deduplicated, or 0 if nothing was interned
+     */
+    public double dedupRatio() {
+        long total = internHits + internMisses;
+        return total == 0 ? 0.0 : (double) internHits / total;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    /**
+     * Statistics of the updates between one source class and one target class.
+     */
+    public record PairStats(Class<?> sourceClass, Class<?> targetClass, long updates, long failures,
+                            long propertiesWritten, long propertiesSkipped, LatencyHistogram.Snapshot latency) {}
+
+    /**
+     * Statistics of one property handler class.
+     */
+    public record HandlerStats(Class<?> handlerClass, long invocations, long failures,
+                               LatencyHistogram.Snapshot latency) {}
+}
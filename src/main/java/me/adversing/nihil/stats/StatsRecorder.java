@@ -0,0 +1,111 @@
+package me.adversing.nihil.stats;
+
+import me.adversing.nihil.plan.UpdatePlan;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the counters behind {@link NihilStats}. All counters are striped, so recording from many
+ * threads at once does not turn into a contention point.
+ */
+public final class StatsRecorder {
+
+    // keyed by class pair rather than plan, so mapped and builder plans of the same classes share one row;
+    // nested maps keep the lookup free of key allocations
+    private final Map<Class<?>, Map<Class<?>, PairCounters>> pairs = new ConcurrentHashMap<>();
+    private final Map<Class<?>, HandlerCounters> handlers = new ConcurrentHashMap<>();
+    private final LongAdder planCacheHits = new LongAdder();
+    private final LongAdder planCacheMisses = new LongAdder();
+    private final LongAdder metadataCacheHits = new LongAdder();
+    private final LongAdder metadataCacheMisses = new LongAdder();
+    private final LongAdder internHits = new LongAdder();
+    private final LongAdder internMisses = new LongAdder();
+
+    public void planLookup(boolean hit) {
+        (hit ? planCacheHits : planCacheMisses).increment();
+    }
+
+    public void metadataLookup(boolean hit) {
+        (hit ? metadataCacheHits : metadataCacheMisses).increment();
+    }
+
+    /**
+     * @param deduplicated True if the value was replaced by an equal instance already interned
+     */
+    public void internLookup(boolean deduplicated) {
+        (deduplicated ? internHits : internMisses).increment();
+    }
+
+    public void update(UpdatePlan plan, int written, long nanos) {
+        PairCounters counters = pair(plan);
+        counters.updates.increment();
+        counters.written.add(written);
+        counters.skipped.add(Math.max(plan.size() - written, 0));
+        counters.latency.record(nanos);
+    }
+
+    public void updateFailed(UpdatePlan plan) {
+        pair(plan).failures.increment();
+    }
+
+    public void handler(Class<?> handlerClass, long nanos, boolean failed) {
+        HandlerCounters counters = handlers.get(handlerClass);
+        if (counters == null) {
+            counters = handlers.computeIfAbsent(handlerClass, key -> new HandlerCounters());
+        }
+        counters.invocations.increment();
+        if (failed) {
+            counters.failures.increment();
+        }
+        counters.latency.record(nanos);
+    }
+
+    private PairCounters pair(UpdatePlan plan) {
+        Map<Class<?>, PairCounters> byTarget = pairs.get(plan.getSourceClass());
+        if (byTarget == null) {
+            byTarget = pairs.computeIfAbsent(plan.getSourceClass(), key -> new ConcurrentHashMap<>());
+        }
+        PairCounters counters = byTarget.get(plan.getTargetClass());
+        if (counters == null) {
+            counters = byTarget.computeIfAbsent(plan.getTargetClass(), key -> new PairCounters());
+        }
+        return counters;
+    }
+
+    public NihilStats snapshot() {
+        List<NihilStats.PairStats> pairStats = new ArrayList<>();
+        pairs.forEach((sourceClass, byTarget) -> byTarget.forEach((targetClass, counters) ->
+                pairStats.add(new NihilStats.PairStats(sourceClass, targetClass,
+                        counters.updates.sum(), counters.failures.sum(),
+                        counters.written.sum(), counters.skipped.sum(),
+                        counters.latency.snapshot()))));
+
+        Map<Class<?>, NihilStats.HandlerStats> handlerStats = new LinkedHashMap<>();
+        handlers.forEach((handlerClass, counters) -> handlerStats.put(handlerClass, new NihilStats.HandlerStats(
+                handlerClass, counters.invocations.sum(), counters.failures.sum(), counters.latency.snapshot())));
+
+        return new NihilStats(List.copyOf(pairStats), Map.copyOf(handlerStats),
+                planCacheHits.sum(), planCacheMisses.sum(),
+                metadataCacheHits.sum(), metadataCacheMisses.sum(),
+                internHits.sum(), internMisses.sum());
+    }
+
+    private static final class PairCounters {
+        private final LongAdder updates = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder written = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private static final class HandlerCounters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
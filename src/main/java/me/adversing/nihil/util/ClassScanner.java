@@ -0,0 +1,93 @@
+package me.adversing.nihil.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Lists the classes of a package, from directories and jars on the class path.
+ * Classes are loaded without being initialized.
+ */
+public final class ClassScanner {
+
+    private ClassScanner() {}
+
+    /**
+     * Finds the classes of a package and its subpackages.
+     *
+     * @param packageName The package name
+     * @param loader The class loader to search
+     * @return The classes found; classes that fail to load are left out
+     * @throws UncheckedIOException If the class path cannot be read
+     */
+    public static List<Class<?>> scan(String packageName, ClassLoader loader) {
+        String path = packageName.replace('.', '/');
+        List<String> classNames = new ArrayList<>();
+
+        try {
+            Enumeration<URL> resources = loader.getResources(path);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if ("file".equals(resource.getProtocol())) {
+                    collectFromDirectory(Paths.get(resource.toURI()), packageName, classNames);
+                } else if ("jar".equals(resource.getProtocol())) {
+                    collectFromJar(resource, path, classNames);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error scanning package: " + packageName, e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Error scanning package: " + packageName, e);
+        }
+
+        List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            try {
+                classes.add(Class.forName(className, false, loader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                // a class with missing dependencies cannot be a source anyway
+            }
+        }
+        return classes;
+    }
+
+    private static void collectFromDirectory(Path directory, String packageName, List<String> classNames)
+            throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(file -> file.toString().endsWith(".class"))
+                    .map(file -> directory.relativize(file).toString())
+                    .forEach(relative -> classNames.add(className(packageName + "/" + relative)));
+        }
+    }
+
+    private static void collectFromJar(URL resource, String path, List<String> classNames) throws IOException {
+        JarURLConnection connection = (JarURLConnection) resource.openConnection();
+        connection.setUseCaches(false);
+
+        try (JarFile jar = connection.getJarFile()) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(path + "/") && name.endsWith(".class")) {
+                    classNames.add(className(name));
+                }
+            }
+        }
+    }
+
+    private static String className(String resourceName) {
+        String name = resourceName.replace('\\', '/').replace('.', '/');
+        return name.substring(0, name.length() - "/class".length()).replace('/', '.');
+    }
+}
@@ -0,0 +1,59 @@
+package me.adversing.nihil.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded table of canonical instances, used to share one instance among equal values.
+ * Each value hashes to a pair of adjacent slots; a value found in neither is inserted first and the
+ * older entry of the pair is evicted, so memory stays fixed and recently seen values stay canonical.
+ * Lookups never lock, and a hit never allocates. The table is lossy: under races or eviction, two equal
+ * values may both be kept, which only costs some deduplication.
+ */
+public final class InternTable {
+    private final AtomicReferenceArray<Object> slots;
+    private final int mask;
+
+    public InternTable(int capacity) {
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.slots = new AtomicReferenceArray<>(size);
+        // the index always selects the first slot of a pair
+        this.mask = size - 2;
+    }
+
+    /**
+     * Returns the canonical instance equal to a value. Only values of the same class are considered equal,
+     * so an interned value can always be written where the original one could.
+     *
+     * @param value The value, not null
+     * @return The instance already held by the table, or the value itself if it was not held
+     */
+    public Object intern(Object value) {
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+
+        Object first = slots.getAcquire(index);
+        if (matches(first, value)) {
+            return first;
+        }
+        Object second = slots.getAcquire(index + 1);
+        if (matches(second, value)) {
+            return second;
+        }
+
+        slots.setRelease(index + 1, first);
+        slots.setRelease(index, value);
+        return value;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private static boolean matches(Object held, Object value) {
+        return held == value || held != null && held.getClass() == value.getClass() && held.equals(value);
+    }
+}
@@ -0,0 +1,181 @@
+package me.adversing.nihil.util;
+
+import me.adversing.nihil.annotation.PresenceBit;
+import me.adversing.nihil.annotation.PresenceMask;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Helpers for sources declaring a {@link PresenceMask}.
+ */
+public final class PresenceMasks {
+
+    private PresenceMasks() {}
+
+    /**
+     * Finds the presence mask field declared by a class.
+     *
+     * @return The accessible mask field, or null if the class declares none
+     * @throws IllegalArgumentException If the mask has an unsupported type or is declared twice
+     */
+    public static Field findMaskField(Class<?> type) {
+        Field mask = null;
+        for (Field field : type.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(PresenceMask.class)) {
+                continue;
+            }
+            if (mask != null) {
+                throw new IllegalArgumentException("More than one @PresenceMask in " + type.getName());
+            }
+            if (field.getType() != long.class && field.getType() != BitSet.class) {
+                throw new IllegalArgumentException("@PresenceMask must be a long or a BitSet: " + field);
+            }
+            field.setAccessible(true);
+            mask = field;
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the fields the bits of a mask stand for, indexed by bit. Fields declaring a {@link PresenceBit}
+     * sit at that bit, leaving null entries for unused bits. Otherwise fields are numbered by name, which
+     * unlike {@link Class#getDeclaredFields()} order is the same on every JVM.
+     *
+     * @throws IllegalArgumentException If only some fields declare a bit, or bits are negative, duplicated,
+     *                                  or beyond the capacity of a {@code long} mask, or if a {@code long} mask
+     *                                  has more fields than bits, or the masked class inherits fields
+     */
+    public static Field[] bitFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        int explicit = 0;
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isAnnotationPresent(PresenceMask.class)) {
+                fields.add(field);
+                if (field.isAnnotationPresent(PresenceBit.class)) {
+                    explicit++;
+                }
+            }
+        }
+
+        Field mask = findMaskField(type);
+        if (mask != null) {
+            rejectInheritedFields(type);
+        }
+        int limit = mask == null || mask.getType() != long.class ? Integer.MAX_VALUE : Long.SIZE;
+        if (explicit == 0) {
+            if (fields.size() > limit) {
+                throw new IllegalArgumentException("A long @PresenceMask covers at most " + Long.SIZE
+                        + " fields, " + type.getName() + " has " + fields.size());
+            }
+            fields.sort(Comparator.comparing(Field::getName));
+            return fields.toArray(new Field[0]);
+        }
+        if (explicit != fields.size()) {
+            throw new IllegalArgumentException("Either every field of " + type.getName()
+                    + " declares a @PresenceBit or none does");
+        }
+
+        Field[] byBit = new Field[0];
+        for (Field field : fields) {
+            int bit = field.getAnnotation(PresenceBit.class).value();
+            if (bit < 0 || bit >= limit) {
+                throw new IllegalArgumentException("@PresenceBit out of range: " + field);
+            }
+            if (bit >= byBit.length) {
+                byBit = Arrays.copyOf(byBit, bit + 1);
+            }
+            if (byBit[bit] != null) {
+                throw new IllegalArgumentException("@PresenceBit " + bit + " declared by both " + byBit[bit].getName()
+                        + " and " + field.getName() + " in " + type.getName());
+            }
+            byBit[bit] = field;
+        }
+        return byBit;
+    }
+
+    /**
+     * Bits only number the fields a masked class declares itself, so inherited properties would be read
+     * without ever being marked present.
+     */
+    private static void rejectInheritedFields(Class<?> type) {
+        for (Class<?> parent = type.getSuperclass(); parent != null && !isPlatformClass(parent);
+             parent = parent.getSuperclass()) {
+            for (Field field : parent.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    throw new IllegalArgumentException("@PresenceMask in " + type.getName()
+                            + " does not cover inherited field " + field);
+                }
+            }
+        }
+    }
+
+    private static boolean isPlatformClass(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        return loader == null || loader == ClassLoader.getPlatformClassLoader();
+    }
+
+    /**
+     * Returns the bit standing for a property, e.g. for hand-written setters flipping their own bit.
+     *
+     * @param type The class declaring the mask
+     * @param property The field name
+     * @return The bit index
+     */
+    public static int bit(Class<?> type, String property) {
+        Field[] fields = bitFields(type);
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null && fields[i].getName().equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No property " + property + " in " + type.getName());
+    }
+
+    /**
+     * Returns the first set bit at or after the given one.
+     *
+     * @param maskField The mask field
+     * @param source The object declaring the mask
+     * @param fromBit The bit to start from
+     * @return The next set bit, or -1 if there is none
+     */
+    public static int nextSetBit(Field maskField, Object source, int fromBit) throws IllegalAccessException {
+        if (maskField.getType() == long.class) {
+            if (fromBit >= Long.SIZE) {
+                return -1;
+            }
+            long bits = maskField.getLong(source) & (-1L << fromBit);
+            return bits == 0 ? -1 : Long.numberOfTrailingZeros(bits);
+        }
+
+        BitSet bits = (BitSet) maskField.get(source);
+        return bits == null ? -1 : bits.nextSetBit(fromBit);
+    }
+
+    /**
+     * Sets every bit of the source mask in the destination mask.
+     */
+    public static void or(Field maskField, Object destination, Object source) throws IllegalAccessException {
+        if (maskField.getType() == long.class) {
+            maskField.setLong(destination, maskField.getLong(destination) | maskField.getLong(source));
+            return;
+        }
+
+        BitSet sourceBits = (BitSet) maskField.get(source);
+        if (sourceBits == null) {
+            return;
+        }
+        BitSet destinationBits = (BitSet) maskField.get(destination);
+        if (destinationBits == null) {
+            maskField.set(destination, (BitSet) sourceBits.clone());
+        } else {
+            destinationBits.or(sourceBits);
+        }
+    }
+}
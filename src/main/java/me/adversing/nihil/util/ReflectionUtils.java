@@ -44,6 +44,40 @@ public final class ReflectionUtils {
                 .findFirst();
     }
 
+    /**
+     * Finds a public one-argument setter whose parameter can hold a null value.
+     */
+    public static Optional<Method> findReferenceSetter(Class<?> clazz, String setterName) {
+        return Arrays.stream(clazz.getMethods())
+                .filter(m -> m.getName().equals(setterName))
+                .filter(m -> m.getParameterCount() == 1)
+                .filter(m -> !m.getParameterTypes()[0].isPrimitive())
+                .findFirst();
+    }
+
+    /**
+     * Finds a public no-argument {@code get} or {@code is} accessor of a property.
+     */
+    public static Optional<Method> findGetter(Class<?> clazz, String propertyName) {
+        String suffix = capitalizeFirstLetter(propertyName);
+        return Arrays.stream(clazz.getMethods())
+                .filter(m -> m.getParameterCount() == 0 && m.getReturnType() != void.class)
+                .filter(m -> m.getName().equals("get" + suffix)
+                        || m.getName().equals("is" + suffix) && m.getReturnType() == boolean.class)
+                .findFirst();
+    }
+
+    public static String setterName(String propertyName) {
+        return "set" + capitalizeFirstLetter(propertyName);
+    }
+
+    public static String capitalizeFirstLetter(String input) {
+        if (input == null || input.isEmpty()) {
+            return input;
+        }
+        return Character.toUpperCase(input.charAt(0)) + input.substring(1);
+    }
+
     public static <T> T createInstance(Class<T> clazz) throws ReflectiveOperationException {
         Constructor<T> constructor = clazz.getDeclaredConstructor();
         constructor.setAccessible(true);
@@ -0,0 +1,42 @@
+package me.adversing.nihil.util;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed set of read-write locks selected by object identity.
+ * Updates on different targets rarely share a stripe, so no global lock is needed.
+ */
+public final class StripedLocks {
+    private final ReadWriteLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+
+        this.locks = new ReadWriteLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Returns the lock guarding the given object.
+     * The stripe is chosen by identity, so equal but distinct objects do not contend.
+     *
+     * @param target The guarded object
+     * @return The read-write lock of the stripe
+     */
+    public ReadWriteLock forTarget(Object target) {
+        int hash = System.identityHashCode(target);
+        return locks[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    public int size() {
+        return locks.length;
+    }
+}
@@ -0,0 +1,136 @@
+package me.adversing.nihil.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+
+/**
+ * Compare-and-set access to the numeric version property of a target, so optimistic updates claim a target
+ * without taking a lock.
+ * <p>
+ * While an update is being applied, the version holds the bitwise complement of the version it started from.
+ * The complement is negative, so versions must never be negative themselves. An unset boxed version counts
+ * as zero.
+ */
+public final class VersionStamp {
+    private final Field field;
+    private final VarHandle handle;
+    private final Class<?> type;
+
+    private VersionStamp(Field field, VarHandle handle) {
+        this.field = field;
+        this.handle = handle;
+        this.type = field.getType();
+    }
+
+    /**
+     * @param field The version field, of type {@code int}, {@code long} or {@code short}, or their wrappers
+     * @return The stamp of the field
+     * @throws IllegalArgumentException If the field is of another type or cannot be accessed
+     */
+    public static VersionStamp of(Field field) {
+        Class<?> type = field.getType();
+        if (type != int.class && type != long.class && type != short.class
+                && type != Integer.class && type != Long.class && type != Short.class) {
+            throw new IllegalArgumentException("Version property " + field.getName() + " must be an int, long"
+                    + " or short, not " + type.getName());
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(),
+                    MethodHandles.lookup());
+            return new VersionStamp(field, lookup.unreflectVarHandle(field));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Version property " + field.getName() + " is not accessible", e);
+        }
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Waits until no update is being applied to the target.
+     *
+     * @return The version of the target
+     */
+    public long await(Object target) {
+        long version = get(target);
+        while (version < 0) {
+            Thread.onSpinWait();
+            version = get(target);
+        }
+        return version;
+    }
+
+    /**
+     * Marks the target as being updated, if its version is the expected one.
+     *
+     * @return True if the target was claimed; it must then be released with {@link #release}
+     */
+    public boolean claim(Object target, long expected) {
+        long claimed = ~expected;
+        if (type == int.class) {
+            return handle.compareAndSet(target, (int) expected, (int) claimed);
+        }
+        if (type == long.class) {
+            return handle.compareAndSet(target, expected, claimed);
+        }
+        if (type == short.class) {
+            return handle.compareAndSet(target, (short) expected, (short) claimed);
+        }
+
+        // wrappers are compared by identity, so the exact instance that was read is the one replaced
+        Object witness = handle.getVolatile(target);
+        return valueOf(witness) == expected && handle.compareAndSet(target, witness, box(claimed));
+    }
+
+    /**
+     * Ends an update claimed with {@link #claim}, publishing its writes with the new version.
+     */
+    public void release(Object target, long version) {
+        if (type == int.class) {
+            handle.setVolatile(target, (int) version);
+        } else if (type == long.class) {
+            handle.setVolatile(target, version);
+        } else if (type == short.class) {
+            handle.setVolatile(target, (short) version);
+        } else {
+            handle.setVolatile(target, box(version));
+        }
+    }
+
+    /**
+     * Checks that no update was applied to the target since its version was read, after the reads of
+     * the target that this check validates.
+     *
+     * @param version A version returned by {@link #await}
+     */
+    public boolean validate(Object target, long version) {
+        VarHandle.acquireFence();
+        return get(target) == version;
+    }
+
+    private long get(Object target) {
+        if (type == int.class) {
+            return (int) handle.getVolatile(target);
+        }
+        if (type == long.class) {
+            return (long) handle.getVolatile(target);
+        }
+        if (type == short.class) {
+            return (short) handle.getVolatile(target);
+        }
+        return valueOf(handle.getVolatile(target));
+    }
+
+    private static long valueOf(Object version) {
+        return version == null ? 0L : ((Number) version).longValue();
+    }
+
+    private Object box(long version) {
+        if (type == Integer.class) {
+            return (int) version;
+        }
+        return type == Short.class ? (Object) (short) version : (Object) version;
+    }
+}
@@ -0,0 +1,192 @@
+package me.adversing.nihil.workload;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shape of a sampled update workload, as recorded by a {@link WorkloadRecorder}: which class pairs were
+ * updated, which properties each source had set, and how large its collections were. No value is kept,
+ * so a profile can leave production and drive synthetic replays offline.
+ *
+ * @param pairs The recorded class pairs
+ */
+public record WorkloadProfile(List<Pair> pairs) {
+
+    private static final int MAGIC = 0x4E574B50; // "NWKP"
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Number of collection size buckets: bucket 0 holds empty collections, bucket {@code b} sizes in
+     * {@code [2^(b-1), 2^b)}.
+     */
+    public static final int SIZE_BUCKETS = 33;
+
+    /**
+     * Recorded updates between one source class and one target class.
+     *
+     * @param sourceClass The source class name
+     * @param targetClass The target class name
+     * @param fingerprint The plan fingerprint, to detect a layout change before replaying
+     * @param samples The number of sampled updates
+     * @param slots The properties of the plan, by slot
+     * @param patterns Sample counts by presence pattern, where bit {@code i} stands for slot {@code i}.
+     *                 Slots from 64 on are not tracked.
+     */
+    public record Pair(String sourceClass, String targetClass, long fingerprint, long samples, List<Slot> slots,
+                       Map<Long, Long> patterns) {
+
+        /**
+         * @return How many sampled updates went through each slot's handler, by slot
+         */
+        public long[] handlerInvocations() {
+            long[] invocations = new long[slots.size()];
+            patterns.forEach((pattern, count) -> {
+                for (int slot = 0; slot < Math.min(slots.size(), 64); slot++) {
+                    if ((pattern & 1L << slot) != 0 && slots.get(slot).handler() != null) {
+                        invocations[slot] += count;
+                    }
+                }
+            });
+            return invocations;
+        }
+    }
+
+    /**
+     * @param property The source property name
+     * @param type The declared type of the source field
+     * @param handler The handler class name, or null if the value is written unchanged
+     * @param sizes Sample counts by size bucket, for collection, map and array values; all zero otherwise
+     */
+    public record Slot(String property, String type, String handler, long[] sizes) {
+
+        /**
+         * @return True if values of this slot were collections, maps or arrays
+         */
+        public boolean isSized() {
+            for (long count : sizes) {
+                if (count > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param size A collection size
+     * @return The bucket holding the size
+     */
+    public static int sizeBucket(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size);
+    }
+
+    /**
+     * @return The smallest size of a bucket
+     */
+    public static int bucketMin(int bucket) {
+        return bucket == 0 ? 0 : 1 << (bucket - 1);
+    }
+
+    /**
+     * @return The largest size of a bucket
+     */
+    public static int bucketMax(int bucket) {
+        return bucket == 0 ? 0 : bucket == 32 ? Integer.MAX_VALUE : (1 << bucket) - 1;
+    }
+
+    /**
+     * Writes the profile in its binary form. The stream is not closed.
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(pairs.size());
+
+        for (Pair pair : pairs) {
+            out.writeUTF(pair.sourceClass());
+            out.writeUTF(pair.targetClass());
+            out.writeLong(pair.fingerprint());
+            out.writeLong(pair.samples());
+
+            out.writeInt(pair.slots().size());
+            for (Slot slot : pair.slots()) {
+                out.writeUTF(slot.property());
+                out.writeUTF(slot.type());
+                out.writeUTF(slot.handler() == null ? "" : slot.handler());
+                // only the buckets up to the last non-empty one are written
+                int length = slot.sizes().length;
+                while (length > 0 && slot.sizes()[length - 1] == 0) {
+                    length--;
+                }
+                out.writeByte(length);
+                for (int bucket = 0; bucket < length; bucket++) {
+                    out.writeLong(slot.sizes()[bucket]);
+                }
+            }
+
+            out.writeInt(pair.patterns().size());
+            for (Map.Entry<Long, Long> pattern : pair.patterns().entrySet()) {
+                out.writeLong(pattern.getKey());
+                out.writeLong(pattern.getValue());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a profile written by {@link #writeTo}. The stream is not closed.
+     *
+     * @throws IOException If the stream cannot be read or does not hold a profile
+     */
+    public static WorkloadProfile readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a workload profile");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported workload profile version: " + version);
+        }
+
+        int pairCount = in.readInt();
+        List<Pair> pairs = new ArrayList<>(pairCount);
+        for (int i = 0; i < pairCount; i++) {
+            String sourceClass = in.readUTF();
+            String targetClass = in.readUTF();
+            long fingerprint = in.readLong();
+            long samples = in.readLong();
+
+            int slotCount = in.readInt();
+            List<Slot> slots = new ArrayList<>(slotCount);
+            for (int s = 0; s < slotCount; s++) {
+                String property = in.readUTF();
+                String type = in.readUTF();
+                String handler = in.readUTF();
+                long[] sizes = new long[SIZE_BUCKETS];
+                int length = in.readUnsignedByte();
+                for (int bucket = 0; bucket < length; bucket++) {
+                    sizes[bucket] = in.readLong();
+                }
+                slots.add(new Slot(property, type, handler.isEmpty() ? null : handler, sizes));
+            }
+
+            int patternCount = in.readInt();
+            Map<Long, Long> patterns = new LinkedHashMap<>();
+            for (int p = 0; p < patternCount; p++) {
+                patterns.put(in.readLong(), in.readLong());
+            }
+            pairs.add(new Pair(sourceClass, targetClass, fingerprint, samples, List.copyOf(slots),
+                    Collections.unmodifiableMap(patterns)));
+        }
+        return new WorkloadProfile(List.copyOf(pairs));
+    }
+}
@@ -0,0 +1,172 @@
+package me.adversing.nihil.workload;
+
+import me.adversing.nihil.plan.PropertyPlan;
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.util.PresenceMasks;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples updates into a {@link WorkloadProfile}, recording the shape of each sampled source but none of its
+ * values. Unsampled updates only pay for one random draw; a sampled one reads its source once more.
+ * <p>
+ * Presence patterns are tracked per class pair up to {@value #MAX_PATTERNS} distinct patterns; samples with
+ * a new pattern beyond that are counted but their pattern is dropped.
+ * <p>
+ * Only updates reading a source object through the plan of its class pair are sampled. Updater builder
+ * updates are not, since their mappings and transformers are not part of that plan and could not be replayed
+ * from the pair's shape, and neither are slot values applied without a source, such as patches.
+ */
+public final class WorkloadRecorder {
+
+    static final int MAX_PATTERNS = 4096;
+
+    private final int samplingInterval;
+    private final Map<UpdatePlan, PairShape> pairs = new ConcurrentHashMap<>();
+
+    /**
+     * @param samplingInterval Records one update out of this many on average; 1 records every update
+     */
+    public WorkloadRecorder(int samplingInterval) {
+        if (samplingInterval <= 0) {
+            throw new IllegalArgumentException("samplingInterval must be positive");
+        }
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * @return True if the current update should be recorded
+     */
+    public boolean shouldSample() {
+        return samplingInterval == 1 || ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+    }
+
+    /**
+     * Records the shape of a source applied through a plan.
+     *
+     * @param plan The plan of the update
+     * @param source The source object
+     */
+    public void record(UpdatePlan plan, Object source) {
+        PairShape shape = pairs.get(plan);
+        if (shape == null) {
+            shape = pairs.computeIfAbsent(plan, PairShape::new);
+        }
+
+        PropertyPlan[] properties = plan.properties();
+        long pattern = 0;
+        try {
+            if (plan.hasPresenceMask()) {
+                for (int bit = PresenceMasks.nextSetBit(plan.getPresenceField(), source, 0); bit >= 0;
+                     bit = PresenceMasks.nextSetBit(plan.getPresenceField(), source, bit + 1)) {
+                    int slot = plan.slotForBit(bit);
+                    if (slot >= 0) {
+                        pattern |= shape.record(slot, properties[slot].read(source));
+                    }
+                }
+            } else {
+                for (PropertyPlan property : properties) {
+                    Object value = property.read(source);
+                    if (value != null) {
+                        pattern |= shape.record(property.getSlot(), value);
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            // the update itself has just read these properties, so this only happens if an accessor changed its mind
+            return;
+        }
+        shape.pattern(pattern);
+    }
+
+    /**
+     * @return The profile of the updates sampled so far
+     */
+    public WorkloadProfile snapshot() {
+        List<WorkloadProfile.Pair> profiles = new ArrayList<>();
+        pairs.forEach((plan, shape) -> profiles.add(shape.snapshot(plan)));
+        return new WorkloadProfile(List.copyOf(profiles));
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public void reset() {
+        pairs.clear();
+    }
+
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    private static final class PairShape {
+        private final LongAdder samples = new LongAdder();
+        private final Map<Long, LongAdder> patterns = new ConcurrentHashMap<>();
+        private final AtomicLongArray sizes;
+
+        private PairShape(UpdatePlan plan) {
+            this.sizes = new AtomicLongArray(plan.size() * WorkloadProfile.SIZE_BUCKETS);
+        }
+
+        /**
+         * @return The pattern bit of the slot
+         */
+        private long record(int slot, Object value) {
+            int size = sizeOf(value);
+            if (size >= 0) {
+                sizes.incrementAndGet(slot * WorkloadProfile.SIZE_BUCKETS + WorkloadProfile.sizeBucket(size));
+            }
+            return slot < 64 ? 1L << slot : 0;
+        }
+
+        private void pattern(long pattern) {
+            samples.increment();
+            LongAdder count = patterns.get(pattern);
+            if (count == null) {
+                if (patterns.size() >= MAX_PATTERNS) {
+                    return;
+                }
+                count = patterns.computeIfAbsent(pattern, key -> new LongAdder());
+            }
+            count.increment();
+        }
+
+        private WorkloadProfile.Pair snapshot(UpdatePlan plan) {
+            PropertyPlan[] properties = plan.properties();
+            List<WorkloadProfile.Slot> slots = new ArrayList<>(properties.length);
+            for (PropertyPlan property : properties) {
+                long[] counts = new long[WorkloadProfile.SIZE_BUCKETS];
+                for (int bucket = 0; bucket < counts.length; bucket++) {
+                    counts[bucket] = sizes.get(property.getSlot() * WorkloadProfile.SIZE_BUCKETS + bucket);
+                }
+                slots.add(new WorkloadProfile.Slot(property.getSourceProperty(),
+                        property.getSourceField().getGenericType().getTypeName(),
+                        property.hasHandler() ? property.getHandlerClass().getName() : null, counts));
+            }
+
+            Map<Long, Long> counts = new LinkedHashMap<>();
+            patterns.forEach((pattern, count) -> counts.put(pattern, count.sum()));
+            return new WorkloadProfile.Pair(plan.getSourceClass().getName(), plan.getTargetClass().getName(),
+                    plan.fingerprint(), samples.sum(), List.copyOf(slots), counts);
+        }
+
+        private static int sizeOf(Object value) {
+            if (value instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (value instanceof Map<?, ?> map) {
+                return map.size();
+            }
+            return value != null && value.getClass().isArray() ? Array.getLength(value) : -1;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package me.adversing.nihil;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilImpl;
+import me.adversing.nihil.stats.NihilStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A provider written against the original three-method interface must keep compiling and working.
+ */
+class NihilDefaultsTest {
+
+    static class User {
+        String name;
+        String email;
+    }
+
+    static class Patch {
+        String name;
+        String email;
+
+        Patch(String name, String email) {
+            this.name = name;
+            this.email = email;
+        }
+    }
+
+    static final class BaselineNihil implements Nihil {
+        private final Nihil delegate = new NihilImpl(NihilConfig.defaults());
+
+        @Override
+        public <T, S> T update(T target, S source) {
+            return delegate.update(target, source);
+        }
+
+        @Override
+        public <T, S> T update(T target, S source, Map<Class<?>, Object> dependencies) {
+            return delegate.update(target, source, dependencies);
+        }
+
+        @Override
+        public <T> UpdaterBuilder<T> forTarget(T target) {
+            return delegate.forTarget(target);
+        }
+    }
+
+    private final Nihil nihil = new BaselineNihil();
+
+    @Test
+    void mergeAndMapFallBackToUpdates() {
+        User user = nihil.update(new User(), new Patch("ann", null), new Patch(null, "ann@example.com"),
+                new Patch("bob", null));
+        assertEquals("bob", user.name);
+        assertEquals("ann@example.com", user.email);
+
+        List<User> mapped = nihil.mapAll(List.of(new Patch("eve", "eve@example.com")), User.class);
+        assertEquals("eve", mapped.get(0).name);
+    }
+
+    @Test
+    void introspectionIsUnsupportedButReadsAndStatsWork() {
+        assertThrows(UnsupportedOperationException.class, () -> nihil.plan(Patch.class, User.class));
+        assertThrows(UnsupportedOperationException.class, () -> nihil.tryUpdate(new User(), new Patch("a", "b")));
+        assertSame(NihilStats.EMPTY, nihil.stats());
+        assertEquals("ann", nihil.read(nihil.update(new User(), new Patch("ann", null)), user -> user.name));
+    }
+}
@@ -0,0 +1,148 @@
+package me.adversing.nihil.coalesce;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.annotation.PresenceMask;
+import me.adversing.nihil.annotation.UpdateProperty;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.impl.NihilImpl;
+import me.adversing.nihil.intf.IPropertyHandler;
+import me.adversing.nihil.util.PresenceMasks;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatchCoalescerTest {
+
+    static class Order {
+        Integer status;
+        String note;
+        String owner;
+    }
+
+    static class StatusPatch {
+        Integer status;
+        String note;
+
+        StatusPatch(Integer status, String note) {
+            this.status = status;
+            this.note = note;
+        }
+    }
+
+    record StatusRecord(Integer status, String owner) {}
+
+    static class SparsePatch {
+        @PresenceMask
+        long present;
+        Integer status;
+        String note;
+    }
+
+    static class Failing implements IPropertyHandler<String> {
+        @Override
+        public Object process(String value) {
+            throw new IllegalStateException("rejected " + value);
+        }
+    }
+
+    static class FailingPatch {
+        @UpdateProperty(targetProperty = "note", handler = Failing.class)
+        String note = "bad";
+    }
+
+    private final Nihil nihil = new NihilImpl(NihilConfig.defaults());
+
+    @Test
+    void lastWriterWinsAcrossPatchClasses() {
+        PatchCoalescer<Long, Order> coalescer = PatchCoalescer.<Long, Order>builder(nihil).build();
+        Order order = new Order();
+
+        coalescer.submit(1L, order, new StatusPatch(1, "first"));
+        coalescer.submit(1L, order, new StatusRecord(2, "ann"));
+        coalescer.submit(1L, order, new StatusPatch(3, null));
+        assertNull(order.status);
+        coalescer.flush();
+
+        assertEquals(3, order.status);
+        assertEquals("first", order.note);
+        assertEquals("ann", order.owner);
+        assertEquals(3, coalescer.getSubmittedCount());
+        assertEquals(1, coalescer.getAppliedCount());
+    }
+
+    @Test
+    void presentNullsOverrideEarlierValues() {
+        PatchCoalescer<Long, Order> coalescer = PatchCoalescer.<Long, Order>builder(nihil).build();
+        Order order = new Order();
+
+        SparsePatch cleared = new SparsePatch();
+        cleared.present = 1L << PresenceMasks.bit(SparsePatch.class, "note");
+        coalescer.submit(1L, order, new StatusPatch(1, "kept until cleared"));
+        coalescer.submit(1L, order, cleared);
+        coalescer.flush();
+
+        assertEquals(1, order.status);
+        assertNull(order.note);
+    }
+
+    @Test
+    void nullsAreMergedWhenTheConfigurationKeepsThem() {
+        Nihil keepingNulls = new NihilImpl(NihilConfig.builder().withIgnoreNull(false).build());
+        PatchCoalescer<Long, Order> coalescer = PatchCoalescer.<Long, Order>builder(keepingNulls).build();
+        Order order = new Order();
+        order.note = "old";
+
+        coalescer.submit(1L, order, new StatusPatch(1, "first"));
+        coalescer.submit(1L, order, new StatusPatch(2, null));
+        coalescer.flush();
+
+        assertEquals(2, order.status);
+        assertNull(order.note);
+    }
+
+    @Test
+    void explicitFlushThrowsAfterCallingTheFailureHandler() {
+        List<Long> failed = new ArrayList<>();
+        PatchCoalescer<Long, Order> coalescer = PatchCoalescer.<Long, Order>builder(nihil)
+                .onFailure((key, target, failure) -> failed.add(key))
+                .build();
+        Order good = new Order();
+
+        coalescer.submit(1L, new Order(), new FailingPatch());
+        coalescer.submit(2L, good, new StatusPatch(7, null));
+
+        assertThrows(PropertyUpdateException.class, coalescer::flush);
+        assertEquals(List.of(1L), failed);
+        assertEquals(7, good.status);
+        assertEquals(0, coalescer.getPendingTargets());
+    }
+
+    @Test
+    void scheduledFlushReportsFailures() throws InterruptedException {
+        CountDownLatch reported = new CountDownLatch(1);
+        Order order = new Order();
+        List<Object> targets = new ArrayList<>();
+        try (PatchCoalescer<Long, Order> coalescer = PatchCoalescer.<Long, Order>builder(nihil)
+                .withFlushInterval(Duration.ofMillis(5))
+                .onFailure((key, target, failure) -> {
+                    targets.add(target);
+                    reported.countDown();
+                })
+                .build()) {
+            coalescer.submit(1L, order, new FailingPatch());
+            assertTrue(reported.await(5, TimeUnit.SECONDS));
+        }
+        assertSame(order, targets.get(0));
+    }
+}
@@ -0,0 +1,166 @@
+package me.adversing.nihil.codec;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.CodecException;
+import me.adversing.nihil.impl.NihilImpl;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PatchCodecTest {
+
+    enum Status { NEW, SHIPPED }
+
+    static class Address {
+        String city;
+        Status status;
+    }
+
+    static class Gadget {
+        String command;
+    }
+
+    static class Order {
+        String name;
+        Integer quantity;
+        Status status;
+        LocalDate due;
+        BigDecimal total;
+        List<Address> addresses;
+        Map<String, Integer> counts;
+        Object payload;
+    }
+
+    static class OrderPatch {
+        String name;
+        Integer quantity;
+        Status status;
+        LocalDate due;
+        BigDecimal total;
+        List<Address> addresses;
+        Map<String, Integer> counts;
+        Object payload;
+    }
+
+    private final Nihil nihil = new NihilImpl(NihilConfig.builder().build());
+
+    @Test
+    void roundTripsEveryPresentValue() {
+        Address address = new Address();
+        address.city = "Turin";
+        address.status = Status.SHIPPED;
+
+        OrderPatch patch = new OrderPatch();
+        patch.name = "order";
+        patch.quantity = -3;
+        patch.status = Status.NEW;
+        patch.due = LocalDate.of(2026, 10, 19);
+        patch.total = new BigDecimal("12.50");
+        patch.addresses = List.of(address);
+        patch.counts = Map.of("a", 1);
+
+        PatchCodec<OrderPatch, Order> codec = PatchCodec.of(nihil, OrderPatch.class, Order.class);
+        Order order = codec.decodeInto(ByteBuffer.wrap(codec.encode(patch)), new Order());
+
+        assertEquals("order", order.name);
+        assertEquals(-3, order.quantity);
+        assertEquals(Status.NEW, order.status);
+        assertEquals(LocalDate.of(2026, 10, 19), order.due);
+        assertEquals(new BigDecimal("12.50"), order.total);
+        assertEquals("Turin", order.addresses.get(0).city);
+        assertEquals(Status.SHIPPED, order.addresses.get(0).status);
+        assertEquals(Map.of("a", 1), order.counts);
+        assertNull(order.payload);
+    }
+
+    @Test
+    void nullsAreEncodedWhenTheConfigurationKeepsThem() {
+        Nihil keepingNulls = new NihilImpl(NihilConfig.builder().withIgnoreNull(false).build());
+        PatchCodec<OrderPatch, Order> codec = PatchCodec.of(keepingNulls, OrderPatch.class, Order.class);
+        OrderPatch patch = new OrderPatch();
+        patch.name = "order";
+        Order order = new Order();
+        order.quantity = 3;
+
+        codec.decodeInto(ByteBuffer.wrap(codec.encode(patch)), order);
+
+        assertEquals("order", order.name);
+        assertNull(order.quantity);
+    }
+
+    @Test
+    void rejectsClassesNotReachableFromThePlan() {
+        Gadget gadget = new Gadget();
+        gadget.command = "run";
+        OrderPatch patch = new OrderPatch();
+        patch.payload = gadget;
+
+        PatchCodec<OrderPatch, Order> codec = PatchCodec.of(nihil, OrderPatch.class, Order.class);
+        byte[] bytes = codec.encode(patch);
+        assertThrows(CodecException.class, () -> codec.decode(ByteBuffer.wrap(bytes)));
+
+        PatchCodec<OrderPatch, Order> widened = PatchCodec.of(nihil, OrderPatch.class, Order.class,
+                ReachableClasses.of(codec.getPlan()).or(type -> type == Gadget.class));
+        Order order = widened.decodeInto(ByteBuffer.wrap(bytes), new Order());
+        assertEquals("run", assertInstanceOf(Gadget.class, order.payload).command);
+    }
+
+    @Test
+    void rejectsLengthsBeyondTheInput() {
+        PatchCodec<OrderPatch, Order> codec = PatchCodec.of(nihil, OrderPatch.class, Order.class);
+        byte[] bytes = nameOnly(codec);
+        int lengthIndex = bytes.length - 4; // [tag][length]["abc"]
+
+        byte[] tooLong = bytes.clone();
+        tooLong[lengthIndex] = 0x7F;
+        assertThrows(CodecException.class, () -> codec.decode(ByteBuffer.wrap(tooLong)));
+
+        // a ten-byte variable-length integer decoding to a negative length
+        byte[] negative = Arrays.copyOf(bytes, lengthIndex + 10);
+        Arrays.fill(negative, lengthIndex, lengthIndex + 9, (byte) 0xFF);
+        negative[lengthIndex + 9] = 0x01;
+        assertThrows(CodecException.class, () -> codec.decode(ByteBuffer.wrap(negative)));
+    }
+
+    @Test
+    void doesNotReadPastTheLimitOfASlice() {
+        PatchCodec<OrderPatch, Order> codec = PatchCodec.of(nihil, OrderPatch.class, Order.class);
+        byte[] bytes = nameOnly(codec);
+
+        // the last byte of the string is still in the backing array, but outside the slice
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice();
+        assertThrows(CodecException.class, () -> codec.decode(truncated));
+        assertThrows(CodecException.class, () -> codec.decode(ByteBuffer.wrap(bytes, 0, 4).slice()));
+    }
+
+    @Test
+    void rejectsDeeplyNestedValues() {
+        PatchCodec<OrderPatch, Order> codec = PatchCodec.of(nihil, OrderPatch.class, Order.class);
+        Object nested = List.of();
+        for (int i = 0; i < 100; i++) {
+            nested = List.of(nested);
+        }
+        OrderPatch patch = new OrderPatch();
+        patch.payload = nested;
+
+        byte[] bytes = codec.encode(patch);
+        assertThrows(CodecException.class, () -> codec.decode(ByteBuffer.wrap(bytes)));
+    }
+
+    private static byte[] nameOnly(PatchCodec<OrderPatch, Order> codec) {
+        OrderPatch patch = new OrderPatch();
+        patch.name = "abc";
+        return codec.encode(patch);
+    }
+}
@@ -0,0 +1,53 @@
+package me.adversing.nihil.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertyChangeBusTest {
+
+    @Test
+    void closeDeliversEveryPublishedChange() {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        PropertyChangeBus bus = PropertyChangeBus.builder()
+                .addListener((target, property, oldValue, newValue) -> received.add(newValue))
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bus.publish(this, "count", i, i + 1));
+        }
+        bus.close();
+
+        assertEquals(100, bus.getDeliveredCount());
+        assertEquals(100, received.size());
+        assertEquals(1, received.get(0));
+    }
+
+    @Test
+    void interruptedCloseKeepsTheInterruptStatus() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        PropertyChangeBus bus = PropertyChangeBus.builder()
+                .addListener((target, property, oldValue, newValue) -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .build();
+        bus.publish(this, "count", 0, 1);
+
+        Thread.currentThread().interrupt();
+        bus.close();
+        assertTrue(Thread.interrupted());
+
+        release.countDown();
+        bus.close();
+        assertEquals(1, bus.getDeliveredCount());
+    }
+}
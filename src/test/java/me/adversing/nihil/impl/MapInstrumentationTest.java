@@ -0,0 +1,67 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.plan.SlotValues;
+import me.adversing.nihil.stats.NihilStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MapInstrumentationTest {
+
+    static class UserDTO {
+        String name = "Jane";
+        String email = "jane@example.com";
+        String nickname = "J";
+    }
+
+    static class User {
+        String name;
+        String email;
+    }
+
+    record UserView(String name, String email) {}
+
+    record Entry(Object target, SlotValues values) {}
+
+    private final List<Entry> journal = new ArrayList<>();
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder()
+            .withStatistics(true)
+            .withJournal((target, plan, values) -> journal.add(new Entry(target, values)))
+            .build());
+
+    @Test
+    void mappingToABeanIsJournaledAndCountedLikeAnUpdate() {
+        User user = nihil.map(new UserDTO(), User.class);
+        nihil.update(new User(), new UserDTO());
+
+        assertEquals(2, journal.size());
+        assertSame(user, journal.get(0).target());
+        assertEquals(journal.get(1).values().presentCount(), journal.get(0).values().presentCount());
+        assertEquals(2, updates(User.class));
+    }
+
+    @Test
+    void mappingToARecordIsJournaledAndCounted() {
+        UserView view = nihil.map(new UserDTO(), UserView.class);
+
+        assertEquals("Jane", view.name());
+        assertEquals(1, journal.size());
+        assertSame(view, journal.get(0).target());
+        // nickname has no component, so it is neither written nor journaled
+        assertEquals(2, journal.get(0).values().presentCount());
+        assertEquals(1, updates(UserView.class));
+    }
+
+    private long updates(Class<?> targetClass) {
+        NihilStats stats = nihil.stats();
+        return stats.pairs().stream()
+                .filter(pair -> pair.targetClass() == targetClass)
+                .mapToLong(NihilStats.PairStats::updates)
+                .sum();
+    }
+}
@@ -0,0 +1,116 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.annotation.PresenceMask;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.stats.NihilStats;
+import me.adversing.nihil.util.PresenceMasks;
+import me.adversing.nihil.workload.WorkloadProfile;
+import me.adversing.nihil.workload.WorkloadRecorder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MergeTest {
+
+    static class Defaults {
+        String theme = "light";
+        String language = "en";
+        String timezone = "UTC";
+    }
+
+    static class TenantOverrides {
+        String theme = "dark";
+        String language;
+    }
+
+    static class UserPatch {
+        @PresenceMask
+        long present;
+        String language;
+        String timezone;
+    }
+
+    static class Settings {
+        String theme;
+        String language;
+        String timezone;
+
+        public void setTimezone(String timezone) {
+            if ("invalid".equals(timezone)) {
+                throw new IllegalArgumentException("unknown timezone");
+            }
+            this.timezone = timezone;
+        }
+    }
+
+    private final WorkloadRecorder recorder = new WorkloadRecorder(1);
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder()
+            .withStatistics(true)
+            .withWorkloadRecorder(recorder)
+            .build());
+
+    @Test
+    void laterSourcesTakePrecedence() {
+        Settings settings = nihil.update(new Settings(), new Defaults(), new TenantOverrides());
+
+        assertEquals("dark", settings.theme);
+        // a null value does not override a lower source
+        assertEquals("en", settings.language);
+        assertEquals("UTC", settings.timezone);
+    }
+
+    @Test
+    void valueMarkedPresentWinsEvenWhenNull() {
+        UserPatch patch = new UserPatch();
+        patch.timezone = "Europe/Rome";
+        patch.present = 1L << PresenceMasks.bit(UserPatch.class, "language")
+                | 1L << PresenceMasks.bit(UserPatch.class, "timezone");
+
+        Settings settings = nihil.update(new Settings(), new Defaults(), new TenantOverrides(), patch);
+
+        assertEquals("dark", settings.theme);
+        assertNull(settings.language);
+        assertEquals("Europe/Rome", settings.timezone);
+    }
+
+    @Test
+    void mergeIsCountedAsOneUpdateAndSamplesEverySource() {
+        nihil.update(new Settings(), new Defaults(), new TenantOverrides());
+
+        NihilStats.PairStats pair = pair(TenantOverrides.class);
+        assertEquals(1, pair.updates());
+        assertEquals(3, pair.propertiesWritten());
+        assertNull(pair(Defaults.class));
+
+        Set<String> sampled = recorder.snapshot().pairs().stream()
+                .map(WorkloadProfile.Pair::sourceClass)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(Defaults.class.getName(), TenantOverrides.class.getName()), sampled);
+    }
+
+    @Test
+    void failedMergeIsCounted() {
+        UserPatch patch = new UserPatch();
+        patch.timezone = "invalid";
+        patch.present = 1L << PresenceMasks.bit(UserPatch.class, "timezone");
+
+        assertThrows(PropertyUpdateException.class,
+                () -> nihil.merge(new Settings(), Arrays.asList(new Defaults(), patch), Map.of()));
+
+        assertEquals(1, pair(UserPatch.class).failures());
+    }
+
+    private NihilStats.PairStats pair(Class<?> sourceClass) {
+        List<NihilStats.PairStats> pairs = nihil.stats().pairs();
+        return pairs.stream().filter(pair -> pair.sourceClass() == sourceClass).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,127 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.ConcurrentUpdateException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticUpdateTest {
+
+    static class Account {
+        long version;
+        Integer low;
+        Integer high;
+    }
+
+    static class Change {
+        Integer low;
+        Integer high;
+
+        Change(int value) {
+            this.low = value;
+            this.high = value;
+        }
+    }
+
+    static class VersionedChange {
+        Long version;
+        Integer low;
+
+        VersionedChange(long version, int low) {
+            this.version = version;
+            this.low = low;
+        }
+    }
+
+    private static Nihil optimistic(int retries) {
+        return new NihilImpl(NihilConfig.builder()
+                .withConcurrencyMode(NihilConfig.ConcurrencyMode.OPTIMISTIC)
+                .withVersionProperty("version")
+                .withMaxOptimisticRetries(retries)
+                .build());
+    }
+
+    @Test
+    void everyUpdateBumpsTheVersionOnce() {
+        Nihil nihil = optimistic(3);
+        Account account = new Account();
+
+        nihil.update(account, new Change(1));
+        nihil.update(account, new Change(2));
+
+        assertEquals(2, account.version);
+        assertEquals(2, account.low);
+    }
+
+    @Test
+    void sourceVersionIsAnExpectation() {
+        Nihil nihil = optimistic(3);
+        Account account = new Account();
+        account.version = 5;
+
+        nihil.update(account, new VersionedChange(5, 1));
+        ConcurrentUpdateException stale = assertThrows(ConcurrentUpdateException.class,
+                () -> nihil.update(account, new VersionedChange(5, 2)));
+
+        assertEquals(1, account.low);
+        assertEquals(6, account.version);
+        assertEquals(5, stale.getExpectedVersion());
+        assertEquals(6, stale.getActualVersion());
+    }
+
+    @Test
+    void concurrentUpdatesAreNeitherLostNorSeenHalfApplied() throws InterruptedException {
+        Nihil nihil = optimistic(Integer.MAX_VALUE);
+        Account account = new Account();
+        int writers = 4;
+        int updates = 20_000;
+        AtomicBoolean torn = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                if (nihil.read(account, a -> a.low == null ? a.high != null : !a.low.equals(a.high))) {
+                    torn.set(true);
+                }
+            }
+        });
+        reader.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int offset = w * updates;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < updates; i++) {
+                    nihil.update(account, new Change(offset + i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        done.set(true);
+        reader.join();
+
+        assertEquals((long) writers * updates, account.version);
+        assertEquals(account.low, account.high);
+        assertFalse(torn.get());
+    }
+}
@@ -0,0 +1,96 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.config.NihilConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveCopyTest {
+
+    static class CounterDTO {
+        private long total = 1_000_000_007L;
+        private int hits = 100_000;
+        private double ratio = 0.25;
+        private boolean active = true;
+
+        public long getTotal() { return total; }
+        public int getHits() { return hits; }
+        public double getRatio() { return ratio; }
+        public boolean isActive() { return active; }
+    }
+
+    static class Counter {
+        private long total;
+        private int hits;
+        private double ratio;
+        private boolean active;
+        int setterCalls;
+
+        public void setTotal(long total) { this.total = total; setterCalls++; }
+        public void setHits(int hits) { this.hits = hits; setterCalls++; }
+        public void setRatio(double ratio) { this.ratio = ratio; setterCalls++; }
+        public void setActive(boolean active) { this.active = active; setterCalls++; }
+    }
+
+    static class TagsDTO {
+        List<String> tags;
+    }
+
+    static class Tags {
+        List<String> tags;
+    }
+
+    @Test
+    void plainUpdatesCopyPrimitivesThroughTheStrategy() {
+        for (NihilConfig.AccessStrategy strategy : NihilConfig.AccessStrategy.values()) {
+            Counter counter = update(NihilConfig.builder().withAccessStrategy(strategy));
+
+            assertCopied(counter);
+            assertEquals(strategy == NihilConfig.AccessStrategy.FIELD ? 0 : 4, counter.setterCalls, strategy.name());
+        }
+    }
+
+    @Test
+    void journaledUpdatesInvokePrimitiveSettersWithBoxedValues() {
+        // journaling needs the values as objects, so these writes take the boxed path
+        Counter counter = update(NihilConfig.builder()
+                .withAccessStrategy(NihilConfig.AccessStrategy.METHOD)
+                .withJournal((target, plan, values) -> {}));
+
+        assertCopied(counter);
+        assertEquals(4, counter.setterCalls);
+    }
+
+    @Test
+    void alternatingValueClassesKeepTheirBindings() {
+        NihilImpl nihil = new NihilImpl(NihilConfig.builder().withStatistics(true).build());
+        Tags target = new Tags();
+
+        for (List<String> tags : List.of(new ArrayList<>(List.of("a")), new LinkedList<>(List.of("b")),
+                List.of("c"), new ArrayList<>(List.of("d")))) {
+            TagsDTO source = new TagsDTO();
+            source.tags = tags;
+            nihil.update(target, source);
+            assertEquals(tags, target.tags);
+        }
+        assertTrue(nihil.stats().metadataCacheHitRatio() > 0);
+    }
+
+    private static Counter update(NihilConfig.Builder config) {
+        Counter counter = new Counter();
+        new NihilImpl(config.build()).update(counter, new CounterDTO());
+        return counter;
+    }
+
+    private static void assertCopied(Counter counter) {
+        assertEquals(1_000_000_007L, counter.total);
+        assertEquals(100_000, counter.hits);
+        assertEquals(0.25, counter.ratio);
+        assertTrue(counter.active);
+    }
+}
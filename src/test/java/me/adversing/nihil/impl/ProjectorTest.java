@@ -0,0 +1,95 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.config.NihilConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectorTest {
+
+    static class Address {
+        String street = "Via Roma 1";
+        String city = "Turin";
+    }
+
+    static class Tag {
+        String label;
+        int weight;
+
+        Tag() {}
+
+        Tag(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    static class User {
+        Long id = 7L;
+        String name = "Jane";
+        String email = "jane@example.com";
+        Address address = new Address();
+        List<Tag> tags = List.of(new Tag("admin", 2), new Tag("ops", 1));
+    }
+
+    static class AddressView {
+        String street;
+        String city;
+    }
+
+    static class TagView {
+        String label;
+        int weight;
+    }
+
+    static class UserView {
+        Long id;
+        String name;
+        String email;
+        AddressView address;
+        List<TagView> tags;
+    }
+
+    record Summary(Long id, String name) {}
+
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder().build());
+
+    @Test
+    void copiesOnlySelectedPropertiesIntoADto() {
+        UserView view = nihil.project(new User(), "id,address.city,tags.label", UserView.class);
+
+        assertEquals(7L, view.id);
+        assertNull(view.name);
+        assertNull(view.email);
+        assertEquals("Turin", view.address.city);
+        assertNull(view.address.street);
+        assertEquals(List.of("admin", "ops"), view.tags.stream().map(tag -> tag.label).toList());
+        assertEquals(0, view.tags.get(0).weight);
+    }
+
+    @Test
+    void projectsIntoRecordsAndMaps() {
+        Summary summary = nihil.project(new User(), "name", Summary.class);
+        assertEquals(new Summary(null, "Jane"), summary);
+
+        Map<String, Object> json = nihil.project(new User(), "id,address.city");
+        assertEquals(Map.of("id", 7L, "address", Map.of("city", "Turin")), json);
+    }
+
+    @Test
+    void rejectsUnknownProperties() {
+        assertThrows(IllegalArgumentException.class, () -> nihil.project(new User(), "id,missing", UserView.class));
+        assertThrows(IllegalArgumentException.class, () -> nihil.project(new User(), "address.zip"));
+    }
+
+    @Test
+    void nullSourcesProjectToNull() {
+        assertNull(nihil.project(null, "id", UserView.class));
+        assertNull(nihil.project(null, "id"));
+    }
+}
@@ -0,0 +1,82 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.result.UpdateTransaction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionalUpdateTest {
+
+    static class OrderPatch {
+        String status = "SHIPPED";
+        String note = "left at door";
+        Integer quantity = 3;
+    }
+
+    static class Order {
+        String status = "NEW";
+        String note;
+        int quantity = 1;
+
+        public void setQuantity(int quantity) {
+            if (quantity < 0) {
+                throw new IllegalArgumentException("negative quantity");
+            }
+            this.quantity = quantity;
+        }
+    }
+
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder().build());
+
+    @Test
+    void failedUpdateRestoresTheWrittenProperties() {
+        Order order = new Order();
+        OrderPatch patch = new OrderPatch();
+        patch.quantity = -1;
+
+        // status and note precede quantity, so they are written before it fails
+        assertThrows(PropertyUpdateException.class, () -> nihil.updateTransactional(order, patch));
+
+        assertEquals("NEW", order.status);
+        assertNull(order.note);
+        assertEquals(1, order.quantity);
+    }
+
+    @Test
+    void rollbackRestoresPreviousValuesOnce() {
+        Order order = new Order();
+
+        UpdateTransaction<Order> tx = nihil.updateTransactional(order, new OrderPatch());
+        assertEquals(3, tx.written());
+        assertEquals("SHIPPED", order.status);
+        assertFalse(tx.isRolledBack());
+
+        tx.rollback();
+
+        assertTrue(tx.isRolledBack());
+        assertEquals("NEW", order.status);
+        assertNull(order.note);
+        assertEquals(1, order.quantity);
+        assertThrows(IllegalStateException.class, tx::rollback);
+    }
+
+    @Test
+    void rollbackOnlyTouchesWrittenProperties() {
+        Order order = new Order();
+        OrderPatch patch = new OrderPatch();
+        patch.note = null;
+
+        UpdateTransaction<Order> tx = nihil.updateTransactional(order, patch);
+        order.note = "set after the update";
+        tx.rollback();
+
+        assertEquals("NEW", order.status);
+        assertEquals("set after the update", order.note);
+    }
+}
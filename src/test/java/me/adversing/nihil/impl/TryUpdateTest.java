@@ -0,0 +1,81 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.result.PropertyError;
+import me.adversing.nihil.result.UpdateResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TryUpdateTest {
+
+    static class PersonRow {
+        String name = "Jane";
+        Integer age = -1;
+        String email = "jane@example.com";
+    }
+
+    static class Person {
+        String name;
+        int age;
+        String email;
+
+        public void setAge(int age) {
+            if (age < 0) {
+                throw new IllegalArgumentException("negative age");
+            }
+            this.age = age;
+        }
+    }
+
+    static class LooseRow {
+        String name = "Jane";
+        String age = "forty";
+    }
+
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder().build());
+
+    @Test
+    void failingPropertyDoesNotStopTheOthers() {
+        UpdateResult<Person> result = nihil.tryUpdate(new Person(), new PersonRow());
+
+        assertFalse(result.isSuccess());
+        assertEquals(2, result.written());
+        assertEquals("Jane", result.target().name);
+        assertEquals("jane@example.com", result.target().email);
+        assertEquals(0, result.target().age);
+        assertEquals(List.of(new PropertyError("age", IllegalArgumentException.class, "negative age")),
+                result.errors());
+    }
+
+    @Test
+    void valueTheFieldCannotHoldIsReportedWithoutWriting() {
+        Person person = new Person();
+        person.age = 40;
+
+        UpdateResult<Person> result = new NihilImpl(NihilConfig.builder()
+                .withAccessStrategy(NihilConfig.AccessStrategy.FIELD)
+                .build()).tryUpdate(person, new LooseRow());
+
+        assertEquals(1, result.written());
+        assertEquals(40, person.age);
+        assertEquals("age", result.errors().get(0).property());
+        assertEquals(ClassCastException.class, result.errors().get(0).causeType());
+    }
+
+    @Test
+    void cleanSourceSucceeds() {
+        PersonRow row = new PersonRow();
+        row.age = 40;
+
+        UpdateResult<Person> result = nihil.tryUpdate(new Person(), row);
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.written());
+        assertEquals(40, result.target().age);
+    }
+}
@@ -0,0 +1,72 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.config.NihilConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpdaterBuilderTest {
+
+    static class UserDTO {
+        private String email = "Jane@Example.com";
+        private String deptId = "R&D";
+
+        public String getEmail() { return email; }
+        public String getDeptId() { return deptId; }
+    }
+
+    static class User {
+        private String email;
+        private String department;
+
+        public void setEmail(String email) { this.email = email; }
+        public void setDepartment(String department) { this.department = department; }
+    }
+
+    private final Nihil nihil = new NihilImpl(NihilConfig.builder().build());
+
+    @Test
+    void mappingsAndTransformersByName() {
+        User user = nihil.forTarget(new User())
+                .withMapping("deptId", "department")
+                .withTransformer("email", (String email) -> email.toLowerCase())
+                .update(new UserDTO());
+
+        assertEquals("R&D", user.department);
+        assertEquals("jane@example.com", user.email);
+    }
+
+    @Test
+    void mappingsAndTransformersByReference() {
+        User user = nihil.forTarget(new User())
+                .withMapping(UserDTO::getDeptId, User::setDepartment)
+                .withTransformer(UserDTO::getEmail, String::toUpperCase)
+                .update(new UserDTO());
+
+        assertEquals("R&D", user.department);
+        assertEquals("JANE@EXAMPLE.COM", user.email);
+    }
+
+    @Test
+    void unknownTargetPropertyFailsWhenConfigured() {
+        Nihil.UpdaterBuilder<User> builder = nihil.forTarget(new User());
+
+        assertThrows(IllegalArgumentException.class, () -> builder.withMapping("deptId", "division"));
+    }
+
+    @Test
+    void unknownSourcePropertyFailsOnUpdate() {
+        User user = new User();
+
+        assertThrows(IllegalArgumentException.class, () -> nihil.forTarget(user)
+                .withMapping("departmentId", "department")
+                .update(new UserDTO()));
+        assertThrows(IllegalArgumentException.class, () -> nihil.forTarget(user)
+                .withTransformer("mail", (String email) -> email.toLowerCase())
+                .update(new UserDTO()));
+        assertNull(user.email);
+    }
+}
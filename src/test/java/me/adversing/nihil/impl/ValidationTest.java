@@ -0,0 +1,234 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.annotation.NotBlank;
+import me.adversing.nihil.annotation.Pattern;
+import me.adversing.nihil.annotation.Range;
+import me.adversing.nihil.annotation.Satisfies;
+import me.adversing.nihil.annotation.Size;
+import me.adversing.nihil.codec.PatchCodec;
+import me.adversing.nihil.coalesce.PatchCoalescer;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.ConstraintViolationException;
+import me.adversing.nihil.exception.PropertyUpdateException;
+import me.adversing.nihil.journal.MappedPatchJournal;
+import me.adversing.nihil.plan.SlotValues;
+import me.adversing.nihil.plan.UpdatePlan;
+import me.adversing.nihil.result.PropertyError;
+import me.adversing.nihil.result.UpdateResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValidationTest {
+
+    public static class IsKnownPlan implements Predicate<String> {
+        @Override
+        public boolean test(String plan) {
+            return Set.of("free", "pro").contains(plan);
+        }
+    }
+
+    static class UserPatch {
+        @NotBlank
+        String name = "Jane";
+        @Range(min = 0, max = 150)
+        Integer age = 40;
+        @Pattern(regexp = "[A-Z]{2}")
+        @Size(min = 2, max = 2)
+        String country = "IT";
+        @Satisfies(IsKnownPlan.class)
+        String plan = "pro";
+    }
+
+    static class User {
+        String name = "old";
+        Integer age = 1;
+        String country = "FR";
+        String plan = "free";
+    }
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void validSourceIsWritten() {
+        User user = nihil(NihilConfig.builder()).update(new User(), new UserPatch());
+
+        assertEquals("Jane", user.name);
+        assertEquals("pro", user.plan);
+    }
+
+    @Test
+    void failFastStopsAtTheFirstViolation() {
+        UserPatch patch = new UserPatch();
+        patch.age = 200;
+        patch.plan = "gold";
+        User user = new User();
+
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class,
+                () -> nihil(NihilConfig.builder()).update(user, patch));
+
+        assertEquals(List.of(new PropertyError("age", ConstraintViolationException.class, "must be between 0 and 150")),
+                e.getViolations());
+        assertEquals("Jane", user.name);
+        assertEquals(1, user.age);
+        assertEquals("FR", user.country);
+    }
+
+    @Test
+    void collectAllReportsEveryViolationAndWritesTheRest() {
+        UserPatch patch = new UserPatch();
+        patch.name = " ";
+        patch.country = "ITA";
+        patch.plan = "gold";
+
+        UpdateResult<User> result = nihil(NihilConfig.builder()
+                .withValidationMode(NihilConfig.ValidationMode.COLLECT_ALL))
+                .tryUpdate(new User(), patch);
+
+        assertEquals(List.of("name", "country", "plan"),
+                result.errors().stream().map(PropertyError::property).toList());
+        assertEquals("old", result.target().name);
+        assertEquals(40, result.target().age);
+        assertEquals("FR", result.target().country);
+    }
+
+    @Test
+    void rollbackRestoresWhatTheRejectedUpdateWrote() {
+        UserPatch patch = new UserPatch();
+        patch.plan = "gold";
+        User user = new User();
+
+        assertThrows(ConstraintViolationException.class, () -> nihil(NihilConfig.builder()
+                .withValidationRollback(true))
+                .update(user, patch));
+
+        assertEquals("old", user.name);
+        assertEquals(1, user.age);
+        assertEquals("FR", user.country);
+    }
+
+    @Test
+    void mergeValidatesBeforeWritingAnything() {
+        UserPatch patch = new UserPatch();
+        patch.age = -1;
+        User user = new User();
+
+        assertThrows(ConstraintViolationException.class,
+                () -> nihil(NihilConfig.builder()).update(user, new UserPatch(), patch));
+
+        assertEquals("old", user.name);
+    }
+
+    @Test
+    void violationsSurviveSerialization() throws Exception {
+        UserPatch patch = new UserPatch();
+        patch.name = "";
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class,
+                () -> nihil(NihilConfig.builder()).update(new User(), patch));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(e);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            ConstraintViolationException copy = (ConstraintViolationException) in.readObject();
+            assertEquals(e.getViolations(), copy.getViolations());
+        }
+    }
+
+    @Test
+    void slotValuesAreValidatedBeforeWriting() {
+        NihilImpl nihil = nihil(NihilConfig.builder());
+        UpdatePlan plan = nihil.plan(UserPatch.class, User.class);
+        SlotValues values = new SlotValues(plan.size());
+        values.set(plan.sourceSlot("name"), "Jane");
+        values.set(plan.sourceSlot("age"), 200);
+        User user = new User();
+
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class,
+                () -> nihil.apply(user, plan, values, Map.of()));
+
+        assertEquals("age", e.getViolations().get(0).property());
+        assertEquals("old", user.name);
+    }
+
+    @Test
+    void patchesAreValidated() {
+        UserPatch target = new UserPatch();
+
+        assertThrows(ConstraintViolationException.class, () -> nihil(NihilConfig.builder())
+                .layout(UserPatch.class).newPatch()
+                .set("name", "John")
+                .set("country", "italy")
+                .applyTo(target));
+
+        assertEquals("Jane", target.name);
+        assertEquals("IT", target.country);
+    }
+
+    @Test
+    void coalescedPatchesAreValidated() {
+        UserPatch patch = new UserPatch();
+        patch.plan = "gold";
+        User user = new User();
+        PatchCoalescer<Integer, User> coalescer = PatchCoalescer.<Integer, User>builder(nihil(NihilConfig.builder()))
+                .build();
+        coalescer.submit(1, user, patch);
+
+        PropertyUpdateException e = assertThrows(PropertyUpdateException.class, coalescer::flush);
+
+        assertInstanceOf(ConstraintViolationException.class, e.getCause());
+        assertEquals("old", user.name);
+    }
+
+    @Test
+    void decodedPatchesAreValidated() {
+        NihilImpl nihil = nihil(NihilConfig.builder());
+        PatchCodec<UserPatch, User> codec = PatchCodec.of(nihil, UserPatch.class, User.class);
+        UserPatch patch = new UserPatch();
+        patch.age = -1;
+        User user = new User();
+
+        ByteBuffer encoded = ByteBuffer.wrap(codec.encode(patch));
+        assertThrows(ConstraintViolationException.class, () -> codec.decodeInto(encoded, user));
+
+        assertEquals("old", user.name);
+    }
+
+    @Test
+    void replayedRecordsAreValidated() {
+        NihilImpl nihil = nihil(NihilConfig.builder());
+        UpdatePlan plan = nihil.plan(UserPatch.class, User.class);
+        SlotValues values = new SlotValues(plan.size());
+        values.set(plan.sourceSlot("name"), "");
+        try (MappedPatchJournal journal = MappedPatchJournal.open(directory, 1 << 16, target -> 1)) {
+            // journaled by hand, since a regular update would have rejected it before recording
+            journal.record(new User(), plan, values);
+        }
+        User user = new User();
+
+        assertThrows(ConstraintViolationException.class,
+                () -> MappedPatchJournal.replay(directory, nihil, (type, key) -> user, Map.of()));
+
+        assertEquals("old", user.name);
+    }
+
+    private static NihilImpl nihil(NihilConfig.Builder config) {
+        return new NihilImpl(config.build());
+    }
+}
@@ -0,0 +1,92 @@
+package me.adversing.nihil.impl;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.annotation.UpdateSource;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.PlanVerificationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarmUpTest {
+
+    @UpdateSource(Account.class)
+    static class AccountDTO {
+        String owner;
+        // Account has nowhere to write it, which strict verification rejects
+        String nickname;
+    }
+
+    static class Account {
+        String owner;
+    }
+
+    private final Logger logger = Logger.getLogger(NihilImpl.class.getName());
+    private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+    private final CountDownLatch logged = new CountDownLatch(1);
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+            logged.countDown();
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    };
+
+    @BeforeEach
+    void captureLog() {
+        logger.addHandler(handler);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        logger.removeHandler(handler);
+    }
+
+    @Test
+    void failedWarmUpIsLoggedAndFailsTheFuture() {
+        NihilImpl nihil = new NihilImpl(strict().build());
+
+        CompletableFuture<Void> warmUp = nihil.warmUp();
+        assertSame(warmUp, nihil.warmUp());
+        CompletionException failure = assertThrows(CompletionException.class, warmUp::join);
+
+        assertInstanceOf(PlanVerificationException.class, failure.getCause());
+        assertTrue(records.stream().anyMatch(record -> record.getMessage().contains(AccountDTO.class.getName())
+                && record.getThrown() instanceof PlanVerificationException));
+    }
+
+    @Test
+    void createStartsTheWarmUp() throws InterruptedException {
+        // a configuration no other test uses, so the instance is created here
+        Nihil.create(strict().withStatistics(true).build());
+
+        assertTrue(logged.await(10, TimeUnit.SECONDS));
+    }
+
+    private static NihilConfig.Builder strict() {
+        return NihilConfig.builder()
+                .withPrecompiledPackages("me.adversing.nihil.impl")
+                .withStrictVerification(true);
+    }
+}
@@ -0,0 +1,108 @@
+package me.adversing.nihil.journal;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.CodecException;
+import me.adversing.nihil.impl.NihilImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedPatchJournalTest {
+
+    static class Counter {
+        Integer id;
+        Integer value;
+        String writer;
+        Object payload;
+
+        Counter() {}
+
+        Counter(Integer id) {
+            this.id = id;
+        }
+    }
+
+    static class CounterPatch {
+        Integer value;
+        String writer;
+        Object payload;
+
+        CounterPatch(Integer value, String writer) {
+            this.value = value;
+            this.writer = writer;
+        }
+    }
+
+    static class Gadget {
+        String command;
+    }
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysConcurrentLanesInApplicationOrder() throws InterruptedException {
+        List<Counter> live = List.of(new Counter(0), new Counter(1));
+        try (MappedPatchJournal journal = MappedPatchJournal.open(directory, 1 << 16, 4,
+                target -> ((Counter) target).id)) {
+            Nihil nihil = new NihilImpl(NihilConfig.builder()
+                    .withJournal(journal)
+                    .withConcurrencyMode(NihilConfig.ConcurrencyMode.STRIPED_LOCK)
+                    .build());
+
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String writer = "writer-" + t;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        nihil.update(live.get(i & 1), new CounterPatch(i, writer));
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        Map<Object, Counter> replayed = new HashMap<>();
+        long applied = MappedPatchJournal.replay(directory, new NihilImpl(NihilConfig.builder().build()),
+                (type, id) -> replayed.computeIfAbsent(id, key -> new Counter((Integer) key)), Map.of());
+
+        assertEquals(8_000, applied);
+        for (Counter counter : live) {
+            assertEquals(counter.value, replayed.get(counter.id).value);
+            assertEquals(counter.writer, replayed.get(counter.id).writer);
+        }
+    }
+
+    @Test
+    void replayRejectsClassesNotReachableFromThePlan() {
+        Gadget gadget = new Gadget();
+        gadget.command = "run";
+        CounterPatch patch = new CounterPatch(1, "writer");
+        patch.payload = gadget;
+
+        try (MappedPatchJournal journal = MappedPatchJournal.open(directory, 1 << 16, 1,
+                target -> ((Counter) target).id)) {
+            new NihilImpl(NihilConfig.builder().withJournal(journal).build()).update(new Counter(7), patch);
+        }
+
+        Nihil nihil = new NihilImpl(NihilConfig.builder().build());
+        assertThrows(CodecException.class, () -> MappedPatchJournal.replay(directory, nihil,
+                (type, id) -> new Counter(), Map.of()));
+
+        Counter replayed = new Counter();
+        MappedPatchJournal.replay(directory, nihil, (type, id) -> replayed, Map.of(), type -> type == Gadget.class);
+        assertEquals("run", ((Gadget) replayed.payload).command);
+    }
+}
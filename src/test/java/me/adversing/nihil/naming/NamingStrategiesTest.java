@@ -0,0 +1,85 @@
+package me.adversing.nihil.naming;
+
+import me.adversing.nihil.Nihil;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilImpl;
+import me.adversing.nihil.intf.INamingStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class NamingStrategiesTest {
+
+    static class UserRow {
+        String m_user_id = "u-1";
+        String m_email_address = "jane@example.com";
+    }
+
+    static class User {
+        String userId;
+        String emailAddress;
+    }
+
+    @Test
+    void camelToSnakeSplitsAcronyms() {
+        INamingStrategy strategy = NamingStrategies.camelToSnake();
+
+        assertEquals("email_address", strategy.targetProperty("emailAddress"));
+        assertEquals("user_id", strategy.targetProperty("userID"));
+        assertEquals("id_card", strategy.targetProperty("IDCard"));
+        assertEquals("address2_line", strategy.targetProperty("address2Line"));
+    }
+
+    @Test
+    void snakeToCamelIgnoresLeadingUnderscores() {
+        INamingStrategy strategy = NamingStrategies.snakeToCamel();
+
+        assertEquals("emailAddress", strategy.targetProperty("email_address"));
+        assertEquals("emailAddress", strategy.targetProperty("__email_address"));
+        assertEquals("__", strategy.targetProperty("__"));
+    }
+
+    @Test
+    void stripPrefixKeepsNamesThatAreOnlyAPrefix() {
+        INamingStrategy strategy = NamingStrategies.stripPrefix("m_", "m");
+
+        assertEquals("email", strategy.targetProperty("m_email"));
+        assertEquals("email", strategy.targetProperty("mEmail"));
+        assertEquals("URL", strategy.targetProperty("mURL"));
+        assertEquals("m", strategy.targetProperty("m"));
+        assertEquals("m_", NamingStrategies.stripPrefix("m_").targetProperty("m_"));
+    }
+
+    @Test
+    void chainAppliesBothStrategies() {
+        INamingStrategy strategy = NamingStrategies.chain(NamingStrategies.stripPrefix("m_"),
+                NamingStrategies.snakeToCamel());
+
+        User user = new NihilImpl(NihilConfig.builder().withNamingStrategy(strategy).build())
+                .update(new User(), new UserRow());
+
+        assertEquals("u-1", user.userId);
+        assertEquals("jane@example.com", user.emailAddress);
+    }
+
+    @Test
+    void equalStrategiesShareAnInstance() {
+        Nihil first = Nihil.create(NihilConfig.builder()
+                .withNamingStrategy(NamingStrategies.chain(NamingStrategies.stripPrefix("m_"),
+                        NamingStrategies.snakeToCamel()))
+                .build());
+        Nihil second = Nihil.create(NihilConfig.builder()
+                .withNamingStrategy(NamingStrategies.chain(NamingStrategies.stripPrefix("m_"),
+                        NamingStrategies.snakeToCamel()))
+                .build());
+        Nihil other = Nihil.create(NihilConfig.builder()
+                .withNamingStrategy(NamingStrategies.chain(NamingStrategies.stripPrefix("f_"),
+                        NamingStrategies.snakeToCamel()))
+                .build());
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+    }
+}
@@ -0,0 +1,82 @@
+package me.adversing.nihil.patch;
+
+import me.adversing.nihil.annotation.UpdateProperty;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilImpl;
+import me.adversing.nihil.intf.IPropertyHandler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatchTest {
+
+    static class Trim implements IPropertyHandler<String> {
+        @Override
+        public Object process(String value) {
+            return value == null ? null : value.trim();
+        }
+    }
+
+    static class User {
+        @UpdateProperty(handler = Trim.class)
+        String name = "old";
+        String email = "old@example.com";
+        int age = 1;
+    }
+
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder().build());
+    private final PatchLayout<User> layout = nihil.layout(User.class);
+    private final PatchLayout.Property<User, String> email = layout.property("email", String.class);
+    private final PatchLayout.Property<User, Integer> age = layout.property("age", Integer.class);
+
+    @Test
+    void typedPropertiesAreSetReadAndUnset() {
+        Patch<User> patch = layout.newPatch()
+                .set(email, "new@example.com")
+                .set(age, 40);
+
+        assertEquals("new@example.com", patch.get(email));
+        assertEquals(40, patch.get(age));
+        assertTrue(patch.isSet(age));
+
+        patch.unset(age);
+        assertFalse(patch.isSet(age));
+        assertNull(patch.get(age));
+
+        User user = patch.applyTo(new User());
+        assertEquals("new@example.com", user.email);
+        assertEquals(1, user.age);
+    }
+
+    @Test
+    void valuesOfTheWrongTypeAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> layout.property("age", String.class));
+        assertThrows(IllegalArgumentException.class, () -> layout.property("nickname", String.class));
+        assertThrows(IllegalArgumentException.class, () -> layout.newPatch().set("age", "forty"));
+
+        assertEquals(40, layout.newPatch().set("age", 40).applyTo(new User()).age);
+    }
+
+    @Test
+    void propertiesOfAnotherLayoutAreRejected() {
+        PatchLayout.Property<User, String> foreign = new NihilImpl(NihilConfig.builder().build())
+                .layout(User.class).property("email", String.class);
+        Patch<User> patch = layout.newPatch();
+
+        assertThrows(IllegalArgumentException.class, () -> patch.set(foreign, "new@example.com"));
+        assertThrows(IllegalArgumentException.class, () -> patch.get(foreign));
+    }
+
+    @Test
+    void handlersDeclaredOnTheTargetRun() {
+        User user = nihil.patch(User.class)
+                .set("name", "  Jane ")
+                .applyTo(new User());
+
+        assertEquals("Jane", user.name);
+    }
+}
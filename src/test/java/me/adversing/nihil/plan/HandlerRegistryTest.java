@@ -0,0 +1,93 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.annotation.UpdateProperty;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.config.TypeRef;
+import me.adversing.nihil.impl.NihilImpl;
+import me.adversing.nihil.intf.IPropertyHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HandlerRegistryTest {
+
+    record Course(long id) {}
+
+    record Department(long id) {}
+
+    static class CourseIdHandler implements IPropertyHandler<List<Long>> {
+        @Override
+        public Object process(List<Long> ids) {
+            return ids.stream().map(Course::new).toList();
+        }
+    }
+
+    static class NoCourses implements IPropertyHandler<List<Long>> {
+        @Override
+        public Object process(List<Long> ids) {
+            return List.of();
+        }
+    }
+
+    static class DepartmentIdHandler implements IPropertyHandler<Long> {
+        @Override
+        public Object process(Long id) {
+            return new Department(id);
+        }
+    }
+
+    static class StudentDTO {
+        List<Long> courses = List.of(1L, 2L);
+        @UpdateProperty(handler = NoCourses.class)
+        List<Long> electives = List.of(3L);
+        List<Long> grades = List.of(28L);
+        long department = 7;
+    }
+
+    static class Student {
+        List<Course> courses;
+        List<Course> electives;
+        List<Long> grades;
+        Department department;
+    }
+
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder()
+            .withHandler(new TypeRef<List<Long>>() {}, new TypeRef<List<Course>>() {}, CourseIdHandler.class)
+            .withHandler(Long.class, Department.class, DepartmentIdHandler.class)
+            .build());
+
+    @Test
+    void handlersAreBoundByGenericTypes() {
+        Student student = nihil.update(new Student(), new StudentDTO());
+
+        assertEquals(List.of(new Course(1), new Course(2)), student.courses);
+        assertEquals(new Department(7), student.department);
+    }
+
+    @Test
+    void annotatedHandlerTakesPrecedence() {
+        Student student = nihil.update(new Student(), new StudentDTO());
+
+        assertEquals(List.of(), student.electives);
+        assertEquals(NoCourses.class, handler("electives"));
+    }
+
+    @Test
+    void unmatchedGenericPairsAreNotBound() {
+        Student student = nihil.update(new Student(), new StudentDTO());
+
+        // List<Long> to List<Long> differs from the registered List<Long> to List<Course>
+        assertNull(handler("grades"));
+        assertEquals(List.of(28L), student.grades);
+    }
+
+    private Class<?> handler(String property) {
+        return nihil.explain(StudentDTO.class, Student.class).properties().stream()
+                .filter(p -> p.sourceProperty().equals(property))
+                .findFirst().orElseThrow()
+                .handler();
+    }
+}
@@ -0,0 +1,117 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.annotation.UpdateProperty;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.exception.PlanVerificationException;
+import me.adversing.nihil.impl.NihilImpl;
+import me.adversing.nihil.intf.IPropertyHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanExplanationTest {
+
+    static class Upper implements IPropertyHandler<String> {
+        @Override
+        public Object process(String value) {
+            return value.toUpperCase();
+        }
+    }
+
+    static class ProfileDTO {
+        static String DEFAULT_NAME = "anonymous";
+
+        String name;
+        String email;
+        @UpdateProperty(handler = Upper.class)
+        String nickname;
+        String phone;
+        Integer age;
+        transient String cache;
+        final String id = "p-1";
+        String secret;
+    }
+
+    static class Profile {
+        private String name;
+        String email;
+        String nickname;
+        String age;
+        String notes;
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    static class ContactDTO {
+        String email;
+    }
+
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder().ignoreProperty("secret").build());
+
+    @Test
+    void describesHowEachPropertyIsWritten() {
+        Map<String, PlanExplanation.Property> properties = properties(nihil.explain(ProfileDTO.class, Profile.class));
+
+        assertEquals(PlanExplanation.Access.SETTER, properties.get("name").access());
+        assertEquals("setName", properties.get("name").writer().getName());
+        assertEquals(PlanExplanation.Access.FIELD, properties.get("email").access());
+        assertNull(properties.get("email").handler());
+        assertEquals(Upper.class, properties.get("nickname").handler());
+    }
+
+    @Test
+    void reportsUnmatchedProperties() {
+        PlanExplanation explanation = nihil.explain(ProfileDTO.class, Profile.class);
+
+        assertFalse(explanation.isValid());
+        assertEquals(Map.of(
+                "phone", "no setter or field for phone on Profile",
+                "age", "field of type java.lang.String cannot hold java.lang.Integer"),
+                explanation.unmatched().stream().collect(Collectors.toMap(
+                        PlanExplanation.Property::sourceProperty, PlanExplanation.Property::problem)));
+        assertEquals(PlanExplanation.Access.NONE, properties(explanation).get("phone").access());
+        assertEquals(List.of("notes"), explanation.unwrittenTargetProperties());
+    }
+
+    @Test
+    void reportsWhyFieldsAreIgnored() {
+        PlanExplanation explanation = nihil.explain(ProfileDTO.class, Profile.class);
+
+        assertEquals(Map.of(
+                "DEFAULT_NAME", "static",
+                "cache", "transient",
+                "id", "final",
+                "secret", "ignored by configuration"),
+                explanation.ignored().stream().collect(Collectors.toMap(
+                        PlanExplanation.Ignored::property, PlanExplanation.Ignored::reason)));
+    }
+
+    @Test
+    void strictVerificationRejectsMisconfiguredPairsWhenPrepared() {
+        NihilImpl strict = new NihilImpl(NihilConfig.builder().withStrictVerification(true).build());
+
+        PlanVerificationException e = assertThrows(PlanVerificationException.class,
+                () -> strict.prepare(ContactDTO.class, Profile.class, ProfileDTO.class, Profile.class));
+
+        assertEquals(1, e.getFailures().size());
+        assertEquals(ProfileDTO.class, e.getFailures().get(0).sourceClass());
+        assertTrue(e.getMessage().contains("phone: no setter or field for phone on Profile"));
+        assertDoesNotThrow(() -> nihil.prepare(ProfileDTO.class, Profile.class));
+    }
+
+    private static Map<String, PlanExplanation.Property> properties(PlanExplanation explanation) {
+        return explanation.properties().stream()
+                .collect(Collectors.toMap(PlanExplanation.Property::sourceProperty, property -> property));
+    }
+}
@@ -0,0 +1,102 @@
+package me.adversing.nihil.plan;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadStrategyTest {
+
+    static class Entity {
+        private String id = "c-1";
+
+        public String getId() { return id; }
+    }
+
+    static class Customer extends Entity {
+        private String name = "stored";
+        // no getter, so only field reads see it
+        private String note = "internal";
+
+        public String getName() { return name; }
+    }
+
+    // named like a generated lazy-loading proxy, which only initializes through its getters
+    static class Customer$$Proxy extends Customer {
+        private Object $$_interceptor = new Object();
+        boolean initialized;
+
+        @Override
+        public String getName() {
+            initialized = true;
+            return "loaded";
+        }
+    }
+
+    static class CustomerView {
+        String id;
+        String name;
+        String note;
+    }
+
+    record CustomerRecord(String id, String name) {
+        @Override
+        public String name() {
+            return name.toUpperCase();
+        }
+    }
+
+    @Test
+    void inheritedPropertiesAreRead() {
+        CustomerView view = update(NihilConfig.ReadStrategy.FIELD, new Customer());
+
+        assertEquals("c-1", view.id);
+        assertEquals("stored", view.name);
+        assertEquals("internal", view.note);
+    }
+
+    @Test
+    void methodStrategyReadsOnlyThroughAccessors() {
+        CustomerView view = update(NihilConfig.ReadStrategy.METHOD, new CustomerRecord("c-2", "jane"));
+        assertEquals("JANE", view.name);
+
+        view = update(NihilConfig.ReadStrategy.METHOD, new Customer());
+        assertEquals("c-1", view.id);
+        assertNull(view.note);
+    }
+
+    @Test
+    void autoStrategyFallsBackToFields() {
+        Customer$$Proxy proxy = new Customer$$Proxy();
+
+        CustomerView view = update(NihilConfig.ReadStrategy.AUTO, proxy);
+
+        assertTrue(proxy.initialized);
+        assertEquals("loaded", view.name);
+        assertEquals("internal", view.note);
+    }
+
+    @Test
+    void proxyBookkeepingIsNotAProperty() {
+        NihilImpl nihil = new NihilImpl(NihilConfig.builder()
+                .withReadStrategy(NihilConfig.ReadStrategy.METHOD)
+                .build());
+
+        PlanExplanation explanation = nihil.explain(Customer$$Proxy.class, CustomerView.class);
+
+        assertEquals(List.of("id", "name"), explanation.properties().stream()
+                .map(PlanExplanation.Property::sourceProperty)
+                .toList());
+        assertEquals(List.of("note"), explanation.ignored().stream().map(PlanExplanation.Ignored::property).toList());
+    }
+
+    private static CustomerView update(NihilConfig.ReadStrategy strategy, Object source) {
+        return new NihilImpl(NihilConfig.builder().withReadStrategy(strategy).build())
+                .update(new CustomerView(), source);
+    }
+}
@@ -0,0 +1,86 @@
+package me.adversing.nihil.stats;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.plan.PlanCompiler;
+import me.adversing.nihil.plan.UpdatePlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class StatsRecorderTest {
+
+    static class UserDTO {
+        String name;
+        String email;
+        String deptId;
+    }
+
+    static class User {
+        String name;
+        String email;
+        String deptId;
+        String department;
+    }
+
+    private final StatsRecorder recorder = new StatsRecorder();
+    private final PlanCompiler compiler = new PlanCompiler(NihilConfig.builder().build(), recorder);
+
+    @Test
+    void plansOfOnePairShareARow() {
+        UpdatePlan plain = compiler.compile(UserDTO.class, User.class);
+        UpdatePlan mapped = compiler.compile(UserDTO.class, User.class, Map.of("deptId", "department"));
+        assertNotSame(plain, mapped);
+
+        recorder.update(plain, 3, 1_000);
+        recorder.update(mapped, 1, 1_500);
+        recorder.updateFailed(mapped);
+
+        NihilStats.PairStats pair = recorder.snapshot().pairs().get(0);
+        assertEquals(1, recorder.snapshot().pairs().size());
+        assertEquals(UserDTO.class, pair.sourceClass());
+        assertEquals(User.class, pair.targetClass());
+        assertEquals(2, pair.updates());
+        assertEquals(1, pair.failures());
+        assertEquals(4, pair.propertiesWritten());
+        assertEquals(2, pair.propertiesSkipped());
+    }
+
+    @Test
+    void latenciesLandInTheirPowerOfTwoBucket() {
+        UpdatePlan plan = compiler.compile(UserDTO.class, User.class);
+
+        recorder.update(plan, 3, 0);
+        recorder.update(plan, 3, 1_000);
+        recorder.update(plan, 3, 1_023);
+        recorder.update(plan, 3, 1_024);
+
+        LatencyHistogram.Snapshot latency = recorder.snapshot().pairs().get(0).latency();
+        assertEquals(1, latency.counts()[0]);
+        assertEquals(2, latency.counts()[9]);
+        assertEquals(1, latency.counts()[10]);
+        assertEquals(4, latency.count());
+        assertEquals(1023, latency.percentileNanos(75));
+        assertEquals(2047, latency.percentileNanos(100));
+    }
+
+    @Test
+    void cacheRatios() {
+        NihilStats empty = new StatsRecorder().snapshot();
+        assertEquals(1.0, empty.planCacheHitRatio());
+        assertEquals(0.0, empty.dedupRatio());
+
+        recorder.planLookup(false);
+        recorder.planLookup(true);
+        recorder.planLookup(true);
+        recorder.planLookup(true);
+        recorder.internLookup(true);
+        recorder.internLookup(false);
+
+        NihilStats stats = recorder.snapshot();
+        assertEquals(0.75, stats.planCacheHitRatio());
+        assertEquals(0.5, stats.dedupRatio());
+    }
+}
@@ -0,0 +1,79 @@
+package me.adversing.nihil.util;
+
+import me.adversing.nihil.annotation.Intern;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilImpl;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class InternTableTest {
+
+    static class AddressDTO {
+        @Intern
+        String country;
+        String city;
+
+        AddressDTO(String country, String city) {
+            this.country = country;
+            this.city = city;
+        }
+    }
+
+    static class Address {
+        String country;
+        String city;
+    }
+
+    @Test
+    void equalValuesShareOneInstanceOnTheTarget() {
+        NihilImpl nihil = new NihilImpl(NihilConfig.builder().internProperty("city").build());
+
+        Address first = nihil.update(new Address(), new AddressDTO(new String("IT"), new String("Turin")));
+        Address second = nihil.update(new Address(), new AddressDTO(new String("IT"), new String("Turin")));
+
+        assertSame(first.country, second.country);
+        assertSame(first.city, second.city);
+    }
+
+    @Test
+    void evictionKeepsTheTableBounded() {
+        InternTable table = new InternTable(3);
+        String early = new String("value-0");
+        table.intern(early);
+        for (int i = 1; i < 10_000; i++) {
+            table.intern("value-" + i);
+        }
+
+        assertEquals(4, table.capacity());
+        assertNotSame(early, table.intern(new String("value-0")));
+
+        String recent = new String("recent");
+        table.intern(recent);
+        assertSame(recent, table.intern(new String("recent")));
+    }
+
+    @Test
+    void valuesOfDifferentClassesAreNotShared() {
+        InternTable table = new InternTable(16);
+        Integer integer = 1_000;
+
+        table.intern(integer);
+
+        assertEquals(Long.class, table.intern(1_000L).getClass());
+    }
+
+    @Test
+    void lookupsFeedTheDedupRatio() {
+        NihilImpl nihil = new NihilImpl(NihilConfig.builder().withStatistics(true).build());
+
+        nihil.update(new Address(), new AddressDTO(new String("IT"), "Turin"));
+        nihil.update(new Address(), new AddressDTO(new String("IT"), "Turin"));
+        nihil.update(new Address(), new AddressDTO(new String("IT"), "Turin"));
+        nihil.update(new Address(), new AddressDTO(new String("FR"), "Paris"));
+
+        assertEquals(0.5, nihil.stats().dedupRatio());
+    }
+}
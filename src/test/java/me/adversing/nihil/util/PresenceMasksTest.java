@@ -0,0 +1,129 @@
+package me.adversing.nihil.util;
+
+import me.adversing.nihil.annotation.PresenceBit;
+import me.adversing.nihil.annotation.PresenceMask;
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PresenceMasksTest {
+
+    static class User {
+        String name = "old";
+        String email = "old@example.com";
+        String phone = "000";
+    }
+
+    static class PinnedPatch {
+        @PresenceBit(5)
+        String name;
+        @PresenceBit(0)
+        String email;
+        @PresenceMask
+        long present;
+    }
+
+    static class NamedPatch {
+        String phone;
+        String email;
+        @PresenceMask
+        BitSet present;
+    }
+
+    static class MixedPatch {
+        @PresenceBit(0)
+        String name;
+        String email;
+        @PresenceMask
+        long present;
+    }
+
+    static class DuplicatePatch {
+        @PresenceBit(1)
+        String name;
+        @PresenceBit(1)
+        String email;
+        @PresenceMask
+        long present;
+    }
+
+    static class WidePatch {
+        @PresenceBit(64)
+        String name;
+        @PresenceMask
+        long present;
+    }
+
+    static class BasePatch {
+        String email;
+    }
+
+    static class DerivedPatch extends BasePatch {
+        String name;
+        @PresenceMask
+        long present;
+    }
+
+    // one field more than a long has bits
+    static class CrowdedPatch {
+        String f00, f01, f02, f03, f04, f05, f06, f07, f08, f09, f10, f11, f12;
+        String f13, f14, f15, f16, f17, f18, f19, f20, f21, f22, f23, f24, f25;
+        String f26, f27, f28, f29, f30, f31, f32, f33, f34, f35, f36, f37, f38;
+        String f39, f40, f41, f42, f43, f44, f45, f46, f47, f48, f49, f50, f51;
+        String f52, f53, f54, f55, f56, f57, f58, f59, f60, f61, f62, f63, f64;
+        @PresenceMask
+        long present;
+    }
+
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder().build());
+
+    @Test
+    void explicitBitsSelectTheirFields() {
+        assertEquals(5, PresenceMasks.bit(PinnedPatch.class, "name"));
+        assertEquals(0, PresenceMasks.bit(PinnedPatch.class, "email"));
+
+        PinnedPatch patch = new PinnedPatch();
+        patch.email = "ignored@example.com";
+        patch.present = 1L << 5;
+
+        User user = nihil.update(new User(), patch);
+        assertNull(user.name);
+        assertEquals("old@example.com", user.email);
+    }
+
+    @Test
+    void fieldsWithoutExplicitBitsAreNumberedByName() {
+        assertEquals(0, PresenceMasks.bit(NamedPatch.class, "email"));
+        assertEquals(1, PresenceMasks.bit(NamedPatch.class, "phone"));
+
+        NamedPatch patch = new NamedPatch();
+        patch.email = "new@example.com";
+        patch.phone = "111";
+        patch.present = new BitSet();
+        patch.present.set(PresenceMasks.bit(NamedPatch.class, "phone"));
+
+        User user = nihil.update(new User(), patch);
+        assertEquals("111", user.phone);
+        assertEquals("old@example.com", user.email);
+    }
+
+    @Test
+    void rejectsInconsistentBits() {
+        assertThrows(IllegalArgumentException.class, () -> PresenceMasks.bitFields(MixedPatch.class));
+        assertThrows(IllegalArgumentException.class, () -> PresenceMasks.bitFields(DuplicatePatch.class));
+        assertThrows(IllegalArgumentException.class, () -> PresenceMasks.bitFields(WidePatch.class));
+        assertThrows(IllegalArgumentException.class, () -> PresenceMasks.bitFields(CrowdedPatch.class));
+    }
+
+    @Test
+    void rejectsInheritedFields() {
+        assertThrows(IllegalArgumentException.class, () -> PresenceMasks.bitFields(DerivedPatch.class));
+        assertThrows(IllegalArgumentException.class, () -> nihil.update(new User(), new DerivedPatch()));
+    }
+}
@@ -0,0 +1,98 @@
+package me.adversing.nihil.workload;
+
+import me.adversing.nihil.config.NihilConfig;
+import me.adversing.nihil.impl.NihilImpl;
+import me.adversing.nihil.patch.Patch;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadRecorderTest {
+
+    static class UserDTO {
+        String email;
+        String phone;
+        List<String> tags;
+
+        UserDTO(String email, String phone, List<String> tags) {
+            this.email = email;
+            this.phone = phone;
+            this.tags = tags;
+        }
+    }
+
+    static class User {
+        String email;
+        String phone;
+        List<String> tags;
+    }
+
+    private final WorkloadRecorder recorder = new WorkloadRecorder(1);
+    private final NihilImpl nihil = new NihilImpl(NihilConfig.builder().withWorkloadRecorder(recorder).build());
+
+    @Test
+    void profilesHoldShapesButNoValues() throws IOException {
+        nihil.update(new User(), new UserDTO("secret@example.com", null, List.of("vip", "beta", "early")));
+
+        WorkloadProfile.Pair pair = recorder.snapshot().pairs().get(0);
+        assertEquals(UserDTO.class.getName(), pair.sourceClass());
+        assertEquals(List.of("email", "phone", "tags"),
+                pair.slots().stream().map(WorkloadProfile.Slot::property).toList());
+        assertEquals(1, pair.slots().get(2).sizes()[WorkloadProfile.sizeBucket(3)]);
+        assertFalse(pair.slots().get(0).isSized());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recorder.snapshot().writeTo(bytes);
+        String written = bytes.toString(StandardCharsets.ISO_8859_1);
+        assertFalse(written.contains("secret"));
+        assertFalse(written.contains("vip"));
+    }
+
+    @Test
+    void presencePatternsAreCounted() {
+        nihil.update(new User(), new UserDTO("a@example.com", null, null));
+        nihil.update(new User(), new UserDTO("b@example.com", null, null));
+        nihil.update(new User(), new UserDTO("c@example.com", "555", null));
+
+        WorkloadProfile.Pair pair = recorder.snapshot().pairs().get(0);
+        assertEquals(3, pair.samples());
+        assertEquals(Map.of(0b001L, 2L, 0b011L, 1L), pair.patterns());
+    }
+
+    @Test
+    void profilesRoundTrip() throws IOException {
+        nihil.update(new User(), new UserDTO("a@example.com", null, List.of("vip")));
+        WorkloadProfile profile = recorder.snapshot();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        profile.writeTo(bytes);
+        WorkloadProfile read = WorkloadProfile.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+
+        WorkloadProfile.Pair expected = profile.pairs().get(0);
+        WorkloadProfile.Pair actual = read.pairs().get(0);
+        assertEquals(expected.fingerprint(), actual.fingerprint());
+        assertEquals(expected.patterns(), actual.patterns());
+        assertArrayEquals(expected.slots().get(2).sizes(), actual.slots().get(2).sizes());
+    }
+
+    @Test
+    void onlyUpdatesFromSourceObjectsAreSampled() {
+        nihil.forTarget(new User())
+                .withTransformer("email", (String email) -> email.toLowerCase())
+                .update(new UserDTO("A@example.com", null, null));
+        Patch<User> patch = nihil.patch(User.class).set("phone", "555");
+        patch.applyTo(new User());
+
+        assertTrue(recorder.snapshot().pairs().isEmpty());
+    }
+}